@@ -1,6 +1,6 @@
 import apiClient from './client';
 import type {
-  LoginRequest, JwtAuthResponse, ApiResponse, PageResponse,
+  LoginRequest, JwtAuthResponse, ApiResponse, PageResponse, SliceResponse,
   Product, ProductRequest, Inventory, InventoryAdjustRequest, InventoryMovement,
   Supplier, SupplierRequest, Customer, Warehouse,
   PurchaseOrder, PurchaseOrderRequest, SalesOrder, SalesOrderRequest,
@@ -35,6 +35,8 @@ export const inventoryApi = {
     apiClient.get<ApiResponse<PageResponse<InventoryMovement>>>(`/inventory/movements`, {
       params: { productId, page, size }
     }).then(unwrap),
+  scrollMovements: (params: { productId?: number; warehouseId?: number; after?: string; size?: number }) =>
+    apiClient.get<ApiResponse<SliceResponse<InventoryMovement>>>(`/inventory/movements/scroll`, { params }).then(unwrap),
 };
 
 // SUPPLIERS
@@ -1,79 +1,77 @@
-import React, { useState } from 'react';
-import { useQuery } from '@tanstack/react-query';
-import { Box, Typography, Chip, TextField, MenuItem, InputAdornment } from '@mui/material';
-import { DataGrid, GridColDef } from '@mui/x-data-grid';
-import { Search } from '@mui/icons-material';
-import { inventoryApi } from '../../api/endpoints';
+import React, { useEffect, useRef, useState } from 'react';
+import { useInfiniteQuery, useQuery } from '@tanstack/react-query';
+import {
+  Box, Typography, Chip, TextField, MenuItem, Table, TableHead, TableBody,
+  TableRow, TableCell, TableContainer, CircularProgress
+} from '@mui/material';
+import { inventoryApi, warehouseApi } from '../../api/endpoints';
 import { formatDateTime } from '../../utils/format';
-import type { InventoryMovement, MovementType } from '../../types';
+import type { MovementType } from '../../types';
 
 const MOVEMENT_COLORS: Record<MovementType, 'success' | 'error' | 'warning' | 'info' | 'default'> = {
   PURCHASE: 'success', SALE: 'error', RETURN: 'warning',
   ADJUSTMENT: 'info', TRANSFER: 'default',
 };
 
+const SLICE_SIZE = 50;
+
+// Only the rows in view (plus overscan) are rendered; spacer rows keep the scroll height.
+// Rows have a fixed height so a row's offset is index * ROW_HEIGHT.
+const VIEWPORT_HEIGHT = 580;
+const ROW_HEIGHT = 37;
+const OVERSCAN = 10;
+
+const mono = { fontFamily: '"IBM Plex Mono"' };
+const headCell = { fontWeight: 600, whiteSpace: 'nowrap' as const };
+
 export default function InventoryMovements() {
-  const [page, setPage] = useState(0);
   const [typeFilter, setTypeFilter] = useState('');
+  const [warehouseId, setWarehouseId] = useState<number | ''>('');
+  const containerRef = useRef<HTMLDivElement>(null);
+  const sentinelRef = useRef<HTMLTableRowElement>(null);
+  const [scrollTop, setScrollTop] = useState(0);
 
-  const { data, isLoading } = useQuery({
-    queryKey: ['movements', page],
-    queryFn: () => inventoryApi.getMovements(undefined, page, 25),
+  const { data: warehouses } = useQuery({ queryKey: ['warehouses'], queryFn: warehouseApi.getAll });
+
+  // Keyset slices, newest first: each slice costs the same however far the user has scrolled
+  const { data, isLoading, hasNextPage, isFetchingNextPage, fetchNextPage } = useInfiniteQuery({
+    queryKey: ['movements', 'scroll', warehouseId],
+    queryFn: ({ pageParam }) => inventoryApi.scrollMovements({
+      warehouseId: warehouseId || undefined, after: pageParam, size: SLICE_SIZE,
+    }),
+    initialPageParam: undefined as string | undefined,
+    getNextPageParam: last => (last.hasNext ? last.nextCursor : undefined),
   });
 
-  const columns: GridColDef<InventoryMovement>[] = [
-    { field: 'id', headerName: '#', width: 70,
-      renderCell: ({ value }) => <Typography sx={{ fontFamily: '"IBM Plex Mono"', fontSize: 11, color: 'text.disabled' }}>#{value}</Typography> },
-    { field: 'productSku', headerName: 'SKU', width: 130,
-      renderCell: ({ value }) => <Typography sx={{ fontFamily: '"IBM Plex Mono"', fontSize: 12, color: 'primary.main' }}>{value}</Typography> },
-    { field: 'productName', headerName: 'Product', flex: 1, minWidth: 180 },
-    { field: 'warehouseName', headerName: 'Warehouse', width: 150 },
-    { field: 'movementType', headerName: 'Type', width: 130,
-      renderCell: ({ value }) => (
-        <Chip label={value} size="small"
-          color={MOVEMENT_COLORS[value as MovementType] || 'default'}
-          sx={{ fontSize: 10, fontWeight: 700 }} />
-      )
-    },
-    { field: 'quantity', headerName: 'Qty Change', width: 110, align: 'right', headerAlign: 'right',
-      renderCell: ({ value }) => (
-        <Typography fontWeight={700} fontSize={13}
-          sx={{ color: value > 0 ? 'success.main' : 'error.main' }}>
-          {value > 0 ? `+${value}` : value}
-        </Typography>
-      )
-    },
-    { field: 'quantityBefore', headerName: 'Before', width: 90, align: 'right', headerAlign: 'right',
-      renderCell: ({ value }) => <Typography fontSize={12} color="text.secondary">{value}</Typography> },
-    { field: 'quantityAfter', headerName: 'After', width: 90, align: 'right', headerAlign: 'right',
-      renderCell: ({ value }) => <Typography fontSize={12} fontWeight={600}>{value}</Typography> },
-    { field: 'referenceType', headerName: 'Reference', width: 130,
-      renderCell: ({ value }) => value ? (
-        <Chip label={value.replace('_', ' ')} size="small" variant="outlined" sx={{ fontSize: 10 }} />
-      ) : <Typography color="text.disabled" fontSize={11}>—</Typography>
-    },
-    { field: 'notes', headerName: 'Notes', flex: 1, minWidth: 140,
-      renderCell: ({ value }) => (
-        <Typography fontSize={12} color="text.secondary" noWrap>{value || '—'}</Typography>
-      )
-    },
-    { field: 'createdAt', headerName: 'Date', width: 160,
-      renderCell: ({ value }) => (
-        <Typography fontSize={11} sx={{ fontFamily: '"IBM Plex Mono"' }}>{formatDateTime(value)}</Typography>
-      )
-    },
-    { field: 'createdBy', headerName: 'By', width: 100,
-      renderCell: ({ value }) => <Typography fontSize={11} color="text.secondary">{value}</Typography> },
-  ];
+  const movements = data?.pages.flatMap(p => p.content) ?? [];
+  const rows = movements.filter(m => !typeFilter || m.movementType === typeFilter);
 
-  const filtered = data?.content.filter(m => !typeFilter || m.movementType === typeFilter) || [];
+  const first = Math.max(0, Math.floor(scrollTop / ROW_HEIGHT) - OVERSCAN);
+  const last = Math.min(rows.length, first + Math.ceil(VIEWPORT_HEIGHT / ROW_HEIGHT) + 2 * OVERSCAN);
+
+  // A new filter starts at the top of its own trail
+  useEffect(() => {
+    containerRef.current?.scrollTo({ top: 0 });
+    setScrollTop(0);
+  }, [typeFilter, warehouseId]);
+
+  // Load the next slice when the row below the last one scrolls into view
+  useEffect(() => {
+    const sentinel = sentinelRef.current;
+    if (!sentinel || !hasNextPage) return;
+    const observer = new IntersectionObserver(entries => {
+      if (entries[0].isIntersecting && !isFetchingNextPage) fetchNextPage();
+    }, { root: containerRef.current, rootMargin: '200px' });
+    observer.observe(sentinel);
+    return () => observer.disconnect();
+  }, [hasNextPage, isFetchingNextPage, fetchNextPage, rows.length]);
 
   return (
     <Box sx={{ p: 3 }}>
       <Box sx={{ mb: 3 }}>
         <Typography variant="h5" fontWeight={700}>Inventory Movements</Typography>
         <Typography variant="body2" color="text.secondary">
-          Complete audit trail of all stock changes — {data?.totalElements ?? 0} records
+          Complete audit trail of all stock changes — {movements.length} loaded{hasNextPage ? ', scroll for more' : ''}
         </Typography>
       </Box>
 
@@ -85,22 +83,102 @@ export default function InventoryMovements() {
             <MenuItem key={t} value={t}>{t}</MenuItem>
           ))}
         </TextField>
+        <TextField select label="Warehouse" value={warehouseId}
+          onChange={e => setWarehouseId(e.target.value === '' ? '' : Number(e.target.value))}
+          size="small" sx={{ width: 200 }}>
+          <MenuItem value="">All Warehouses</MenuItem>
+          {warehouses?.content.map(w => (
+            <MenuItem key={w.id} value={w.id}>{w.name}</MenuItem>
+          ))}
+        </TextField>
       </Box>
 
-      <Box sx={{ height: 580, bgcolor: 'background.paper', borderRadius: 2, overflow: 'hidden', border: 1, borderColor: 'divider' }}>
-        <DataGrid
-          rows={typeFilter ? filtered : data?.content || []}
-          columns={columns}
-          loading={isLoading}
-          paginationMode={typeFilter ? 'client' : 'server'}
-          rowCount={data?.totalElements || 0}
-          paginationModel={{ page, pageSize: 25 }}
-          onPaginationModelChange={m => setPage(m.page)}
-          pageSizeOptions={[25]}
-          disableRowSelectionOnClick
-          sx={{ border: 'none', '& .MuiDataGrid-row': { cursor: 'default' } }}
-        />
-      </Box>
+      <TableContainer ref={containerRef} onScroll={e => setScrollTop(e.currentTarget.scrollTop)}
+        sx={{ height: VIEWPORT_HEIGHT, bgcolor: 'background.paper', borderRadius: 2, border: 1, borderColor: 'divider' }}>
+        <Table size="small" stickyHeader>
+          <TableHead>
+            <TableRow>
+              <TableCell sx={headCell}>#</TableCell>
+              <TableCell sx={headCell}>SKU</TableCell>
+              <TableCell sx={headCell}>Product</TableCell>
+              <TableCell sx={headCell}>Warehouse</TableCell>
+              <TableCell sx={headCell}>Type</TableCell>
+              <TableCell sx={headCell} align="right">Qty Change</TableCell>
+              <TableCell sx={headCell} align="right">Before</TableCell>
+              <TableCell sx={headCell} align="right">After</TableCell>
+              <TableCell sx={headCell}>Reference</TableCell>
+              <TableCell sx={headCell}>Notes</TableCell>
+              <TableCell sx={headCell}>Date</TableCell>
+              <TableCell sx={headCell}>By</TableCell>
+            </TableRow>
+          </TableHead>
+          <TableBody>
+            {first > 0 && (
+              <TableRow sx={{ height: first * ROW_HEIGHT }}>
+                <TableCell colSpan={12} sx={{ p: 0, borderBottom: 0 }} />
+              </TableRow>
+            )}
+            {rows.slice(first, last).map(m => (
+              <TableRow key={m.id} sx={{ height: ROW_HEIGHT, '&:hover': { bgcolor: 'action.hover' } }}>
+                <TableCell>
+                  <Typography sx={{ ...mono, fontSize: 11, color: 'text.disabled' }}>#{m.id}</Typography>
+                </TableCell>
+                <TableCell>
+                  <Typography sx={{ ...mono, fontSize: 12, color: 'primary.main' }}>{m.productSku}</Typography>
+                </TableCell>
+                <TableCell><Typography fontSize={13}>{m.productName}</Typography></TableCell>
+                <TableCell><Typography fontSize={13}>{m.warehouseName}</Typography></TableCell>
+                <TableCell>
+                  <Chip label={m.movementType} size="small"
+                    color={MOVEMENT_COLORS[m.movementType] || 'default'}
+                    sx={{ fontSize: 10, fontWeight: 700 }} />
+                </TableCell>
+                <TableCell align="right">
+                  <Typography fontWeight={700} fontSize={13}
+                    sx={{ color: m.quantity > 0 ? 'success.main' : 'error.main' }}>
+                    {m.quantity > 0 ? `+${m.quantity}` : m.quantity}
+                  </Typography>
+                </TableCell>
+                <TableCell align="right">
+                  <Typography fontSize={12} color="text.secondary">{m.quantityBefore}</Typography>
+                </TableCell>
+                <TableCell align="right">
+                  <Typography fontSize={12} fontWeight={600}>{m.quantityAfter}</Typography>
+                </TableCell>
+                <TableCell>
+                  {m.referenceType ? (
+                    <Chip label={m.referenceType.replace('_', ' ')} size="small" variant="outlined" sx={{ fontSize: 10 }} />
+                  ) : <Typography color="text.disabled" fontSize={11}>—</Typography>}
+                </TableCell>
+                <TableCell sx={{ maxWidth: 220 }}>
+                  <Typography fontSize={12} color="text.secondary" noWrap>{m.notes || '—'}</Typography>
+                </TableCell>
+                <TableCell>
+                  <Typography fontSize={11} sx={{ ...mono, whiteSpace: 'nowrap' }}>{formatDateTime(m.createdAt)}</Typography>
+                </TableCell>
+                <TableCell>
+                  <Typography fontSize={11} color="text.secondary">{m.createdBy}</Typography>
+                </TableCell>
+              </TableRow>
+            ))}
+            {last < rows.length && (
+              <TableRow sx={{ height: (rows.length - last) * ROW_HEIGHT }}>
+                <TableCell colSpan={12} sx={{ p: 0, borderBottom: 0 }} />
+              </TableRow>
+            )}
+            <TableRow ref={sentinelRef}>
+              <TableCell colSpan={12} align="center" sx={{ borderBottom: 0 }}>
+                {(isLoading || isFetchingNextPage) && <CircularProgress size={20} />}
+                {!isLoading && !hasNextPage && (
+                  <Typography fontSize={12} color="text.disabled">
+                    {movements.length ? 'End of audit trail' : 'No movements'}
+                  </Typography>
+                )}
+              </TableCell>
+            </TableRow>
+          </TableBody>
+        </Table>
+      </TableContainer>
     </Box>
   );
 }
@@ -30,6 +30,10 @@ export interface PageResponse<T> {
   content: T[]; totalElements: number; totalPages: number;
   size: number; number: number;
 }
+/** Keyset slice: no total count; pass nextCursor back as `after`. */
+export interface SliceResponse<T> {
+  content: T[]; size: number; hasNext: boolean; nextCursor?: string;
+}
 export interface ErrorResponse {
   timestamp: string; status: number; message: string;
   errorCode: string; path: string;
@@ -9,7 +9,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
  * Enterprise ERP System - Main Application Entry Point
  *
  * Architecture:
- *  - Spring Boot 3.2 + Java 17
+ *  - Spring Boot 3.2 + Java 21 (virtual threads opt-in: spring.threads.virtual.enabled)
  *  - Spring Data JPA + Hibernate (DDL auto = update)
  *  - PostgreSQL 15+
  *  - Spring Security + JWT
@@ -1,5 +1,7 @@
 package com.enterprise.erp.analytics;
 
+import com.enterprise.erp.datasource.RoutedTo;
+import com.enterprise.erp.datasource.Workload;
 import com.enterprise.erp.entity.enums.MovementType;
 import com.enterprise.erp.repository.*;
 import lombok.RequiredArgsConstructor;
@@ -8,21 +10,27 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
+/**
+ * Dashboard aggregates: long read-only queries, run on the analytics connection pool.
+ */
 @Service
+@RoutedTo(Workload.ANALYTICS)
 @RequiredArgsConstructor
 @Slf4j
 public class AnalyticsService {
 
     private final InventoryRepository inventoryRepository;
     private final SalesOrderRepository salesOrderRepository;
+    private final DailySalesRollupRepository salesRollupRepository;
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final InventoryMovementRepository movementRepository;
     private final SalesOrderItemRepository salesOrderItemRepository;
     private final ProductRepository productRepository;
+    private final InventoryValuation inventoryValuation;
 
     // ================================================================
     // INVENTORY DASHBOARD
@@ -65,12 +73,8 @@ public class AnalyticsService {
             "totalSoldQty", row[1]
         )).toList());
 
-        // Total inventory valuation
-        BigDecimal totalValuation = inventoryRepository.findAll().stream()
-            .map(inv -> inv.getProduct().getCostPrice()
-                .multiply(BigDecimal.valueOf(inv.getQuantity())))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        dashboard.put("totalInventoryValuation", totalValuation);
+        // Total inventory valuation (maintained incrementally, O(1))
+        dashboard.put("totalInventoryValuation", inventoryValuation.getTotal());
 
         log.debug("Inventory dashboard generated");
         return dashboard;
@@ -84,14 +88,14 @@ public class AnalyticsService {
         Map<String, Object> dashboard = new LinkedHashMap<>();
 
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startOfDay = now.toLocalDate().atStartOfDay();
-        LocalDateTime startOfWeek = now.minusDays(7);
-        LocalDateTime startOfMonth = now.withDayOfMonth(1).toLocalDate().atStartOfDay();
+        LocalDate today = now.toLocalDate();
+        LocalDate startOfWeek = today.minusDays(7);
+        LocalDate startOfMonth = today.withDayOfMonth(1);
 
-        // Daily, weekly, monthly order stats
-        dashboard.put("dailyStats", salesOrderRepository.getDailyOrderStats(startOfDay));
-        dashboard.put("weeklyStats", salesOrderRepository.getDailyOrderStats(startOfWeek));
-        dashboard.put("monthlyStats", salesOrderRepository.getDailyOrderStats(startOfMonth));
+        // Daily, weekly, monthly order stats (from daily_sales_rollup)
+        dashboard.put("dailyStats", getDailyOrderStats(today));
+        dashboard.put("weeklyStats", getDailyOrderStats(startOfWeek));
+        dashboard.put("monthlyStats", getDailyOrderStats(startOfMonth));
 
         // Order status distribution
         List<Object[]> statusDist = salesOrderRepository.getOrderStatusDistribution();
@@ -102,8 +106,7 @@ public class AnalyticsService {
         dashboard.put("statusDistribution", statusMap);
 
         // Revenue (current month)
-        BigDecimal monthRevenue = salesOrderRepository.getTotalRevenue(startOfMonth, now);
-        dashboard.put("monthlyRevenue", monthRevenue != null ? monthRevenue : BigDecimal.ZERO);
+        dashboard.put("monthlyRevenue", salesRollupRepository.getTotalRevenue(startOfMonth, today));
 
         // Top 10 selling products (last 30 days)
         List<Object[]> topProducts = salesOrderItemRepository.findTopSellingProducts(now.minusDays(30));
@@ -116,6 +119,14 @@ public class AnalyticsService {
         return dashboard;
     }
 
+    private List<Map<String, Object>> getDailyOrderStats(LocalDate since) {
+        return salesRollupRepository.getDailyOrderStats(since).stream().map(row -> Map.of(
+            "date", row[0],
+            "orderCount", row[1],
+            "revenue", row[2]
+        )).toList();
+    }
+
     // ================================================================
     // SUPPLIER DASHBOARD
     // ================================================================
@@ -151,22 +162,16 @@ public class AnalyticsService {
     public Map<String, Object> getManagementDashboard() {
         Map<String, Object> dashboard = new LinkedHashMap<>();
 
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startOfMonth = now.withDayOfMonth(1).toLocalDate().atStartOfDay();
-        LocalDateTime startOfYear = now.withDayOfYear(1).toLocalDate().atStartOfDay();
-
-        // Revenue KPIs
-        BigDecimal monthRevenue = salesOrderRepository.getTotalRevenue(startOfMonth, now);
-        BigDecimal yearRevenue = salesOrderRepository.getTotalRevenue(startOfYear, now);
-        dashboard.put("monthlyRevenue", monthRevenue != null ? monthRevenue : BigDecimal.ZERO);
-        dashboard.put("yearlyRevenue", yearRevenue != null ? yearRevenue : BigDecimal.ZERO);
-
-        // Total inventory valuation (SUM(quantity * cost_price))
-        BigDecimal inventoryValue = inventoryRepository.findAll().stream()
-            .map(inv -> inv.getProduct().getCostPrice()
-                .multiply(BigDecimal.valueOf(inv.getQuantity())))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        dashboard.put("inventoryValuation", inventoryValue);
+        LocalDate today = LocalDate.now();
+        LocalDate startOfMonth = today.withDayOfMonth(1);
+        LocalDate startOfYear = today.withDayOfYear(1);
+
+        // Revenue KPIs (from daily_sales_rollup)
+        dashboard.put("monthlyRevenue", salesRollupRepository.getTotalRevenue(startOfMonth, today));
+        dashboard.put("yearlyRevenue", salesRollupRepository.getTotalRevenue(startOfYear, today));
+
+        // Total inventory valuation (SUM(quantity * cost_price), maintained incrementally)
+        dashboard.put("inventoryValuation", inventoryValuation.getTotal());
 
         // Total active products, suppliers, customers
         dashboard.put("totalActiveProducts", productRepository.findAllActiveProducts().size());
@@ -0,0 +1,174 @@
+package com.enterprise.erp.analytics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * DASHBOARD SNAPSHOT CACHE
+ *
+ * Each dashboard is materialized into an immutable snapshot with an ETag and a
+ * Last-Modified time. Readers share the snapshot; only one thread per dashboard
+ * recomputes it, so concurrent pollers cost a single set of aggregate queries.
+ *
+ * A snapshot is rebuilt when:
+ *  - ERPScheduler refreshes all dashboards (every 30 minutes in business hours),
+ *  - a relevant write committed (see {@link #invalidate}) - at most once per
+ *    {@code min-refresh-interval-ms}, so write bursts do not turn into query bursts,
+ *  - it is older than {@code max-age-ms} (covers nights and weekends).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardSnapshotCache {
+
+    public enum Dashboard { INVENTORY, ORDERS, SUPPLIER, MANAGEMENT }
+
+    /**
+     * Immutable dashboard payload plus the validators served as ETag / Last-Modified.
+     * lastModified only moves when the content changes; refreshedAt on every rebuild.
+     */
+    public record Snapshot(Map<String, Object> data, String etag, Instant lastModified,
+                           Instant refreshedAt, long version) {}
+
+    private final AnalyticsService analyticsService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.dashboard.snapshot.min-refresh-interval-ms:30000}")
+    private long minRefreshIntervalMs;
+
+    @Value("${app.dashboard.snapshot.max-age-ms:1800000}")
+    private long maxAgeMs;
+
+    private final Map<Dashboard, Snapshot> snapshots = new ConcurrentHashMap<>();
+    // Bumped by invalidate(); a snapshot built from an older version is stale
+    private final Map<Dashboard, AtomicLong> versions = new EnumMap<>(Dashboard.class);
+    // Held while the aggregate queries run: a lock, so waiting virtual threads do not pin carriers
+    private final Map<Dashboard, ReentrantLock> refreshLocks = new EnumMap<>(Dashboard.class);
+
+    {
+        for (Dashboard dashboard : Dashboard.values()) {
+            versions.put(dashboard, new AtomicLong());
+            refreshLocks.put(dashboard, new ReentrantLock());
+        }
+    }
+
+    public Snapshot get(Dashboard dashboard) {
+        Snapshot snapshot = snapshots.get(dashboard);
+        if (snapshot != null && !needsRefresh(dashboard, snapshot)) {
+            return snapshot;
+        }
+        ReentrantLock lock = refreshLocks.get(dashboard);
+        lock.lock();
+        try {
+            snapshot = snapshots.get(dashboard);
+            if (snapshot != null && !needsRefresh(dashboard, snapshot)) {
+                return snapshot;    // refreshed by another thread meanwhile
+            }
+            return refresh(dashboard);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void refreshAll() {
+        for (Dashboard dashboard : Dashboard.values()) {
+            ReentrantLock lock = refreshLocks.get(dashboard);
+            lock.lock();
+            try {
+                refresh(dashboard);
+            } finally {
+                lock.unlock();
+            }
+        }
+        log.debug("Dashboard snapshots refreshed");
+    }
+
+    /**
+     * Marks the dashboards stale once the current transaction commits
+     * (immediately when there is none).
+     */
+    public void invalidate(Dashboard... dashboards) {
+        Runnable markStale = () -> {
+            for (Dashboard dashboard : dashboards) {
+                versions.get(dashboard).incrementAndGet();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markStale.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markStale.run();
+            }
+        });
+    }
+
+    private boolean needsRefresh(Dashboard dashboard, Snapshot snapshot) {
+        long age = Instant.now().toEpochMilli() - snapshot.refreshedAt().toEpochMilli();
+        boolean stale = snapshot.version() < versions.get(dashboard).get();
+        return age >= maxAgeMs || (stale && age >= minRefreshIntervalMs);
+    }
+
+    private Snapshot refresh(Dashboard dashboard) {
+        // Read before computing: a write committing meanwhile leaves the result stale
+        long version = versions.get(dashboard).get();
+        Map<String, Object> data = Collections.unmodifiableMap(new LinkedHashMap<>(compute(dashboard).get()));
+        String etag = "\"" + dashboard.name().toLowerCase() + "-" + digest(data) + "\"";
+        Instant now = Instant.now();
+        Snapshot previous = snapshots.get(dashboard);
+        // Unchanged content keeps its validators, so clients keep getting 304s
+        Snapshot snapshot = previous != null && previous.etag().equals(etag)
+            ? new Snapshot(previous.data(), etag, previous.lastModified(), now, version)
+            : new Snapshot(data, etag, now, now, version);
+        snapshots.put(dashboard, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * SHA-256 of the JSON payload with map keys sorted, so equal content gets the same
+     * ETag across rebuilds and instances.
+     */
+    private String digest(Map<String, Object> data) {
+        try {
+            byte[] json = objectMapper.writer()
+                .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .writeValueAsBytes(data);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Dashboard snapshot is not serializable", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Supplier<Map<String, Object>> compute(Dashboard dashboard) {
+        return switch (dashboard) {
+            case INVENTORY -> analyticsService::getInventoryDashboard;
+            case ORDERS -> analyticsService::getOrderDashboard;
+            case SUPPLIER -> analyticsService::getSupplierDashboard;
+            case MANAGEMENT -> analyticsService::getManagementDashboard;
+        };
+    }
+}
@@ -0,0 +1,153 @@
+package com.enterprise.erp.analytics;
+
+import com.enterprise.erp.datasource.RoutedTo;
+import com.enterprise.erp.datasource.Workload;
+import com.enterprise.erp.repository.InventoryRepository;
+import com.enterprise.erp.repository.InventoryStripeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * INCREMENTAL INVENTORY VALUATION - SUM(quantity * cost_price), read in O(1).
+ *
+ * Seeded with one aggregate query, then moved by the deltas of every stock change
+ * (add/deduct/adjust, batch import) and cost price change, applied once the
+ * originating transaction commits. A periodic full recompute corrects drift, e.g.
+ * from writes on other application nodes or direct SQL.
+ */
+@Component
+@Slf4j
+public class InventoryValuation {
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryStripeRepository stripeRepository;
+
+    private final AtomicReference<BigDecimal> total = new AtomicReference<>();
+    // Bumped by every applied delta; a recompute only trusts a quiet window
+    private final AtomicLong generation = new AtomicLong();
+    private int skippedRecomputes;
+    // Held across the aggregate queries: a lock, not synchronized, so a virtual thread
+    // waiting for the seed does not pin its carrier
+    private final ReentrantLock recomputeLock = new ReentrantLock();
+
+    @Value("${app.analytics.valuation.drift-tolerance:0.01}")
+    private BigDecimal driftTolerance;
+
+    private final Counter driftCounter;
+
+    public InventoryValuation(InventoryRepository inventoryRepository,
+                              InventoryStripeRepository stripeRepository,
+                              MeterRegistry meterRegistry) {
+        this.inventoryRepository = inventoryRepository;
+        this.stripeRepository = stripeRepository;
+        this.driftCounter = meterRegistry.counter("erp.inventory.valuation.drift.corrections");
+        meterRegistry.gauge("erp.inventory.valuation", total,
+            ref -> ref.get() != null ? ref.get().doubleValue() : Double.NaN);
+    }
+
+    public BigDecimal getTotal() {
+        BigDecimal current = total.get();
+        if (current == null) {
+            recompute();
+            current = total.get();
+        }
+        return current;
+    }
+
+    /**
+     * Stock of one product changed by {@code quantityDelta} units (e.g. +received, -shipped).
+     */
+    public void recordQuantityChange(BigDecimal unitCost, long quantityDelta) {
+        if (quantityDelta == 0 || unitCost == null) {
+            return;
+        }
+        applyOnCommit(unitCost.multiply(BigDecimal.valueOf(quantityDelta)));
+    }
+
+    /**
+     * Cost price of a product changed: revalues all of its stock.
+     */
+    public void recordCostChange(Long productId, BigDecimal oldCost, BigDecimal newCost) {
+        if (oldCost == null || newCost == null || oldCost.compareTo(newCost) == 0) {
+            return;
+        }
+        long quantity = inventoryRepository.sumQuantityByProduct(productId);
+        applyOnCommit(newCost.subtract(oldCost).multiply(BigDecimal.valueOf(quantity)));
+    }
+
+    /**
+     * Full recompute with one aggregate query per storage (rows and stripes).
+     * Corrects the running total when it drifted beyond the tolerance. Skipped when
+     * another recompute is running, unless the total has not been seeded yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.analytics.valuation.recompute-interval-ms:900000}",
+               initialDelayString = "${app.analytics.valuation.recompute-interval-ms:900000}")
+    @RoutedTo(Workload.ANALYTICS)
+    public void recompute() {
+        if (!recomputeLock.tryLock()) {
+            if (total.get() != null) {
+                return;
+            }
+            recomputeLock.lock();
+        }
+        try {
+            long before = generation.get();
+            BigDecimal computed = inventoryRepository.sumUnstripedValuation()
+                .add(stripeRepository.sumValuation());
+
+            // Deltas applied while the queries ran may or may not be in the result:
+            // skip the comparison, unless writes never pause long enough
+            if (generation.get() != before && total.get() != null && ++skippedRecomputes < 3) {
+                log.debug("Valuation recompute skipped: concurrent stock changes");
+                return;
+            }
+            skippedRecomputes = 0;
+
+            BigDecimal current = total.getAndSet(computed);
+            if (current == null) {
+                log.info("Inventory valuation seeded: {}", computed);
+                return;
+            }
+            BigDecimal drift = computed.subtract(current);
+            if (drift.abs().compareTo(driftTolerance) > 0) {
+                driftCounter.increment();
+                log.warn("Inventory valuation drift corrected: running {} vs computed {} ({})",
+                    current, computed, drift);
+            }
+        } finally {
+            recomputeLock.unlock();
+        }
+    }
+
+    private void applyOnCommit(BigDecimal delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(delta);
+            }
+        });
+    }
+
+    private void apply(BigDecimal delta) {
+        generation.incrementAndGet();
+        total.updateAndGet(current -> current != null ? current.add(delta) : null);
+    }
+}
@@ -0,0 +1,181 @@
+package com.enterprise.erp.analytics;
+
+import com.enterprise.erp.entity.SalesOrder;
+import com.enterprise.erp.entity.enums.SalesOrderStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * INCREMENTAL MAINTENANCE OF daily_sales_rollup
+ *
+ * Order creation and status changes are recorded as (day, warehouse, status) deltas:
+ * a status change moves the order's count and amount from the old status bucket to the
+ * new one. The day is the order's creation date, matching how order stats are reported.
+ *
+ * Deltas are netted per transaction and upserted just before commit, in key order:
+ * rollup rows are hot (every order of a warehouse and day hits the same rows), so they
+ * are locked for the duration of the commit only, and always in the same order.
+ *
+ * {@link #rebuildDay} recomputes a day from sales_orders (backfill and repair).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupWriter {
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::day)
+        .thenComparing(Key::warehouseId)
+        .thenComparing(Key::status);
+
+    private static final String UPSERT_POSTGRES = """
+        INSERT INTO daily_sales_rollup (rollup_date, warehouse_id, status, order_count, revenue)
+        VALUES (?, ?, ?, ?, ?)
+        ON CONFLICT (rollup_date, warehouse_id, status) DO UPDATE
+        SET order_count = daily_sales_rollup.order_count + EXCLUDED.order_count,
+            revenue = daily_sales_rollup.revenue + EXCLUDED.revenue
+        """;
+
+    // Standard MERGE for other databases (H2 in tests)
+    private static final String UPSERT_MERGE = """
+        MERGE INTO daily_sales_rollup t
+        USING (VALUES (CAST(? AS DATE), CAST(? AS BIGINT), CAST(? AS VARCHAR(20)),
+                       CAST(? AS BIGINT), CAST(? AS NUMERIC(18,4))))
+              AS s(rollup_date, warehouse_id, status, order_count, revenue)
+        ON t.rollup_date = s.rollup_date AND t.warehouse_id = s.warehouse_id AND t.status = s.status
+        WHEN MATCHED THEN UPDATE
+            SET order_count = t.order_count + s.order_count, revenue = t.revenue + s.revenue
+        WHEN NOT MATCHED THEN INSERT (rollup_date, warehouse_id, status, order_count, revenue)
+            VALUES (s.rollup_date, s.warehouse_id, s.status, s.order_count, s.revenue)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile String upsertSql;
+
+    record Key(LocalDate day, Long warehouseId, SalesOrderStatus status) {}
+
+    private record Delta(long count, BigDecimal revenue) {
+
+        Delta plus(Delta other) {
+            return new Delta(count + other.count, revenue.add(other.revenue));
+        }
+
+        boolean isZero() {
+            return count == 0 && revenue.signum() == 0;
+        }
+    }
+
+    /**
+     * A new order was saved (its creation time is set).
+     */
+    public void recordCreated(SalesOrder order) {
+        record(key(order, order.getStatus()), new Delta(1, amount(order)));
+    }
+
+    /**
+     * The order moved from {@code previous} to its current status.
+     */
+    public void recordStatusChange(SalesOrder order, SalesOrderStatus previous) {
+        if (previous == order.getStatus()) {
+            return;
+        }
+        BigDecimal amount = amount(order);
+        record(key(order, previous), new Delta(-1, amount.negate()));
+        record(key(order, order.getStatus()), new Delta(1, amount));
+    }
+
+    /**
+     * Recomputes the rollup rows of one day from sales_orders.
+     * Must run in a transaction, so readers never see the day empty.
+     */
+    public int rebuildDay(LocalDate day) {
+        jdbcTemplate.update("DELETE FROM daily_sales_rollup WHERE rollup_date = ?", Date.valueOf(day));
+        int rows = jdbcTemplate.update("""
+            INSERT INTO daily_sales_rollup (rollup_date, warehouse_id, status, order_count, revenue)
+            SELECT CAST(created_at AS DATE), warehouse_id, status, COUNT(*), SUM(total_amount)
+            FROM sales_orders
+            WHERE created_at >= ? AND created_at < ?
+            GROUP BY CAST(created_at AS DATE), warehouse_id, status
+            """, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        log.debug("Sales rollup rebuilt for {}: {} row(s)", day, rows);
+        return rows;
+    }
+
+    private void record(Key key, Delta delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(Map.of(key, delta));
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Buffer buffer && buffer.writer() == this) {
+                buffer.deltas.merge(key, delta, Delta::plus);
+                return;
+            }
+        }
+        Buffer buffer = new Buffer();
+        buffer.deltas.put(key, delta);
+        TransactionSynchronizationManager.registerSynchronization(buffer);
+    }
+
+    private void write(Map<Key, Delta> deltas) {
+        List<Object[]> batch = new ArrayList<>();
+        deltas.forEach((key, delta) -> {
+            if (!delta.isZero()) {
+                batch.add(new Object[] { Date.valueOf(key.day()), key.warehouseId(), key.status().name(),
+                    delta.count(), delta.revenue() });
+            }
+        });
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(upsertSql(), batch);
+        }
+    }
+
+    private String upsertSql() {
+        if (upsertSql == null) {
+            String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            upsertSql = "PostgreSQL".equalsIgnoreCase(product) ? UPSERT_POSTGRES : UPSERT_MERGE;
+        }
+        return upsertSql;
+    }
+
+    private static Key key(SalesOrder order, SalesOrderStatus status) {
+        LocalDateTime createdAt = order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now();
+        return new Key(createdAt.toLocalDate(), order.getWarehouse().getId(), status);
+    }
+
+    private static BigDecimal amount(SalesOrder order) {
+        return order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+    }
+
+    private final class Buffer implements TransactionSynchronization {
+
+        // Sorted: rows are upserted (and locked) in key order
+        private final Map<Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+
+        SalesRollupWriter writer() {
+            return SalesRollupWriter.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write(deltas);
+            deltas.clear();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.enterprise.erp.batch;
+
+import com.enterprise.erp.datasource.Workload;
+import com.enterprise.erp.datasource.WorkloadContext;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs a job's steps on the batch connection pool, whoever launched it: the launching
+ * thread is in a BATCH scope from beforeJob to afterJob. Partition threads get theirs
+ * from the task executor (WorkloadContext.decorator).
+ */
+@Component
+public class BatchWorkloadListener implements JobExecutionListener {
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        WorkloadContext.push(Workload.BATCH);
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        WorkloadContext.pop();
+    }
+}
@@ -1,38 +1,45 @@
 package com.enterprise.erp.batch;
 
-import com.enterprise.erp.entity.Inventory;
-import com.enterprise.erp.entity.Product;
-import com.enterprise.erp.entity.Warehouse;
-import com.enterprise.erp.entity.enums.MovementType;
-import com.enterprise.erp.entity.enums.ReferenceType;
-import com.enterprise.erp.entity.InventoryMovement;
+import com.enterprise.erp.batch.ImportDictionary.ProductEntry;
+import com.enterprise.erp.datasource.Workload;
+import com.enterprise.erp.datasource.WorkloadContext;
 import com.enterprise.erp.exception.ResourceNotFoundException;
-import com.enterprise.erp.repository.InventoryMovementRepository;
-import com.enterprise.erp.repository.InventoryRepository;
-import com.enterprise.erp.repository.ProductRepository;
-import com.enterprise.erp.repository.WarehouseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.*;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.*;
-import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.retry.RetryListener;
 import org.springframework.transaction.PlatformTransactionManager;
 
-import java.time.LocalDateTime;
-import java.util.List;
+import java.math.BigDecimal;
+import java.nio.file.Path;
 
 /**
  * Spring Batch configuration for bulk inventory import operations.
  *
  * Usage: Trigger via API or schedule to process large inventory files.
- * Chunk size = 100 rows per transaction for optimal performance.
+ * Job parameter "file": path of the stock-count CSV (see InventoryCsvItemReader).
+ * Restarting a failed execution with the same parameters resumes after the last
+ * committed chunk.
+ *
+ * Lines are resolved against an in-memory SKU / warehouse-code dictionary loaded when
+ * the step starts; each chunk is then written with set-based statements (see
+ * StockCountWriter). Chunk size: app.batch.inventory-import.chunk-size. On PostgreSQL the
+ * chunk's quantities and movements are loaded with COPY through staging tables
+ * (PostgresCopyLoader); app.batch.inventory-import.writer=JDBC turns that off.
  */
 @Configuration
 @RequiredArgsConstructor
@@ -41,99 +48,195 @@ public class BulkInventoryImportBatch {
 
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
-    private final InventoryRepository inventoryRepository;
-    private final InventoryMovementRepository movementRepository;
-    private final ProductRepository productRepository;
-    private final WarehouseRepository warehouseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ImportMetricsListener importMetricsListener;
+    private final BatchWorkloadListener batchWorkloadListener;
+
+    @Value("${app.batch.inventory-import.read-buffer-size:262144}")
+    private int readBufferSize;
+
+    @Value("${app.batch.inventory-import.chunk-size:1000}")
+    private int chunkSize;
+
+    // Partitioned job: 0 = one partition per core
+    @Value("${app.batch.inventory-import.partitions:0}")
+    private int partitions;
+
+    // Worker threads of the partitioned job: 0 = one per partition
+    @Value("${app.batch.inventory-import.threads:0}")
+    private int threads;
+
+    // Run partitions on virtual threads (default: spring.threads.virtual.enabled)
+    @Value("${app.batch.inventory-import.virtual-threads:${spring.threads.virtual.enabled:false}}")
+    private boolean virtualThreads;
 
     /**
      * Bulk inventory update record (CSV/API input).
      */
     public record InventoryUpdateRecord(String sku, String warehouseCode, int quantity, String notes) {}
 
+    /**
+     * A record resolved against the import dictionary.
+     */
+    public record StockCount(Long productId, Long warehouseId, BigDecimal unitCost, int quantity, String notes) {}
+
     @Bean
     public Job bulkInventoryImportJob(Step bulkInventoryStep) {
         return new JobBuilder("bulkInventoryImportJob", jobRepository)
             .incrementer(new RunIdIncrementer())
+            .listener(batchWorkloadListener)
             .start(bulkInventoryStep)
             .build();
     }
 
+    /**
+     * Partitioned variant of bulkInventoryImportJob for large files (see
+     * InventoryImportPartitioner). Job parameters: "file", and optionally "partitionBy"
+     * (WAREHOUSE or LINE_RANGE, default app.batch.inventory-import.partition-by).
+     * Each partition holds one connection while it writes a chunk: the batch pool
+     * (app.datasource.workloads.batch.pool-size) must be larger than the number of threads.
+     */
+    @Bean
+    public Job partitionedInventoryImportJob(Step bulkInventoryPartitionedStep) {
+        return new JobBuilder("partitionedInventoryImportJob", jobRepository)
+            .incrementer(new RunIdIncrementer())
+            .listener(batchWorkloadListener)
+            .start(bulkInventoryPartitionedStep)
+            .build();
+    }
+
     @Bean
     public Step bulkInventoryStep(
             ItemReader<InventoryUpdateRecord> bulkInventoryReader,
-            ItemProcessor<InventoryUpdateRecord, Inventory> bulkInventoryProcessor,
-            ItemWriter<Inventory> bulkInventoryWriter) {
-        return new StepBuilder("bulkInventoryStep", jobRepository)
-            .<InventoryUpdateRecord, Inventory>chunk(100, transactionManager)
-            .reader(bulkInventoryReader)
-            .processor(bulkInventoryProcessor)
-            .writer(bulkInventoryWriter)
+            ItemProcessor<InventoryUpdateRecord, StockCount> bulkInventoryProcessor,
+            StockCountWriter stockCountWriter) {
+        return importStep("bulkInventoryStep", bulkInventoryReader, bulkInventoryProcessor, stockCountWriter);
+    }
+
+    @Bean
+    public Step bulkInventoryPartitionedStep(Partitioner inventoryImportPartitioner, Step bulkInventoryWorkerStep) {
+        int gridSize = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("inventory-import-");
+        executor.setConcurrencyLimit(threads > 0 ? threads : gridSize);
+        executor.setVirtualThreads(virtualThreads);
+        executor.setTaskDecorator(WorkloadContext.decorator(Workload.BATCH));
+        log.info("Partitioned inventory import: {} partition(s), {} {}thread(s)",
+            gridSize, executor.getConcurrencyLimit(), virtualThreads ? "virtual " : "");
+        return new StepBuilder("bulkInventoryPartitionedStep", jobRepository)
+            .partitioner("bulkInventoryWorkerStep", inventoryImportPartitioner)
+            .step(bulkInventoryWorkerStep)
+            .gridSize(gridSize)
+            .taskExecutor(executor)
+            .build();
+    }
+
+    @Bean
+    public Step bulkInventoryWorkerStep(
+            ItemReader<InventoryUpdateRecord> partitionedInventoryReader,
+            ItemProcessor<InventoryUpdateRecord, StockCount> bulkInventoryProcessor,
+            StockCountWriter stockCountWriter) {
+        return importStep("bulkInventoryWorkerStep", partitionedInventoryReader, bulkInventoryProcessor,
+            stockCountWriter);
+    }
+
+    /**
+     * Lines resolved in memory, chunks written set-based; a chunk that failed on a row
+     * lock (lock timeout, deadlock victim) is retried before the step fails.
+     */
+    private Step importStep(String name, ItemReader<InventoryUpdateRecord> reader,
+                            ItemProcessor<InventoryUpdateRecord, StockCount> processor,
+                            StockCountWriter writer) {
+        return new StepBuilder(name, jobRepository)
+            .<InventoryUpdateRecord, StockCount>chunk(chunkSize, transactionManager)
+            .reader(reader)
+            .processor(processor)
+            .writer(writer)
             .faultTolerant()
             .skipLimit(10)
             .skip(ResourceNotFoundException.class)
+            .skip(FlatFileParseException.class)
+            .retryLimit(3)
+            .retry(PessimisticLockingFailureException.class)
+            .listener((StepExecutionListener) importMetricsListener)
+            .listener((ItemWriteListener<StockCount>) importMetricsListener)
+            .listener((SkipListener<InventoryUpdateRecord, StockCount>) importMetricsListener)
+            .listener((RetryListener) importMetricsListener)
             .build();
     }
 
+    /**
+     * Streams the stock-count file given as job parameter "file" (see InventoryCsvItemReader).
+     * Declared as ItemStreamReader so the step-scoped proxy is registered as a stream and
+     * the read position is checkpointed at every chunk commit.
+     */
     @Bean
     @StepScope
-    public ItemReader<InventoryUpdateRecord> bulkInventoryReader() {
-        // In real system: read from CSV file, database, or API
-        // This is a demonstration reader with sample data
-        List<InventoryUpdateRecord> records = List.of(
-            new InventoryUpdateRecord("SKU-001", "WH-001", 100, "Bulk import"),
-            new InventoryUpdateRecord("SKU-002", "WH-001", 50, "Bulk import")
-        );
-        return new ListItemReader<>(records);
+    public ItemStreamReader<InventoryUpdateRecord> bulkInventoryReader(
+            @Value("#{jobParameters['file']}") String file) {
+        requireFile(file);
+        return new InventoryCsvItemReader(Path.of(file), readBufferSize);
     }
 
+    /**
+     * Reader of one partition: a byte range or a warehouse-code hash bucket of the file,
+     * as set by InventoryImportPartitioner in the partition's ExecutionContext.
+     */
     @Bean
     @StepScope
-    public ItemProcessor<InventoryUpdateRecord, Inventory> bulkInventoryProcessor() {
-        return record -> {
-            Product product = productRepository.findBySku(record.sku())
-                .orElseThrow(() -> new ResourceNotFoundException("Product SKU not found: " + record.sku()));
-
-            Warehouse warehouse = warehouseRepository.findByCode(record.warehouseCode())
-                .orElseThrow(() -> new ResourceNotFoundException("Warehouse code not found: " + record.warehouseCode()));
-
-            Inventory inventory = inventoryRepository
-                .findByProductIdAndWarehouseId(product.getId(), warehouse.getId())
-                .orElse(Inventory.builder()
-                    .product(product)
-                    .warehouse(warehouse)
-                    .quantity(0)
-                    .reservedQuantity(0)
-                    .build());
-
-            int oldQty = inventory.getQuantity();
-            inventory.setQuantity(record.quantity());
-
-            // Record movement for audit trail
-            InventoryMovement movement = InventoryMovement.builder()
-                .product(product)
-                .warehouse(warehouse)
-                .movementType(MovementType.ADJUSTMENT)
-                .quantity(record.quantity() - oldQty)
-                .quantityBefore(oldQty)
-                .quantityAfter(record.quantity())
-                .referenceType(ReferenceType.MANUAL)
-                .notes("Batch import: " + record.notes())
-                .createdBy("BATCH_JOB")
-                .build();
-            movementRepository.save(movement);
-
-            log.info("Batch processed: SKU={}, NewQty={}", record.sku(), record.quantity());
-            return inventory;
-        };
+    public ItemStreamReader<InventoryUpdateRecord> partitionedInventoryReader(
+            @Value("#{jobParameters['file']}") String file,
+            @Value("#{stepExecutionContext['start']}") Long start,
+            @Value("#{stepExecutionContext['end']}") Long end,
+            @Value("#{stepExecutionContext['partition']}") Integer partition,
+            @Value("#{stepExecutionContext['partitions']}") Integer partitionCount) {
+        requireFile(file);
+        InventoryCsvItemReader reader = new InventoryCsvItemReader(Path.of(file), readBufferSize);
+        if (start != null) {
+            reader.range(start, end);
+        }
+        if (partition != null) {
+            reader.warehousePartition(partition, partitionCount);
+        }
+        return reader;
+    }
+
+    @Bean
+    @StepScope
+    public Partitioner inventoryImportPartitioner(
+            @Value("#{jobParameters['file']}") String file,
+            @Value("#{jobParameters['partitionBy'] ?: '${app.batch.inventory-import.partition-by:WAREHOUSE}'}")
+            String partitionBy) {
+        requireFile(file);
+        InventoryImportPartitioner.Mode mode;
+        try {
+            mode = InventoryImportPartitioner.Mode.valueOf(partitionBy.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Job parameter 'partitionBy' must be WAREHOUSE or LINE_RANGE");
+        }
+        return new InventoryImportPartitioner(Path.of(file), mode);
     }
 
+    /**
+     * Resolves SKU and warehouse code in memory. Unknown ones are skipped
+     * (ResourceNotFoundException); nothing is written here, so a chunk that is
+     * re-processed after a skip in the writer costs no database work.
+     */
     @Bean
     @StepScope
-    public ItemWriter<Inventory> bulkInventoryWriter() {
-        return chunk -> {
-            inventoryRepository.saveAll(chunk.getItems());
-            log.info("Batch committed {} inventory records", chunk.getItems().size());
+    public ItemProcessor<InventoryUpdateRecord, StockCount> bulkInventoryProcessor() {
+        ImportDictionary dictionary = ImportDictionary.load(jdbcTemplate);
+        log.info("Import dictionary loaded: {} products, {} warehouses",
+            dictionary.productCount(), dictionary.warehouseCount());
+        return record -> {
+            ProductEntry product = dictionary.product(record.sku());
+            Long warehouseId = dictionary.warehouseId(record.warehouseCode());
+            return new StockCount(product.id(), warehouseId, product.costPrice(), record.quantity(), record.notes());
         };
     }
+
+    private static void requireFile(String file) {
+        if (file == null || file.isBlank()) {
+            throw new IllegalArgumentException("Job parameter 'file' (path of the stock-count CSV) is required");
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package com.enterprise.erp.batch;
+
+import com.enterprise.erp.exception.ResourceNotFoundException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SKU AND WAREHOUSE-CODE DICTIONARY OF ONE IMPORT STEP
+ *
+ * Loaded with two queries when the step starts, so the processor resolves every line
+ * in memory instead of looking up product and warehouse per line. Products and
+ * warehouses created while the step runs are not seen: their lines are skipped as
+ * unknown and can be imported again.
+ */
+public class ImportDictionary {
+
+    public record ProductEntry(Long id, BigDecimal costPrice) {}
+
+    private final Map<String, ProductEntry> products;
+    private final Map<String, Long> warehouses;
+
+    ImportDictionary(Map<String, ProductEntry> products, Map<String, Long> warehouses) {
+        this.products = products;
+        this.warehouses = warehouses;
+    }
+
+    public static ImportDictionary load(JdbcTemplate jdbcTemplate) {
+        Map<String, ProductEntry> products = new HashMap<>();
+        jdbcTemplate.query("SELECT id, sku, cost_price FROM products", rs -> {
+            products.put(rs.getString("sku"), new ProductEntry(rs.getLong("id"), rs.getBigDecimal("cost_price")));
+        });
+        Map<String, Long> warehouses = new HashMap<>();
+        jdbcTemplate.query("SELECT id, code FROM warehouses", rs -> {
+            warehouses.put(rs.getString("code"), rs.getLong("id"));
+        });
+        return new ImportDictionary(products, warehouses);
+    }
+
+    public ProductEntry product(String sku) {
+        ProductEntry product = products.get(sku);
+        if (product == null) {
+            throw new ResourceNotFoundException("Product SKU not found: " + sku);
+        }
+        return product;
+    }
+
+    public Long warehouseId(String code) {
+        Long id = warehouses.get(code);
+        if (id == null) {
+            throw new ResourceNotFoundException("Warehouse code not found: " + code);
+        }
+        return id;
+    }
+
+    public int productCount() {
+        return products.size();
+    }
+
+    public int warehouseCount() {
+        return warehouses.size();
+    }
+}
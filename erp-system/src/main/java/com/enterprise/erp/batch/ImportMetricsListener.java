@@ -0,0 +1,127 @@
+package com.enterprise.erp.batch;
+
+import com.enterprise.erp.batch.BulkInventoryImportBatch.InventoryUpdateRecord;
+import com.enterprise.erp.batch.BulkInventoryImportBatch.StockCount;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.Chunk;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PROGRESS METRICS OF THE INVENTORY IMPORT STEPS (single step and every partition)
+ *
+ * Tag "step" is the step execution name, e.g. bulkInventoryStep or
+ * bulkInventoryWorkerStep:partition3:
+ *  - erp.batch.import.rows     counter, rows written
+ *  - erp.batch.import.rate     gauge, rows/s of the running (or last) execution
+ *  - erp.batch.import.skips    counter, tag phase = read / process / write
+ *  - erp.batch.import.retries  counter, chunk retries after a lock failure
+ *
+ * Callbacks run on the step's own thread, so partitions running in parallel are told
+ * apart through the step context of the calling thread.
+ */
+@Component
+@Slf4j
+public class ImportMetricsListener implements StepExecutionListener, ItemWriteListener<StockCount>,
+        SkipListener<InventoryUpdateRecord, StockCount>, RetryListener {
+
+    private final MeterRegistry meterRegistry;
+
+    // step name -> rows/s, one gauge per step name
+    private final Map<String, AtomicLong> rates = new ConcurrentHashMap<>();
+
+    public ImportMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        rate(stepExecution.getStepName()).set(0);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        updateRate(stepExecution);
+        log.info("Import {}: {} rows written, {} skipped, {} rows/s",
+            stepExecution.getStepName(), stepExecution.getWriteCount(), stepExecution.getSkipCount(),
+            rate(stepExecution.getStepName()).get());
+        return null;
+    }
+
+    @Override
+    public void afterWrite(Chunk<? extends StockCount> items) {
+        StepExecution stepExecution = currentStep();
+        if (stepExecution != null) {
+            meterRegistry.counter("erp.batch.import.rows", "step", stepExecution.getStepName())
+                .increment(items.size());
+            updateRate(stepExecution);
+        }
+    }
+
+    @Override
+    public void onSkipInRead(Throwable t) {
+        skipped("read");
+    }
+
+    @Override
+    public void onSkipInProcess(InventoryUpdateRecord item, Throwable t) {
+        skipped("process");
+    }
+
+    @Override
+    public void onSkipInWrite(StockCount item, Throwable t) {
+        skipped("write");
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                 Throwable throwable) {
+        StepExecution stepExecution = currentStep();
+        meterRegistry.counter("erp.batch.import.retries",
+            "step", stepExecution != null ? stepExecution.getStepName() : "unknown").increment();
+    }
+
+    private void skipped(String phase) {
+        StepExecution stepExecution = currentStep();
+        meterRegistry.counter("erp.batch.import.skips",
+            "step", stepExecution != null ? stepExecution.getStepName() : "unknown", "phase", phase).increment();
+    }
+
+    // Write count of the step so far (committed chunks) over the time it has been running
+    private void updateRate(StepExecution stepExecution) {
+        LocalDateTime startTime = stepExecution.getStartTime();
+        if (startTime == null) {
+            return;
+        }
+        long millis = Math.max(1, Duration.between(startTime, LocalDateTime.now()).toMillis());
+        rate(stepExecution.getStepName()).set(stepExecution.getWriteCount() * 1000L / millis);
+    }
+
+    private AtomicLong rate(String stepName) {
+        return rates.computeIfAbsent(stepName, name ->
+            meterRegistry.gauge("erp.batch.import.rate", Tags.of("step", name),
+                new AtomicLong()));
+    }
+
+    private static StepExecution currentStep() {
+        StepContext context = StepSynchronizationManager.getContext();
+        return context != null ? context.getStepExecution() : null;
+    }
+}
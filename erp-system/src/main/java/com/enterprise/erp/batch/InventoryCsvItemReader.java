@@ -0,0 +1,245 @@
+package com.enterprise.erp.batch;
+
+import com.enterprise.erp.batch.BulkInventoryImportBatch.InventoryUpdateRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.FlatFileParseException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * STREAMING READER FOR WMS STOCK-COUNT FILES
+ *
+ * Line format (UTF-8, LF or CRLF): {@code sku,warehouse_code,quantity[,notes]} - notes is
+ * the rest of the line and may contain commas. A first line whose first field is "sku"
+ * is a header.
+ *
+ * The file is read through a fixed-size buffer on a FileChannel, so memory use does not
+ * depend on the file size. The byte offset and line number of the next unread line are
+ * saved in the step ExecutionContext at every chunk commit: a restarted execution seeks
+ * straight to the first line after the last committed chunk, without re-reading
+ * (or re-importing) anything before it.
+ *
+ * For partitioned imports (see InventoryImportPartitioner) a reader can be limited to
+ * the lines starting in a byte range ({@link #range}) or to the lines whose warehouse
+ * code hashes to its partition ({@link #warehousePartition}). Line numbers then count
+ * from the start of the range.
+ */
+@Slf4j
+public class InventoryCsvItemReader implements ItemStreamReader<InventoryUpdateRecord> {
+
+    // Same keys ItemStreamSupport derived from the reader name, so older executions still restart
+    static final String OFFSET_KEY = "inventoryCsvItemReader.offset";
+    static final String LINE_KEY = "inventoryCsvItemReader.line";
+
+    private final Path file;
+    private final int bufferSize;
+
+    // Lines starting in [start, end) are read
+    private long start;
+    private long end = Long.MAX_VALUE;
+    // Only lines whose warehouse code hashes to this partition are read
+    private int partition;
+    private int partitions = 1;
+
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private byte[] line = new byte[256];
+    // Position of the first byte not yet consumed, and number of lines consumed
+    private long offset;
+    private long lineNumber;
+    private boolean endOfFile;
+
+    public InventoryCsvItemReader(Path file, int bufferSize) {
+        this.file = file;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Reads only the lines starting at a byte offset in [start, end); both must be line starts.
+     */
+    public InventoryCsvItemReader range(long start, long end) {
+        this.start = start;
+        this.end = end;
+        return this;
+    }
+
+    /**
+     * Reads only the lines whose warehouse code hashes to {@code partition} of {@code partitions}.
+     * A line without a warehouse code belongs to partition 0, so its parse error is reported once.
+     */
+    public InventoryCsvItemReader warehousePartition(int partition, int partitions) {
+        this.partition = partition;
+        this.partitions = partitions;
+        return this;
+    }
+
+    /**
+     * Partition of a warehouse code among {@code partitions}.
+     */
+    public static int partitionOf(String warehouseCode, int partitions) {
+        return Math.floorMod(warehouseCode.trim().hashCode(), partitions);
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        offset = executionContext.getLong(OFFSET_KEY, start);
+        lineNumber = executionContext.getLong(LINE_KEY, 0L);
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            channel.position(offset);
+        } catch (IOException e) {
+            throw new ItemStreamException("Cannot open import file " + file, e);
+        }
+        buffer = ByteBuffer.allocate(bufferSize);
+        buffer.flip();
+        endOfFile = false;
+        if (offset > start) {
+            log.info("Resuming import of {} at line {} (byte {})", file, lineNumber + 1, offset);
+        }
+    }
+
+    @Override
+    public InventoryUpdateRecord read() throws IOException {
+        while (true) {
+            if (offset >= end) {
+                return null;
+            }
+            boolean firstLine = offset == 0;
+            String text = nextLine();
+            if (text == null) {
+                return null;
+            }
+            if (text.isBlank() || (firstLine && isHeader(text)) || !inPartition(text)) {
+                continue;
+            }
+            return parse(text);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        executionContext.putLong(OFFSET_KEY, offset);
+        executionContext.putLong(LINE_KEY, lineNumber);
+    }
+
+    @Override
+    public void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new ItemStreamException("Cannot close import file " + file, e);
+            } finally {
+                channel = null;
+            }
+        }
+    }
+
+    private String nextLine() throws IOException {
+        int length = 0;
+        boolean any = false;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                if (endOfFile || !fill()) {
+                    // Last line without a trailing newline
+                    return any ? consumeLine(length) : null;
+                }
+            }
+            any = true;
+            byte[] bytes = buffer.array();
+            int start = buffer.position();
+            int limit = buffer.limit();
+            int newline = start;
+            while (newline < limit && bytes[newline] != '\n') {
+                newline++;
+            }
+            length = append(length, bytes, start, newline - start);
+            if (newline < limit) {
+                buffer.position(newline + 1);
+                offset += newline + 1 - start;
+                return consumeLine(length);
+            }
+            buffer.position(limit);
+            offset += limit - start;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int read = channel.read(buffer);
+        buffer.flip();
+        if (read <= 0) {
+            endOfFile = true;
+            return false;
+        }
+        return true;
+    }
+
+    private int append(int length, byte[] bytes, int from, int count) {
+        if (length + count > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+        }
+        System.arraycopy(bytes, from, line, length, count);
+        return length + count;
+    }
+
+    private String consumeLine(int length) {
+        lineNumber++;
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private InventoryUpdateRecord parse(String text) {
+        String[] fields = text.split(",", 4);
+        if (fields.length < 3) {
+            throw new FlatFileParseException("Expected sku,warehouse_code,quantity[,notes]", text, (int) lineNumber);
+        }
+        int quantity;
+        try {
+            quantity = Integer.parseInt(fields[2].trim());
+        } catch (NumberFormatException e) {
+            throw new FlatFileParseException("Invalid quantity '" + fields[2].trim() + "'", e, text, (int) lineNumber);
+        }
+        if (quantity < 0) {
+            throw new FlatFileParseException("Negative quantity " + quantity, text, (int) lineNumber);
+        }
+        String notes = fields.length > 3 ? unquote(fields[3].trim()) : "";
+        return new InventoryUpdateRecord(fields[0].trim(), fields[1].trim(), quantity, notes);
+    }
+
+    private boolean inPartition(String text) {
+        if (partitions <= 1) {
+            return true;
+        }
+        int first = text.indexOf(',');
+        if (first < 0) {
+            return partition == 0;
+        }
+        int second = text.indexOf(',', first + 1);
+        String code = second < 0 ? text.substring(first + 1) : text.substring(first + 1, second);
+        return partitionOf(code, partitions) == partition;
+    }
+
+    private static boolean isHeader(String text) {
+        int comma = text.indexOf(',');
+        return comma > 0 && text.substring(0, comma).trim().equalsIgnoreCase("sku");
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1).replace("\"\"", "\"");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,105 @@
+package com.enterprise.erp.batch;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SPLITS A STOCK-COUNT FILE INTO PARTITIONS OF THE IMPORT JOB
+ *
+ * WAREHOUSE: partition i takes the lines whose warehouse code hashes to i. Every line of
+ * an inventory row lands in the same partition, so several counts of one row still apply
+ * in file order, and partitions never lock the same rows. Each worker reads the whole
+ * file (reading is cheap next to writing); the spread is only as even as the warehouses.
+ *
+ * LINE_RANGE: partition i takes the lines starting in the i-th byte range of the file,
+ * boundaries moved to the next line start. Spreads evenly whatever the warehouses, but
+ * when a row is counted more than once in the file, which count wins is undefined -
+ * use it for files with one line per row.
+ *
+ * Either way the writer locks rows in (warehouse, product) order, so partitions that do
+ * touch the same rows wait for each other but cannot deadlock.
+ */
+public class InventoryImportPartitioner implements Partitioner {
+
+    public enum Mode { WAREHOUSE, LINE_RANGE }
+
+    static final String START_KEY = "start";
+    static final String END_KEY = "end";
+    static final String PARTITION_KEY = "partition";
+    static final String PARTITIONS_KEY = "partitions";
+
+    private final Path file;
+    private final Mode mode;
+
+    public InventoryImportPartitioner(Path file, Mode mode) {
+        this.file = file;
+        this.mode = mode;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        long[] boundaries = mode == Mode.LINE_RANGE ? lineBoundaries(gridSize) : null;
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        for (int i = 0; i < gridSize; i++) {
+            ExecutionContext context = new ExecutionContext();
+            if (boundaries != null) {
+                context.putLong(START_KEY, boundaries[i]);
+                context.putLong(END_KEY, boundaries[i + 1]);
+            } else {
+                context.putInt(PARTITION_KEY, i);
+                context.putInt(PARTITIONS_KEY, gridSize);
+            }
+            partitions.put("partition" + i, context);
+        }
+        return partitions;
+    }
+
+    // gridSize + 1 offsets, each the start of a line (or the file size)
+    private long[] lineBoundaries(int gridSize) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] boundaries = new long[gridSize + 1];
+            boundaries[gridSize] = size;
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            for (int i = 1; i < gridSize; i++) {
+                long from = Math.max(size * i / gridSize, boundaries[i - 1]);
+                boundaries[i] = nextLineStart(channel, from, size, buffer);
+            }
+            return boundaries;
+        } catch (IOException e) {
+            throw new ItemStreamException("Cannot split import file " + file, e);
+        }
+    }
+
+    // First line start at or after offset (offset itself if the previous byte is a newline)
+    private static long nextLineStart(FileChannel channel, long offset, long size, ByteBuffer buffer)
+            throws IOException {
+        if (offset == 0) {
+            return 0;
+        }
+        long position = offset - 1;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+}
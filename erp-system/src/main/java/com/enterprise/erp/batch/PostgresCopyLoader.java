@@ -0,0 +1,184 @@
+package com.enterprise.erp.batch;
+
+import com.enterprise.erp.batch.StockCountWriter.RowUpdate;
+import com.enterprise.erp.entity.InventoryMovement;
+import com.enterprise.erp.export.ExportFormat;
+import com.enterprise.erp.export.ExportFormat.RowWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * COPY-BASED WRITE PATH OF THE BULK INVENTORY IMPORT (PostgreSQL)
+ *
+ * Per chunk, in the chunk's transaction and on its connection:
+ *  1. COPY the new row totals into import_inventory_stage, then one UPDATE ... FROM
+ *  2. COPY the movements into import_movement_stage, then one INSERT ... SELECT
+ * No entity is built or flushed by Hibernate. The rows were locked by StockCountWriter,
+ * and the UPDATE goes through the table's check constraints and bumps version /
+ * last_updated like any other change; the movements commit or roll back with it.
+ *
+ * The stages are session-local temporary tables (never WAL-logged, private to each
+ * partition's connection), created on first use with the column types of their target
+ * and emptied at commit. Movement ids are drawn from inventory_movements_id_seq in
+ * blocks of the entity's allocationSize, the same way Hibernate's pooled optimizer does.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresCopyLoader {
+
+    // allocationSize of InventoryMovement's id sequence (INCREMENT BY 50)
+    static final int ID_BLOCK_SIZE = 50;
+
+    private static final String CREATE_INVENTORY_STAGE = """
+        CREATE TEMP TABLE IF NOT EXISTS import_inventory_stage ON COMMIT DELETE ROWS AS
+        SELECT id, quantity, reserved_quantity FROM inventory WITH NO DATA
+        """;
+
+    private static final String CREATE_MOVEMENT_STAGE = """
+        CREATE TEMP TABLE IF NOT EXISTS import_movement_stage ON COMMIT DELETE ROWS AS
+        SELECT id, product_id, warehouse_id, movement_type, quantity, quantity_before, quantity_after,
+               reference_type, reference_id, notes, created_at, created_by
+        FROM inventory_movements WITH NO DATA
+        """;
+
+    private static final String[] INVENTORY_COLUMNS = { "id", "quantity", "reserved_quantity" };
+
+    private static final String[] MOVEMENT_COLUMNS = {
+        "id", "product_id", "warehouse_id", "movement_type", "quantity", "quantity_before", "quantity_after",
+        "reference_type", "reference_id", "notes", "created_at", "created_by"
+    };
+
+    private static final String COPY = "COPY %s (%s) FROM STDIN (FORMAT csv, HEADER true)";
+
+    private static final String APPLY_INVENTORY = """
+        UPDATE inventory i
+        SET quantity = s.quantity, reserved_quantity = s.reserved_quantity, last_updated = ?, version = i.version + 1
+        FROM import_inventory_stage s
+        WHERE i.id = s.id
+        """;
+
+    private static final String APPLY_MOVEMENTS = """
+        INSERT INTO inventory_movements (%1$s)
+        SELECT %1$s FROM import_movement_stage
+        """.formatted(String.join(", ", MOVEMENT_COLUMNS));
+
+    private static final String NEXT_ID_BLOCKS =
+        "SELECT nextval('inventory_movements_id_seq') FROM generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes the chunk's row totals and movements. Call once per transaction: the
+     * stages are only emptied at commit.
+     */
+    public void load(List<InventoryMovement> movements, Collection<RowUpdate> updates) {
+        if (movements.isEmpty() && updates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_INVENTORY_STAGE);
+                statement.execute(CREATE_MOVEMENT_STAGE);
+            }
+            return null;
+        });
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        if (!updates.isEmpty()) {
+            copy("import_inventory_stage", INVENTORY_COLUMNS, rows -> {
+                Object[] values = new Object[INVENTORY_COLUMNS.length];
+                for (RowUpdate update : updates) {
+                    values[0] = update.id();
+                    values[1] = update.quantity();
+                    values[2] = update.reserved();
+                    rows.write(values);
+                }
+            });
+            jdbcTemplate.update(APPLY_INVENTORY, Timestamp.valueOf(now));
+        }
+
+        if (!movements.isEmpty()) {
+            long[] ids = movementIds(nextIdBlocks(movements.size()), movements.size());
+            copy("import_movement_stage", MOVEMENT_COLUMNS, rows -> {
+                Object[] values = new Object[MOVEMENT_COLUMNS.length];
+                for (int i = 0; i < movements.size(); i++) {
+                    InventoryMovement movement = movements.get(i);
+                    movement.setId(ids[i]);
+                    movement.setCreatedAt(now);
+                    values[0] = movement.getId();
+                    values[1] = movement.getProduct().getId();
+                    values[2] = movement.getWarehouse().getId();
+                    values[3] = movement.getMovementType();
+                    values[4] = movement.getQuantity();
+                    values[5] = movement.getQuantityBefore();
+                    values[6] = movement.getQuantityAfter();
+                    values[7] = movement.getReferenceType();
+                    values[8] = movement.getReferenceId();
+                    values[9] = movement.getNotes();
+                    values[10] = movement.getCreatedAt();
+                    values[11] = movement.getCreatedBy();
+                    rows.write(values);
+                }
+            });
+            jdbcTemplate.update(APPLY_MOVEMENTS);
+        }
+        log.debug("COPY import chunk: {} inventory row(s), {} movement(s)", updates.size(), movements.size());
+    }
+
+    /**
+     * Ids for {@code count} movements from the given sequence values: each value v
+     * reserves the block (v - ID_BLOCK_SIZE, v].
+     */
+    static long[] movementIds(List<Long> blockHighs, int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            long high = blockHighs.get(i / ID_BLOCK_SIZE);
+            ids[i] = high - ID_BLOCK_SIZE + 1 + i % ID_BLOCK_SIZE;
+        }
+        return ids;
+    }
+
+    private List<Long> nextIdBlocks(int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        return jdbcTemplate.queryForList(NEXT_ID_BLOCKS, Long.class, blocks);
+    }
+
+    private void copy(String table, String[] columns, RowSource source) {
+        String sql = COPY.formatted(table, String.join(", ", columns));
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PGCopyOutputStream out = new PGCopyOutputStream(pgConnection(connection), sql);
+                 RowWriter rows = ExportFormat.CSV.open(out, columns)) {
+                source.writeTo(rows);
+            } catch (IOException e) {
+                throw new UncheckedIOException("COPY into " + table + " failed", e);
+            }
+            return null;
+        });
+    }
+
+    private static PGConnection pgConnection(Connection connection) throws SQLException {
+        return connection.unwrap(PGConnection.class);
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        void writeTo(RowWriter rows) throws IOException;
+    }
+}
@@ -0,0 +1,92 @@
+package com.enterprise.erp.batch;
+
+import com.enterprise.erp.analytics.SalesRollupWriter;
+import com.enterprise.erp.repository.SalesOrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Spring Batch job that rebuilds daily_sales_rollup from sales_orders, one day at a time.
+ *
+ * Job parameters (ISO dates, both optional):
+ *  - from: first day to rebuild (default: day of the oldest order)
+ *  - to:   last day to rebuild (default: today)
+ *
+ * Chunk size = 30 days per transaction. Used for the initial backfill and to repair
+ * drift (ERPScheduler re-runs it nightly for the last few days).
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupBackfillBatch {
+
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final SalesOrderRepository salesOrderRepository;
+    private final SalesRollupWriter salesRollupWriter;
+    private final BatchWorkloadListener batchWorkloadListener;
+
+    @Bean
+    public Job salesRollupBackfillJob(Step salesRollupBackfillStep) {
+        return new JobBuilder("salesRollupBackfillJob", jobRepository)
+            .incrementer(new RunIdIncrementer())
+            .listener(batchWorkloadListener)
+            .start(salesRollupBackfillStep)
+            .build();
+    }
+
+    @Bean
+    public Step salesRollupBackfillStep(
+            ItemReader<LocalDate> salesRollupDayReader,
+            ItemWriter<LocalDate> salesRollupDayWriter) {
+        return new StepBuilder("salesRollupBackfillStep", jobRepository)
+            .<LocalDate, LocalDate>chunk(30, transactionManager)
+            .reader(salesRollupDayReader)
+            .writer(salesRollupDayWriter)
+            .build();
+    }
+
+    @Bean
+    @StepScope
+    public ItemReader<LocalDate> salesRollupDayReader(
+            @Value("#{jobParameters['from']}") String from,
+            @Value("#{jobParameters['to']}") String to) {
+        LocalDate last = to != null ? LocalDate.parse(to) : LocalDate.now();
+        LocalDate first = from != null
+            ? LocalDate.parse(from)
+            : salesOrderRepository.findEarliestCreatedAt().map(LocalDateTime::toLocalDate).orElse(last);
+        List<LocalDate> days = first.datesUntil(last.plusDays(1)).toList();
+        log.info("Sales rollup backfill: {} day(s) from {} to {}", days.size(), first, last);
+        return new ListItemReader<>(days);
+    }
+
+    @Bean
+    @StepScope
+    public ItemWriter<LocalDate> salesRollupDayWriter() {
+        return chunk -> {
+            int rows = 0;
+            for (LocalDate day : chunk.getItems()) {
+                rows += salesRollupWriter.rebuildDay(day);
+            }
+            log.info("Sales rollup rebuilt {} day(s), {} row(s)", chunk.getItems().size(), rows);
+        };
+    }
+}
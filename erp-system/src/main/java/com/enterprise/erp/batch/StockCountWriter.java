@@ -0,0 +1,298 @@
+package com.enterprise.erp.batch;
+
+import com.enterprise.erp.analytics.DashboardSnapshotCache;
+import com.enterprise.erp.analytics.DashboardSnapshotCache.Dashboard;
+import com.enterprise.erp.analytics.InventoryValuation;
+import com.enterprise.erp.batch.BulkInventoryImportBatch.StockCount;
+import com.enterprise.erp.entity.Inventory;
+import com.enterprise.erp.entity.InventoryMovement;
+import com.enterprise.erp.entity.enums.MovementType;
+import com.enterprise.erp.entity.enums.ReferenceType;
+import com.enterprise.erp.inventory.AvailableToPromiseLedger;
+import com.enterprise.erp.inventory.InventoryMovementWriter;
+import com.enterprise.erp.inventory.ReservationMode;
+import com.enterprise.erp.inventory.StripedInventory;
+import com.enterprise.erp.repository.InventoryRepository;
+import com.enterprise.erp.repository.ProductRepository;
+import com.enterprise.erp.repository.WarehouseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * CHUNK-LEVEL WRITER OF THE BULK INVENTORY IMPORT
+ *
+ * A chunk costs a fixed number of statements, whatever its size:
+ *  1. per warehouse in the chunk, one SELECT ... FOR UPDATE of its rows (product id IN
+ *     list, on the unique index); rows are locked in (warehouse, product) order
+ *  2. only if some rows do not exist yet: one batched insert-if-absent of those rows,
+ *     then the same SELECT ... FOR UPDATE for just those keys
+ *  3. one batched UPDATE of the rows whose quantities changed
+ *  4. the movements, appended to InventoryMovementWriter and inserted as one batch at commit
+ * On PostgreSQL, 3 and 4 go through PostgresCopyLoader instead: COPY into a staging
+ * table, then one INSERT ... SELECT and one UPDATE ... FROM (app.batch.inventory-import.writer).
+ *
+ * A count is absolute: several lines for the same row in one chunk are applied in file
+ * order, each with its own movement. Reserved quantity is capped at the new on-hand
+ * quantity, as in a manual adjustment. Striped rows (hot SKUs) are changed through
+ * StripedInventory, one row at a time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockCountWriter implements ItemWriter<StockCount> {
+
+    // Product ids per locking query, well under driver bind-parameter limits
+    private static final int KEYS_PER_QUERY = 1000;
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::warehouseId)
+        .thenComparing(Key::productId);
+
+    private static final String LOCK_ROWS = """
+        SELECT id, product_id, warehouse_id, quantity, reserved_quantity, stripe_count
+        FROM inventory
+        WHERE warehouse_id = ? AND product_id IN (%s)
+        ORDER BY product_id
+        FOR UPDATE
+        """;
+
+    private static final String INSERT_ABSENT_POSTGRES = """
+        INSERT INTO inventory (product_id, warehouse_id, quantity, reserved_quantity, last_updated, version)
+        VALUES (?, ?, 0, 0, ?, 0)
+        ON CONFLICT (product_id, warehouse_id) DO NOTHING
+        """;
+
+    // Standard MERGE for other databases (H2 in tests)
+    private static final String INSERT_ABSENT_MERGE = """
+        MERGE INTO inventory t
+        USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS TIMESTAMP)))
+              AS s(product_id, warehouse_id, last_updated)
+        ON t.product_id = s.product_id AND t.warehouse_id = s.warehouse_id
+        WHEN NOT MATCHED THEN INSERT (product_id, warehouse_id, quantity, reserved_quantity, last_updated, version)
+            VALUES (s.product_id, s.warehouse_id, 0, 0, s.last_updated, 0)
+        """;
+
+    private static final String UPDATE_ROW = """
+        UPDATE inventory
+        SET quantity = ?, reserved_quantity = ?, last_updated = ?, version = version + 1
+        WHERE id = ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryRepository inventoryRepository;
+    private final ProductRepository productRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final InventoryMovementWriter movementWriter;
+    private final InventoryValuation inventoryValuation;
+    private final StripedInventory stripedInventory;
+    private final AvailableToPromiseLedger atpLedger;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final PostgresCopyLoader copyLoader;
+
+    @Value("${app.inventory.reservation-mode:LOCK}")
+    private ReservationMode reservationMode;
+
+    @Value("${app.batch.inventory-import.writer:AUTO}")
+    private WritePath writePath;
+
+    private volatile Boolean postgres;
+
+    /**
+     * How quantities and movements are written: COPY (PostgreSQL only), JDBC batches,
+     * or AUTO = COPY on PostgreSQL, JDBC elsewhere.
+     */
+    public enum WritePath { AUTO, COPY, JDBC }
+
+    record Key(Long productId, Long warehouseId) {}
+
+    // New totals of a locked, unstriped inventory row
+    record RowUpdate(Long id, int quantity, int reserved) {}
+
+    // Locked inventory row; quantity / reserved track the counts applied so far
+    private static final class Row {
+        final Long id;
+        final int quantityBefore;
+        final int reservedBefore;
+        boolean striped;
+        int quantity;
+        int reserved;
+
+        Row(Long id, int quantity, int reserved, boolean striped) {
+            this.id = id;
+            this.quantityBefore = quantity;
+            this.reservedBefore = reserved;
+            this.striped = striped;
+            this.quantity = quantity;
+            this.reserved = reserved;
+        }
+    }
+
+    @Override
+    public void write(Chunk<? extends StockCount> chunk) {
+        List<? extends StockCount> counts = chunk.getItems();
+        if (counts.isEmpty()) {
+            return;
+        }
+        TreeSet<Key> keys = new TreeSet<>(KEY_ORDER);
+        counts.forEach(count -> keys.add(key(count)));
+
+        boolean ledger = reservationMode == ReservationMode.LEDGER;
+        if (ledger) {
+            keys.forEach(key -> atpLedger.beginRowChange(key.productId(), key.warehouseId()));
+        }
+        dashboardSnapshotCache.invalidate(Dashboard.INVENTORY, Dashboard.MANAGEMENT);
+
+        Map<Key, Row> rows = lockRows(keys);
+        if (rows.size() < keys.size()) {
+            List<Key> absent = keys.stream().filter(key -> !rows.containsKey(key)).toList();
+            insertAbsent(absent);
+            rows.putAll(lockRows(absent));
+        }
+
+        Map<Key, Inventory> stripedRows = new HashMap<>();
+        List<InventoryMovement> movements = new ArrayList<>(counts.size());
+        for (StockCount count : counts) {
+            Key key = key(count);
+            Row row = rows.get(key);
+            int before = row.quantity;
+            if (row.striped) {
+                // The row is only a rolled-up read model: the stripes hold the current totals
+                Inventory inventory = stripedRows.computeIfAbsent(key,
+                    k -> inventoryRepository.findById(row.id).orElseThrow());
+                OptionalInt counted = stripedInventory.count(inventory, count.quantity());
+                if (counted.isPresent()) {
+                    before = counted.getAsInt();
+                    row.quantity = inventory.getQuantity();
+                    row.reserved = inventory.getReservedQuantity();
+                } else {
+                    stripedRows.remove(key);
+                    row.striped = false;
+                }
+            }
+            if (!row.striped) {
+                row.quantity = count.quantity();
+                row.reserved = Math.min(row.reserved, count.quantity());
+            }
+            inventoryValuation.recordQuantityChange(count.unitCost(), row.quantity - before);
+            movements.add(movement(count, before, row.quantity));
+        }
+
+        Map<Key, RowUpdate> updates = new TreeMap<>(KEY_ORDER);
+        rows.forEach((key, row) -> {
+            if (!row.striped && (row.quantity != row.quantityBefore || row.reserved != row.reservedBefore)) {
+                updates.put(key, new RowUpdate(row.id, row.quantity, row.reserved));
+            }
+            if (ledger) {
+                atpLedger.recordRowChange(key.productId(), key.warehouseId(),
+                    row.quantity - row.quantityBefore, row.reserved - row.reservedBefore);
+            }
+        });
+        if (usesCopy()) {
+            copyLoader.load(movements, updates.values());
+        } else {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> batch = updates.values().stream()
+                .map(update -> new Object[] { update.quantity(), update.reserved(), now, update.id() })
+                .toList();
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_ROW, batch);
+            }
+            movementWriter.appendAll(movements);
+        }
+
+        log.debug("Import chunk: {} counts, {} inventory rows ({} striped)",
+            counts.size(), rows.size(), stripedRows.size());
+    }
+
+    private Map<Key, Row> lockRows(Collection<Key> keys) {
+        Map<Key, Row> rows = new TreeMap<>(KEY_ORDER);
+        Map<Long, List<Long>> productsByWarehouse = new TreeMap<>();
+        keys.stream().sorted(KEY_ORDER).forEach(key ->
+            productsByWarehouse.computeIfAbsent(key.warehouseId(), w -> new ArrayList<>()).add(key.productId()));
+        productsByWarehouse.forEach((warehouseId, productIds) -> {
+            for (int from = 0; from < productIds.size(); from += KEYS_PER_QUERY) {
+                List<Long> slice = productIds.subList(from, Math.min(from + KEYS_PER_QUERY, productIds.size()));
+                List<Object> args = new ArrayList<>(slice.size() + 1);
+                args.add(warehouseId);
+                args.addAll(slice);
+                String placeholders = String.join(", ", Collections.nCopies(slice.size(), "?"));
+                jdbcTemplate.query(LOCK_ROWS.formatted(placeholders), rs -> {
+                    rows.put(new Key(rs.getLong("product_id"), warehouseId),
+                        new Row(rs.getLong("id"), rs.getInt("quantity"), rs.getInt("reserved_quantity"),
+                            rs.getObject("stripe_count") != null));
+                }, args.toArray());
+            }
+        });
+        return rows;
+    }
+
+    private void insertAbsent(List<Key> keys) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = keys.stream()
+            .map(key -> new Object[] { key.productId(), key.warehouseId(), now })
+            .toList();
+        jdbcTemplate.batchUpdate(insertAbsentSql(), batch);
+    }
+
+    private String insertAbsentSql() {
+        return postgres() ? INSERT_ABSENT_POSTGRES : INSERT_ABSENT_MERGE;
+    }
+
+    private boolean usesCopy() {
+        return switch (writePath) {
+            case JDBC -> false;
+            case AUTO -> postgres();
+            case COPY -> {
+                if (!postgres()) {
+                    throw new IllegalStateException("app.batch.inventory-import.writer=COPY requires PostgreSQL");
+                }
+                yield true;
+            }
+        };
+    }
+
+    private boolean postgres() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+        }
+        return postgres;
+    }
+
+    private InventoryMovement movement(StockCount count, int before, int after) {
+        return InventoryMovement.builder()
+            .product(productRepository.getReferenceById(count.productId()))
+            .warehouse(warehouseRepository.getReferenceById(count.warehouseId()))
+            .movementType(MovementType.ADJUSTMENT)
+            .quantity(after - before)
+            .quantityBefore(before)
+            .quantityAfter(after)
+            .referenceType(ReferenceType.MANUAL)
+            .notes("Batch import: " + count.notes())
+            .createdBy("BATCH_JOB")
+            .build();
+    }
+
+    private static Key key(StockCount count) {
+        return new Key(count.productId(), count.warehouseId());
+    }
+}
@@ -0,0 +1,64 @@
+package com.enterprise.erp.config;
+
+import com.enterprise.erp.datasource.ConnectionLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * JDBC concurrency limit for virtual-thread mode (see ConnectionLimitingDataSource).
+ * On by default when spring.threads.virtual.enabled=true; app.datasource.limiter.*
+ * overrides. Every Hikari pool bean gets its own limiter (each workload pool), with
+ * permits = its pool size unless app.datasource.limiter.permits is set.
+ * Metrics: erp.jdbc.limiter.available / waiting / rejected, tagged with the pool's bean name.
+ */
+@Configuration
+@Slf4j
+public class ConnectionLimiterConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimiterPostProcessor(Environment environment) {
+        boolean enabled = environment.getProperty("app.datasource.limiter.enabled", Boolean.class,
+            environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+        int permits = environment.getProperty("app.datasource.limiter.permits", Integer.class, 0);
+        long waitMs = environment.getProperty("app.datasource.limiter.wait-timeout-ms", Long.class, 10_000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || !(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                int limit = permits > 0 ? permits : pool.getMaximumPoolSize();
+                log.info("JDBC concurrency limit on {}: {} connection(s), wait up to {} ms",
+                    pool.getPoolName(), limit, waitMs);
+                return new ConnectionLimitingDataSource(pool, limit, waitMs);
+            }
+        };
+    }
+
+    // One set per limited pool, tagged with its bean name (every workload pool is limited)
+    @Bean
+    public MeterBinder connectionLimiterMetrics(Map<String, DataSource> dataSources) {
+        return registry -> dataSources.forEach((name, dataSource) -> {
+            if (!(dataSource instanceof ConnectionLimitingDataSource limiter)) {
+                return;
+            }
+            Gauge.builder("erp.jdbc.limiter.available", limiter, ConnectionLimitingDataSource::availablePermits)
+                .description("Free connection permits").tag("name", name).register(registry);
+            Gauge.builder("erp.jdbc.limiter.waiting", limiter, ConnectionLimitingDataSource::waiting)
+                .description("Threads waiting for a connection permit").tag("name", name).register(registry);
+            FunctionCounter.builder("erp.jdbc.limiter.rejected", limiter, ConnectionLimitingDataSource::rejected)
+                .description("Connection requests that timed out waiting for a permit").tag("name", name)
+                .register(registry);
+        });
+    }
+}
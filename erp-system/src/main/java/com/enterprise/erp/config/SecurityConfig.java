@@ -1,8 +1,12 @@
 package com.enterprise.erp.config;
 
 import com.enterprise.erp.security.filter.JwtAuthenticationFilter;
+import com.enterprise.erp.security.password.BoundedPasswordEncoder;
+import com.enterprise.erp.security.password.PasswordHashingExecutor;
 import com.enterprise.erp.security.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -15,11 +19,15 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
@@ -28,6 +36,13 @@ public class SecurityConfig {
 
     private final UserDetailsServiceImpl userDetailsService;
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    @Value("${app.security.password.encoding-id:bcrypt}")
+    private String passwordEncodingId;
+
+    @Value("${app.security.password.bcrypt-strength:12}")
+    private int bcryptStrength;
 
     private static final String[] PUBLIC_URLS = {
         "/api/auth/**",
@@ -45,6 +60,9 @@ public class SecurityConfig {
                 session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
             .authorizeHttpRequests(auth -> auth
+                // Completion of streamed responses (exports): the original request was authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints
                 .requestMatchers(PUBLIC_URLS).permitAll()
 
@@ -56,6 +74,7 @@ public class SecurityConfig {
                 // Manager + Admin
                 .requestMatchers("/api/dashboard/**").hasAnyRole("ADMIN", "MANAGER")
                 .requestMatchers("/api/purchase-orders/**").hasAnyRole("ADMIN", "MANAGER")
+                .requestMatchers("/api/exports/**").hasAnyRole("ADMIN", "MANAGER")
                 .requestMatchers(HttpMethod.POST, "/api/inventory/adjust").hasAnyRole("ADMIN", "MANAGER")
 
                 // All authenticated users
@@ -79,6 +98,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder());
+        // Rehashes on successful login when the stored hash uses an older encoder or cost
+        provider.setUserDetailsPasswordService(userDetailsService);
         return provider;
     }
 
@@ -87,8 +108,20 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * Hashes are stored as {id}hash. New hashes use app.security.password.encoding-id
+     * (bcrypt or argon2); hashes of another id or a lower BCrypt cost are upgraded on
+     * the user's next successful login. Hashing runs on the bounded PasswordHashingExecutor.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        Map<String, PasswordEncoder> encoders = Map.of(
+            "bcrypt", new BCryptPasswordEncoder(bcryptStrength),
+            "argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+        );
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(passwordEncodingId, encoders);
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return new BoundedPasswordEncoder(delegating, passwordHashingExecutor);
     }
 }
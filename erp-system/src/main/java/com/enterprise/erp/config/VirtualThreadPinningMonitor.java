@@ -0,0 +1,90 @@
+package com.enterprise.erp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * PINNED-CARRIER REPORTING (spring.threads.virtual.enabled=true)
+ *
+ * A virtual thread that blocks inside synchronized code or a native frame keeps its
+ * carrier thread, so fewer carriers are left for everyone else. This streams the JFR
+ * jdk.VirtualThreadPinned event (pins longer than app.virtual-threads.pinned-threshold-ms)
+ * in-process and publishes erp.virtual-threads.pinned (count and duration). The first
+ * pin at each call site is logged with its stack, later ones only counted.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Timer pinned;
+    private final Counter dropped;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.virtual-threads.pinned-threshold-ms:20}")
+    private long thresholdMs;
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.pinned = Timer.builder("erp.virtual-threads.pinned")
+            .description("Virtual threads that blocked while pinned to their carrier")
+            .register(meterRegistry);
+        this.dropped = meterRegistry.counter("erp.virtual-threads.pinned.unreported");
+    }
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for more than {} ms", thresholdMs);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        if (event.getStackTrace() == null) {
+            dropped.increment();
+            return;
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        String site = frames.isEmpty() ? "unknown" : frame(frames.get(0));
+        if (reportedSites.add(site)) {
+            log.warn("Virtual thread pinned for {} ms at {}:\n\t{}", event.getDuration().toMillis(), site,
+                frames.stream().limit(LOGGED_FRAMES).map(VirtualThreadPinningMonitor::frame)
+                    .collect(Collectors.joining("\n\t")));
+        }
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+            + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,162 @@
+package com.enterprise.erp.config;
+
+import com.enterprise.erp.datasource.ReplicaRoutingDataSource;
+import com.enterprise.erp.datasource.ReplicaSet;
+import com.enterprise.erp.datasource.Workload;
+import com.enterprise.erp.datasource.WorkloadRoutingAdvisor;
+import com.enterprise.erp.datasource.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One Hikari pool per workload (oltp, analytics, batch) behind the primary DataSource,
+ * a WorkloadRoutingDataSource. spring.datasource.* and spring.datasource.hikari.* apply
+ * to every pool; app.datasource.workloads.<workload>.pool-size / minimum-idle /
+ * statement-timeout-ms (PostgreSQL statement_timeout, 0 = none) size each one.
+ * Off with app.datasource.workloads.enabled=false: a single pool, as before.
+ *
+ * With app.datasource.replicas.urls set, read-only transactions go to replica pools
+ * (ERPHikariPool-replica-<n>) instead, see ReplicaSet / ReplicaRoutingDataSource.
+ *
+ * Hikari reports every pool under Actuator (hikaricp.connections.* tagged pool=
+ * ERPHikariPool-<workload>); erp.datasource.saturation is active / maximum per workload.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.workloads.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class WorkloadDataSourceConfig {
+
+    private static final String PREFIX = "app.datasource.workloads.";
+    private static final String REPLICAS = "app.datasource.replicas.";
+
+    @Bean
+    public HikariDataSource oltpDataSource(DataSourceProperties properties, Environment environment) {
+        return pool(Workload.OLTP, properties, environment, 10_000);
+    }
+
+    @Bean
+    public HikariDataSource analyticsDataSource(DataSourceProperties properties, Environment environment) {
+        return pool(Workload.ANALYTICS, properties, environment, 60_000);
+    }
+
+    @Bean
+    public HikariDataSource batchDataSource(DataSourceProperties properties, Environment environment) {
+        return pool(Workload.BATCH, properties, environment, 0);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("oltpDataSource") DataSource oltp,
+                                 @Qualifier("analyticsDataSource") DataSource analytics,
+                                 @Qualifier("batchDataSource") DataSource batch,
+                                 ObjectProvider<ReplicaSet> replicaSet) {
+        WorkloadRoutingDataSource workloads = new WorkloadRoutingDataSource(Map.of(
+            Workload.OLTP, oltp, Workload.ANALYTICS, analytics, Workload.BATCH, batch));
+        ReplicaSet replicas = replicaSet.getIfAvailable();
+        if (replicas == null) {
+            return workloads;
+        }
+        workloads.afterPropertiesSet();
+        return new ReplicaRoutingDataSource(workloads, replicas);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = REPLICAS + "urls")
+    public ReplicaSet replicaSet(@Qualifier("oltpDataSource") DataSource oltp,
+                                 DataSourceProperties properties, Environment environment) {
+        String[] urls = environment.getRequiredProperty(REPLICAS + "urls", String[].class);
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (int i = 0; i < urls.length; i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource pool = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(urls[i].trim())
+                .username(environment.getProperty(REPLICAS + "username", properties.determineUsername()))
+                .password(environment.getProperty(REPLICAS + "password", properties.determinePassword()))
+                .build();
+            configure(pool, name, REPLICAS, environment, 60_000);
+            pool.setReadOnly(true);
+            pools.put(name, pool);
+        }
+        return new ReplicaSet(oltp, pools,
+            environment.getProperty(REPLICAS + "primary-position-query", ReplicaSet.POSTGRES_PRIMARY_POSITION_QUERY),
+            environment.getProperty(REPLICAS + "replica-position-query", ReplicaSet.POSTGRES_REPLICA_POSITION_QUERY),
+            environment.getProperty(REPLICAS + "max-lag-ms", Long.class, 1_000L));
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static WorkloadRoutingAdvisor workloadRoutingAdvisor(ObjectProvider<ReplicaSet> replicaSet) {
+        return new WorkloadRoutingAdvisor(replicaSet);
+    }
+
+    @Bean
+    public MeterBinder workloadPoolMetrics(@Qualifier("oltpDataSource") DataSource oltp,
+                                           @Qualifier("analyticsDataSource") DataSource analytics,
+                                           @Qualifier("batchDataSource") DataSource batch) {
+        return registry -> Map.of(Workload.OLTP, oltp, Workload.ANALYTICS, analytics, Workload.BATCH, batch)
+            .forEach((workload, dataSource) -> {
+                HikariDataSource pool;
+                try {
+                    pool = dataSource.unwrap(HikariDataSource.class);
+                } catch (SQLException e) {
+                    return;
+                }
+                Gauge.builder("erp.datasource.saturation", pool, WorkloadDataSourceConfig::saturation)
+                    .description("Connections in use / maximum pool size")
+                    .tag("workload", workload.key())
+                    .tag("pool", pool.getPoolName())
+                    .register(registry);
+            });
+    }
+
+    private static double saturation(HikariDataSource pool) {
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        return mxBean != null ? (double) mxBean.getActiveConnections() / pool.getMaximumPoolSize() : 0;
+    }
+
+    private static HikariDataSource pool(Workload workload, DataSourceProperties properties, Environment environment,
+                                         long defaultStatementTimeoutMs) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        return configure(pool, workload.key(), PREFIX + workload.key() + ".", environment, defaultStatementTimeoutMs);
+    }
+
+    // spring.datasource.hikari.* first, then <prefix>pool-size / minimum-idle / statement-timeout-ms
+    private static HikariDataSource configure(HikariDataSource pool, String name, String prefix, Environment environment,
+                                              long defaultStatementTimeoutMs) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName((pool.getPoolName() != null ? pool.getPoolName() : "HikariPool") + "-" + name);
+        pool.setMaximumPoolSize(environment.getProperty(prefix + "pool-size", Integer.class, pool.getMaximumPoolSize()));
+        pool.setMinimumIdle(Math.min(pool.getMaximumPoolSize(),
+            environment.getProperty(prefix + "minimum-idle", Integer.class, pool.getMinimumIdle())));
+        long statementTimeoutMs = environment.getProperty(prefix + "statement-timeout-ms", Long.class,
+            defaultStatementTimeoutMs);
+        // Session default for every connection of the pool; SET LOCAL still overrides it per transaction
+        if (statementTimeoutMs > 0 && pool.getJdbcUrl() != null && pool.getJdbcUrl().startsWith("jdbc:postgresql:")) {
+            pool.setConnectionInitSql("SET statement_timeout = " + statementTimeoutMs);
+        }
+        log.info("Connection pool {}: up to {} connection(s), statement timeout {}", pool.getPoolName(),
+            pool.getMaximumPoolSize(), statementTimeoutMs > 0 ? statementTimeoutMs + " ms" : "none");
+        return pool;
+    }
+}
@@ -1,11 +1,14 @@
 package com.enterprise.erp.controller;
 
-import com.enterprise.erp.analytics.AnalyticsService;
+import com.enterprise.erp.analytics.DashboardSnapshotCache;
+import com.enterprise.erp.analytics.DashboardSnapshotCache.Dashboard;
+import com.enterprise.erp.analytics.DashboardSnapshotCache.Snapshot;
 import com.enterprise.erp.dto.response.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -20,30 +23,43 @@ import java.util.Map;
 @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
 public class DashboardController {
 
-    private final AnalyticsService analyticsService;
+    private final DashboardSnapshotCache snapshotCache;
 
     @GetMapping("/inventory")
     @Operation(summary = "Inventory dashboard - stock levels, low stock, out of stock, fast movers")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getInventoryDashboard() {
-        return ResponseEntity.ok(ApiResponse.success(analyticsService.getInventoryDashboard()));
+        return serve(Dashboard.INVENTORY);
     }
 
     @GetMapping("/orders")
     @Operation(summary = "Order dashboard - daily/weekly/monthly stats, status distribution, top products")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getOrderDashboard() {
-        return ResponseEntity.ok(ApiResponse.success(analyticsService.getOrderDashboard()));
+        return serve(Dashboard.ORDERS);
     }
 
     @GetMapping("/supplier")
     @Operation(summary = "Supplier dashboard - performance, delivery time, top by spend")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getSupplierDashboard() {
-        return ResponseEntity.ok(ApiResponse.success(analyticsService.getSupplierDashboard()));
+        return serve(Dashboard.SUPPLIER);
     }
 
     @GetMapping("/management")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Management KPI dashboard - revenue, valuation, alerts")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getManagementDashboard() {
-        return ResponseEntity.ok(ApiResponse.success(analyticsService.getManagementDashboard()));
+        return serve(Dashboard.MANAGEMENT);
+    }
+
+    /**
+     * Serves the cached snapshot with ETag / Last-Modified validators. Spring answers
+     * a matching If-None-Match / If-Modified-Since with 304 and no body.
+     */
+    private ResponseEntity<ApiResponse<Map<String, Object>>> serve(Dashboard dashboard) {
+        Snapshot snapshot = snapshotCache.get(dashboard);
+        return ResponseEntity.ok()
+            .eTag(snapshot.etag())
+            .lastModified(snapshot.lastModified())
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .body(ApiResponse.success(snapshot.data()));
     }
 }
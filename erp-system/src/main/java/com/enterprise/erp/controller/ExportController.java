@@ -0,0 +1,75 @@
+package com.enterprise.erp.controller;
+
+import com.enterprise.erp.entity.enums.PurchaseOrderStatus;
+import com.enterprise.erp.entity.enums.SalesOrderStatus;
+import com.enterprise.erp.export.ExportFormat;
+import com.enterprise.erp.service.impl.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+@Tag(name = "Exports", description = "Streaming CSV / NDJSON exports of the full history")
+@SecurityRequirement(name = "Bearer Authentication")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @GetMapping("/movements")
+    @Operation(summary = "Stream the inventory movement ledger (from/to: inclusive days)")
+    public ResponseEntity<StreamingResponseBody> exportMovements(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        return stream("movements", exportFormat,
+            exportService.movements(from, to, productId, warehouseId, exportFormat));
+    }
+
+    @GetMapping("/sales-orders")
+    @Operation(summary = "Stream the sales order history (from/to: inclusive days)")
+    public ResponseEntity<StreamingResponseBody> exportSalesOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) SalesOrderStatus status,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        return stream("sales-orders", exportFormat, exportService.salesOrders(from, to, status, exportFormat));
+    }
+
+    @GetMapping("/purchase-orders")
+    @Operation(summary = "Stream the purchase order history (from/to: inclusive days)")
+    public ResponseEntity<StreamingResponseBody> exportPurchaseOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) PurchaseOrderStatus status,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        return stream("purchase-orders", exportFormat, exportService.purchaseOrders(from, to, status, exportFormat));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, ExportFormat format,
+                                                         ExportService.Export export) {
+        String filename = name + "-" + LocalDate.now() + "." + format.extension();
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.contentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(export::writeTo);
+    }
+}
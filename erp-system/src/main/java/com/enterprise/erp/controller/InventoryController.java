@@ -4,7 +4,11 @@ import com.enterprise.erp.dto.request.InventoryAdjustRequest;
 import com.enterprise.erp.dto.response.ApiResponse;
 import com.enterprise.erp.dto.response.InventoryMovementResponse;
 import com.enterprise.erp.dto.response.InventoryResponse;
+import com.enterprise.erp.dto.response.SliceResponse;
 import com.enterprise.erp.entity.InventoryMovement;
+import com.enterprise.erp.exception.BusinessValidationException;
+import com.enterprise.erp.inventory.LockRetry;
+import com.enterprise.erp.inventory.MovementCursor;
 import com.enterprise.erp.repository.InventoryMovementRepository;
 import com.enterprise.erp.service.impl.InventoryService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -26,8 +30,12 @@ import java.util.List;
 @SecurityRequirement(name = "Bearer Authentication")
 public class InventoryController {
 
+    // Largest movement slice per request: a slice is loaded and serialized in full
+    private static final int MAX_SCROLL_SIZE = 500;
+
     private final InventoryService inventoryService;
     private final InventoryMovementRepository movementRepository;
+    private final LockRetry lockRetry;
 
     @GetMapping
     @Operation(summary = "Get all inventory with pagination")
@@ -55,24 +63,60 @@ public class InventoryController {
     @Operation(summary = "Manual inventory adjustment (+/-)")
     public ResponseEntity<ApiResponse<InventoryResponse>> adjustInventory(
             @Valid @RequestBody InventoryAdjustRequest request) {
-        InventoryResponse result = inventoryService.adjustInventory(request);
+        InventoryResponse result = lockRetry.call(() -> inventoryService.adjustInventory(request));
         return ResponseEntity.ok(ApiResponse.success("Inventory adjusted successfully", result));
     }
 
     @GetMapping("/movements")
-    @Operation(summary = "Get inventory movement audit trail")
+    @Operation(summary = "Get inventory movement audit trail (offset pages; use /movements/scroll for deep reads)")
     public ResponseEntity<ApiResponse<Page<InventoryMovementResponse>>> getMovements(
             @RequestParam(required = false) Long productId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         Page<InventoryMovement> movements = productId != null
-            ? movementRepository.findByProductId(productId, pageable)
-            : movementRepository.findAll(pageable);
+            ? movementRepository.findPageByProductId(productId, pageable)
+            : movementRepository.findPage(pageable);
         Page<InventoryMovementResponse> responses = movements.map(this::toMovementResponse);
         return ResponseEntity.ok(ApiResponse.success(responses));
     }
 
+    @GetMapping("/movements/scroll")
+    @Operation(summary = "Scroll the movement audit trail newest first (keyset cursor, no total count)")
+    public ResponseEntity<ApiResponse<SliceResponse<InventoryMovementResponse>>> scrollMovements(
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new BusinessValidationException("size must be between 1 and " + MAX_SCROLL_SIZE);
+        }
+        MovementCursor cursor = MovementCursor.parse(after);
+        Pageable limit = PageRequest.of(0, size);
+        Slice<InventoryMovement> slice;
+        if (productId != null && warehouseId != null) {
+            slice = movementRepository.findSliceByProductAndWarehouseAfter(
+                productId, warehouseId, cursor.createdAt(), cursor.id(), limit);
+        } else if (productId != null) {
+            slice = movementRepository.findSliceByProductAfter(productId, cursor.createdAt(), cursor.id(), limit);
+        } else if (warehouseId != null) {
+            slice = movementRepository.findSliceByWarehouseAfter(warehouseId, cursor.createdAt(), cursor.id(), limit);
+        } else {
+            slice = movementRepository.findSliceAfter(cursor.createdAt(), cursor.id(), limit);
+        }
+
+        List<InventoryMovement> movements = slice.getContent();
+        String nextCursor = slice.hasNext()
+            ? MovementCursor.of(movements.get(movements.size() - 1)).toString()
+            : null;
+        return ResponseEntity.ok(ApiResponse.success(SliceResponse.<InventoryMovementResponse>builder()
+            .content(movements.stream().map(this::toMovementResponse).toList())
+            .size(movements.size())
+            .hasNext(slice.hasNext())
+            .nextCursor(nextCursor)
+            .build()));
+    }
+
     private InventoryMovementResponse toMovementResponse(InventoryMovement m) {
         return InventoryMovementResponse.builder()
             .id(m.getId())
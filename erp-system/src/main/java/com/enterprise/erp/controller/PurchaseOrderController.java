@@ -4,6 +4,7 @@ import com.enterprise.erp.dto.request.PurchaseOrderRequest;
 import com.enterprise.erp.dto.response.ApiResponse;
 import com.enterprise.erp.dto.response.PurchaseOrderResponse;
 import com.enterprise.erp.entity.enums.PurchaseOrderStatus;
+import com.enterprise.erp.inventory.LockRetry;
 import com.enterprise.erp.service.impl.PurchaseOrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -24,6 +25,7 @@ import org.springframework.web.bind.annotation.*;
 public class PurchaseOrderController {
 
     private final PurchaseOrderService purchaseOrderService;
+    private final LockRetry lockRetry;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
@@ -64,7 +66,7 @@ public class PurchaseOrderController {
     @Operation(summary = "Receive purchase order - adds items to inventory")
     public ResponseEntity<ApiResponse<PurchaseOrderResponse>> receiveOrder(@PathVariable Long id) {
         return ResponseEntity.ok(ApiResponse.success("Inventory updated from purchase order",
-            purchaseOrderService.receivePurchaseOrder(id)));
+            lockRetry.call(() -> purchaseOrderService.receivePurchaseOrder(id))));
     }
 
     @PostMapping("/{id}/cancel")
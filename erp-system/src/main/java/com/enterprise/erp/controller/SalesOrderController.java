@@ -4,6 +4,7 @@ import com.enterprise.erp.dto.request.SalesOrderRequest;
 import com.enterprise.erp.dto.response.ApiResponse;
 import com.enterprise.erp.dto.response.SalesOrderResponse;
 import com.enterprise.erp.entity.enums.SalesOrderStatus;
+import com.enterprise.erp.inventory.LockRetry;
 import com.enterprise.erp.service.impl.SalesOrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -24,6 +25,7 @@ import org.springframework.web.bind.annotation.*;
 public class SalesOrderController {
 
     private final SalesOrderService salesOrderService;
+    private final LockRetry lockRetry;
 
     @PostMapping
     @Operation(summary = "Create a new sales order")
@@ -58,7 +60,7 @@ public class SalesOrderController {
     @Operation(summary = "Confirm order and reserve inventory (triggers pessimistic lock)")
     public ResponseEntity<ApiResponse<SalesOrderResponse>> confirmOrder(@PathVariable Long id) {
         return ResponseEntity.ok(ApiResponse.success("Order confirmed and inventory reserved",
-            salesOrderService.confirmOrder(id)));
+            lockRetry.call(() -> salesOrderService.confirmOrder(id))));
     }
 
     @PostMapping("/{id}/ship")
@@ -66,7 +68,7 @@ public class SalesOrderController {
     @Operation(summary = "Ship order and deduct inventory")
     public ResponseEntity<ApiResponse<SalesOrderResponse>> shipOrder(@PathVariable Long id) {
         return ResponseEntity.ok(ApiResponse.success("Order shipped and inventory deducted",
-            salesOrderService.shipOrder(id)));
+            lockRetry.call(() -> salesOrderService.shipOrder(id))));
     }
 
     @PostMapping("/{id}/deliver")
@@ -82,6 +84,6 @@ public class SalesOrderController {
     @Operation(summary = "Cancel order and release inventory reservation")
     public ResponseEntity<ApiResponse<SalesOrderResponse>> cancelOrder(@PathVariable Long id) {
         return ResponseEntity.ok(ApiResponse.success("Order cancelled and reservation released",
-            salesOrderService.cancelOrder(id)));
+            lockRetry.call(() -> salesOrderService.cancelOrder(id))));
     }
 }
@@ -1,9 +1,11 @@
 package com.enterprise.erp.controller;
 
+import com.enterprise.erp.entity.enums.UserRole;
 import com.enterprise.erp.service.impl.UserService;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -21,4 +23,22 @@ public class UserController {
 
     }
 
+
+    @PatchMapping("/{id}/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Object updateRole(@PathVariable Long id, @RequestParam UserRole role) {
+
+        return userService.updateRole(id, role);
+
+    }
+
+
+    @PatchMapping("/{id}/enabled")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Object setEnabled(@PathVariable Long id, @RequestParam boolean enabled) {
+
+        return userService.setEnabled(id, enabled);
+
+    }
+
 }
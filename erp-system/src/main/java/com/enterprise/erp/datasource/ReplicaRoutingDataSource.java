@@ -0,0 +1,34 @@
+package com.enterprise.erp.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * READ-ONLY TRANSACTIONS ON REPLICAS
+ *
+ * Sits in front of the primary (the workload pools): a connection taken for a
+ * read-only transaction (WorkloadContext.readOnly(), set for
+ * {@code @Transactional(readOnly = true)} calls by WorkloadRoutingAdvisor) comes from
+ * the replica ReplicaSet picks; everything else, and every read a replica cannot
+ * serve yet, from the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaSet replicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaSet replicas) {
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>(replicas.dataSources());
+        targets.put(ReplicaSet.PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.readOnly() ? replicas.select() : ReplicaSet.PRIMARY;
+    }
+}
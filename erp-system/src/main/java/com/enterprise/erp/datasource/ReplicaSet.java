@@ -0,0 +1,271 @@
+package com.enterprise.erp.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * READ REPLICAS, THEIR LAG AND READ-YOUR-WRITES
+ *
+ * Freshness is measured in WAL positions, not in replay timestamps: every lag-check
+ * interval the primary reports its current position and each replica the position it
+ * has replayed up to. A replica's lag is the time since the primary was at that
+ * position, known to one check interval (0 once it has replayed everything the
+ * primary had written; an idle standby is not mistaken for a current one, nor the
+ * other way round). A read-only transaction goes to the next replica, round robin, that
+ *  - answered the last check with a lag of at most max-lag-ms, and
+ *  - has replayed the caller's last write: after a read-write transaction commits, the
+ *    primary's current position is recorded for the caller, and the replica's replayed
+ *    position must be at or past it, so a user reads their own order right after saving it.
+ * Otherwise it runs on the primary. Writes are remembered per authenticated user and
+ * forgotten once every replica has replayed them.
+ *
+ * The writes are remembered in this node's memory only: behind a load balancer,
+ * read-your-writes holds only with sticky sessions (a user's next request may
+ * otherwise land on a node that never saw the write).
+ *
+ * Metrics: erp.datasource.replica.lag (ms, -1 = unknown) per replica,
+ * erp.datasource.replica.routing (target, reason) per read-only transaction, and the
+ * hikaricp.* metrics of the replica pools (they are not beans Actuator would find).
+ */
+@Slf4j
+public class ReplicaSet implements MeterBinder, AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    /** PostgreSQL primary: current WAL position, in bytes. */
+    public static final String POSTGRES_PRIMARY_POSITION_QUERY =
+        "SELECT CAST(pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0') AS BIGINT)";
+
+    /** PostgreSQL standby: WAL position replayed so far, in bytes (null when not a standby). */
+    public static final String POSTGRES_REPLICA_POSITION_QUERY =
+        "SELECT CAST(pg_wal_lsn_diff(pg_last_wal_replay_lsn(), '0/0') AS BIGINT)";
+
+    private static final String ANONYMOUS = "";
+    // Primary positions kept to date a replica's position: at 1 s per check, two minutes
+    private static final int HISTORY = 120;
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile long lagMs = -1;           // -1: not checked yet, or unreachable
+        volatile long replayed = -1;        // WAL position replayed at the last check
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    /** Primary WAL position at a point in time (epoch ms). */
+    private record Position(long lsn, long at) {}
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final String primaryPositionQuery;
+    private final String replicaPositionQuery;
+    private final long maxLagMs;
+    private volatile MeterRegistry meterRegistry;
+    // Per user: primary WAL position after their last committed write (this node only)
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    // Per user: writes whose position could not be read, resolved by the next check
+    private final Map<String, Long> unresolvedWrites = new ConcurrentHashMap<>();
+    // Only touched by checkLag()
+    private final Deque<Position> history = new ArrayDeque<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaSet(DataSource primary, Map<String, DataSource> replicas,
+                      String primaryPositionQuery, String replicaPositionQuery, long maxLagMs) {
+        this.primary = primary;
+        this.primaryPositionQuery = primaryPositionQuery;
+        this.replicaPositionQuery = replicaPositionQuery;
+        this.maxLagMs = maxLagMs;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("erp.datasource.replica.lag", replica, r -> r.lagMs)
+                .description("Replication lag behind the primary, ms (-1 = unknown)")
+                .baseUnit("milliseconds")
+                .tag("replica", replica.name)
+                .register(registry);
+            if (replica.dataSource instanceof HikariDataSource pool) {
+                try {
+                    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                } catch (IllegalStateException e) {
+                    log.debug("Pool {} already started, no hikaricp metrics", pool.getPoolName());
+                }
+            }
+        }
+        meterRegistry = registry;
+    }
+
+    public Map<String, DataSource> dataSources() {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        replicas.forEach(replica -> dataSources.put(replica.name, replica.dataSource));
+        return Collections.unmodifiableMap(dataSources);
+    }
+
+    /** Replica for a read-only transaction of the current caller, or {@link #PRIMARY}. */
+    public String select() {
+        String caller = caller();
+        long lastWrite = unresolvedWrites.containsKey(caller) ? Long.MAX_VALUE : lastWrites.getOrDefault(caller, -1L);
+        int start = next.getAndIncrement();
+        String reason = "unavailable";
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            long lag = replica.lagMs;
+            if (lag < 0) {
+                continue;
+            }
+            if (lag > maxLagMs) {
+                reason = "lag";
+            } else if (replica.replayed < lastWrite) {
+                reason = "read-your-writes";
+            } else {
+                count(replica.name, "read-only");
+                return replica.name;
+            }
+        }
+        count(PRIMARY, reason);
+        return PRIMARY;
+    }
+
+    /**
+     * Called once a read-write transaction of the current caller has committed: the
+     * primary's position now is at or past that commit.
+     */
+    public void recordWrite() {
+        String caller = caller();
+        try {
+            lastWrites.merge(caller, primaryPosition(), Math::max);
+        } catch (SQLException | RuntimeException e) {
+            // Reads stay on the primary until a check has read a position past this commit
+            unresolvedWrites.put(caller, System.currentTimeMillis());
+            log.debug("Primary WAL position unavailable after a write: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        long checkedAt = System.currentTimeMillis();
+        long current;
+        try {
+            current = primaryPosition();
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Primary WAL position unavailable, reading from the primary: {}", e.getMessage());
+            replicas.forEach(replica -> replica.lagMs = -1);
+            return;
+        }
+        history.addLast(new Position(current, checkedAt));
+        if (history.size() > HISTORY) {
+            history.removeFirst();
+        }
+        unresolvedWrites.forEach((caller, at) -> {
+            if (at < checkedAt && unresolvedWrites.remove(caller, at)) {
+                lastWrites.merge(caller, current, Math::max);
+            }
+        });
+
+        long replayedByAll = Long.MAX_VALUE;
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(replicaPositionQuery)) {
+                Object position = rs.next() ? rs.getObject(1) : null;
+                if (position == null) {
+                    replica.lagMs = -1;
+                } else {
+                    replica.replayed = ((Number) position).longValue();
+                    replica.lagMs = lagMs(replica.replayed, checkedAt);
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (replica.lagMs >= 0) {
+                    log.warn("Replica {} unavailable, reading from the primary: {}", replica.name, e.getMessage());
+                }
+                replica.lagMs = -1;
+            }
+            replayedByAll = Math.min(replayedByAll, replica.replayed);
+        }
+        long horizon = replayedByAll;
+        lastWrites.values().removeIf(lsn -> lsn <= horizon);
+    }
+
+    /**
+     * Time since the primary was last seen at or before {@code replayed}: an upper bound
+     * to one check interval. Behind every remembered position: the whole history once it
+     * is full, else unknown (-1).
+     */
+    private long lagMs(long replayed, long checkedAt) {
+        if (replayed >= history.getLast().lsn()) {
+            return 0;
+        }
+        long since = -1;
+        for (Position position : history) {
+            if (position.lsn() > replayed) {
+                break;
+            }
+            since = position.at();
+        }
+        if (since < 0) {
+            return history.size() < HISTORY ? -1 : checkedAt - history.getFirst().at();
+        }
+        return checkedAt - since;
+    }
+
+    private long primaryPosition() throws SQLException {
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(primaryPositionQuery)) {
+            if (!rs.next() || rs.getObject(1) == null) {
+                throw new SQLException("Primary position query returned no position");
+            }
+            return rs.getLong(1);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void count(String target, String reason) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            return;
+        }
+        registry.counter("erp.datasource.replica.routing", "target", target, "reason", reason).increment();
+    }
+
+    private static String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : ANONYMOUS;
+    }
+}
@@ -0,0 +1,28 @@
+package com.enterprise.erp.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method (or every method of the annotated class) on the connection
+ * pool of {@link #value()}. A method annotation wins over the class annotation.
+ *
+ * Takes effect where a transaction starts: inside a running transaction the call keeps
+ * the connection it already has. Equivalent to {@code @Transactional(label = "workload:analytics")}.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RoutedTo {
+
+    Workload value();
+
+    /**
+     * false: read-only transactions stay on the primary instead of a read replica, for
+     * reads that must never be stale (e.g. a user's enabled flag at login).
+     */
+    boolean replicas() default true;
+}
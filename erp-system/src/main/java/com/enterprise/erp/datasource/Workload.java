@@ -0,0 +1,20 @@
+package com.enterprise.erp.datasource;
+
+/**
+ * Workload classes with a connection pool of their own (see WorkloadRoutingDataSource).
+ */
+public enum Workload {
+
+    /** Order entry, confirmation, reservations: short transactions, the default */
+    OLTP,
+
+    /** Dashboard aggregates and exports: long read-only queries */
+    ANALYTICS,
+
+    /** Spring Batch jobs and ERPScheduler scans */
+    BATCH;
+
+    public String key() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,61 @@
+package com.enterprise.erp.datasource;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Workload of the current thread, and whether it is about to run a read-only
+ * transaction, read by WorkloadRoutingDataSource / ReplicaRoutingDataSource when a
+ * connection is taken. Scopes nest: {@link #push} / {@link #pop} in try / finally.
+ * Threads that never entered a scope are OLTP, read-write.
+ */
+public final class WorkloadContext {
+
+    private record Scope(Workload workload, boolean readOnly) {}
+
+    private static final ThreadLocal<Deque<Scope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private WorkloadContext() {
+    }
+
+    public static Workload current() {
+        Scope scope = SCOPES.get().peek();
+        return scope != null ? scope.workload() : Workload.OLTP;
+    }
+
+    /** True inside a read-only transaction scope: the connection may come from a replica */
+    public static boolean readOnly() {
+        Scope scope = SCOPES.get().peek();
+        return scope != null && scope.readOnly();
+    }
+
+    public static void push(Workload workload) {
+        push(workload, false);
+    }
+
+    public static void push(Workload workload, boolean readOnly) {
+        SCOPES.get().push(new Scope(workload, readOnly));
+    }
+
+    public static void pop() {
+        Deque<Scope> scopes = SCOPES.get();
+        scopes.poll();
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+        }
+    }
+
+    /** Runs every task of an executor in a {@code workload} scope (e.g. batch partitions). */
+    public static TaskDecorator decorator(Workload workload) {
+        return task -> () -> {
+            push(workload);
+            try {
+                task.run();
+            } finally {
+                pop();
+            }
+        };
+    }
+}
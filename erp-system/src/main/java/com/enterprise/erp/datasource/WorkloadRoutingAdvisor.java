@@ -0,0 +1,116 @@
+package com.enterprise.erp.datasource;
+
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AbstractPointcutAdvisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts calls of {@link RoutedTo} methods, and of {@code @Transactional} methods, into a
+ * WorkloadContext scope: the workload comes from @RoutedTo or a transaction label
+ * {@code "workload:<name>"}, the read-only flag from the transaction attribute (unless
+ * {@code @RoutedTo(replicas = false)}). Ordered
+ * ahead of the transaction interceptor, so the scope is in place when the transaction
+ * takes its connection. Calls made inside a running transaction are left alone.
+ *
+ * When read replicas are configured, the commit of a read-write transaction is
+ * reported to ReplicaSet (read-your-writes).
+ */
+public class WorkloadRoutingAdvisor extends AbstractPointcutAdvisor {
+
+    static final String LABEL_PREFIX = "workload:";
+
+    /** workload null: keep the caller's; readOnly null: not transactional */
+    private record Route(Workload workload, Boolean readOnly) {
+        static final Route NONE = new Route(null, null);
+    }
+
+    private final ObjectProvider<ReplicaSet> replicas;
+    private final TransactionAttributeSource transactionAttributes = new AnnotationTransactionAttributeSource(false);
+    private final Map<MethodClassKey, Route> routes = new ConcurrentHashMap<>();
+
+    private final Pointcut pointcut = new StaticMethodMatcherPointcut() {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return route(method, targetClass) != Route.NONE;
+        }
+    };
+
+    private final MethodInterceptor interceptor;
+
+    public WorkloadRoutingAdvisor(ObjectProvider<ReplicaSet> replicas) {
+        this.replicas = replicas;
+        this.interceptor = this::invoke;
+        setOrder(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return interceptor;
+    }
+
+    private Object invoke(MethodInvocation invocation) throws Throwable {
+        Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : null;
+        Route route = route(invocation.getMethod(), targetClass);
+        if (route == Route.NONE || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+        WorkloadContext.push(route.workload() != null ? route.workload() : WorkloadContext.current(),
+            Boolean.TRUE.equals(route.readOnly()));
+        Object result;
+        try {
+            result = invocation.proceed();
+        } finally {
+            WorkloadContext.pop();
+        }
+        if (Boolean.FALSE.equals(route.readOnly())) {
+            replicas.ifAvailable(ReplicaSet::recordWrite);
+        }
+        return result;
+    }
+
+    private Route route(Method method, Class<?> targetClass) {
+        return routes.computeIfAbsent(new MethodClassKey(method, targetClass), key -> resolve(method, targetClass));
+    }
+
+    private Route resolve(Method method, Class<?> targetClass) {
+        Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+        RoutedTo routedTo = AnnotatedElementUtils.findMergedAnnotation(specific, RoutedTo.class);
+        if (routedTo == null) {
+            routedTo = AnnotatedElementUtils.findMergedAnnotation(
+                targetClass != null ? targetClass : specific.getDeclaringClass(), RoutedTo.class);
+        }
+        TransactionAttribute attribute = transactionAttributes.getTransactionAttribute(method, targetClass);
+        Boolean readOnly = attribute != null ? attribute.isReadOnly() && (routedTo == null || routedTo.replicas()) : null;
+        Workload workload = routedTo != null ? routedTo.value() : null;
+        if (workload == null && attribute != null) {
+            for (String label : attribute.getLabels()) {
+                if (label.startsWith(LABEL_PREFIX)) {
+                    workload = Workload.valueOf(label.substring(LABEL_PREFIX.length()).toUpperCase());
+                    break;
+                }
+            }
+        }
+        return workload == null && readOnly == null ? Route.NONE : new Route(workload, readOnly);
+    }
+}
@@ -0,0 +1,28 @@
+package com.enterprise.erp.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * WORKLOAD-ISOLATED CONNECTION POOLS
+ *
+ * Hands out connections from the pool of the calling thread's workload
+ * (WorkloadContext), so a slow dashboard or a reconciliation scan waits on its own
+ * pool and cannot take the connections order confirmation needs. The workload is
+ * looked up once per connection, i.e. when a transaction begins.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    public WorkloadRoutingDataSource(Map<Workload, DataSource> pools) {
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(Workload.OLTP));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+}
@@ -21,4 +21,6 @@ public class ProductRequest {
     @Min(0) private Integer reorderQuantity = 0;
     private String unitOfMeasure = "EACH";
     private ProductStatus status = ProductStatus.ACTIVE;
+    /** Hot-SKU striping: inventory sub-buckets per warehouse; null keeps the current setting. */
+    @Min(1) @Max(64) private Integer inventoryStripes;
 }
@@ -17,6 +17,7 @@ public class ProductResponse {
     private Integer reorderQuantity;
     private String unitOfMeasure;
     private ProductStatus status;
+    private Integer inventoryStripes;
     private Long version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
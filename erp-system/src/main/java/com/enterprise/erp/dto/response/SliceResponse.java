@@ -0,0 +1,14 @@
+package com.enterprise.erp.dto.response;
+import lombok.*;
+import java.util.List;
+/**
+ * One keyset slice: no total count; pass nextCursor back as "after" for the next slice
+ * (null when hasNext is false).
+ */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class SliceResponse<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
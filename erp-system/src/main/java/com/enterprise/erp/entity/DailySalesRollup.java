@@ -0,0 +1,53 @@
+package com.enterprise.erp.entity;
+
+import com.enterprise.erp.entity.enums.SalesOrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Order count and revenue of one day (by order creation date), warehouse and order status.
+ * Maintained incrementally by {@link com.enterprise.erp.analytics.SalesRollupWriter};
+ * order analytics read these rows instead of grouping sales_orders.
+ */
+@Entity
+@Table(
+    name = "daily_sales_rollup",
+    uniqueConstraints = {
+        @UniqueConstraint(
+            name = "uk_daily_sales_rollup",
+            columnNames = {"rollup_date", "warehouse_id", "status"}
+        )
+    }
+)
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailySalesRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private SalesOrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    @Builder.Default
+    private Long orderCount = 0L;
+
+    @Column(name = "revenue", nullable = false, precision = 18, scale = 4)
+    @Builder.Default
+    private BigDecimal revenue = BigDecimal.ZERO;
+}
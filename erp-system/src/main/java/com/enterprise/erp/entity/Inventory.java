@@ -54,6 +54,27 @@ public class Inventory {
     @Column(name = "last_updated")
     private LocalDateTime lastUpdated;
 
+    /**
+     * ATP ledger write-back position: id of the last RESERVATION/RELEASE movement
+     * already folded into reservedQuantity. Null when the ledger never touched the row.
+     */
+    @Column(name = "ledger_watermark")
+    private Long ledgerWatermark;
+
+    /**
+     * Lower created_at bound of the journal movements above ledgerWatermark (set by each
+     * write-back), so reads of the unfolded journal prune old movement partitions.
+     */
+    @Column(name = "ledger_journal_since")
+    private LocalDateTime ledgerJournalSince;
+
+    /**
+     * Number of inventory_stripes holding this row's stock (hot SKUs).
+     * Null when not striped; when set, quantity/reservedQuantity are a rolled-up read model.
+     */
+    @Column(name = "stripe_count")
+    private Integer stripeCount;
+
     /**
      * Optimistic locking - detects concurrent modifications.
      * Prevents lost updates without locking DB rows for long.
@@ -17,9 +17,11 @@ import java.time.LocalDateTime;
     name = "inventory_movements",
     indexes = {
         @Index(name = "idx_inv_mov_product_id", columnList = "product_id"),
-        @Index(name = "idx_inv_mov_warehouse_id", columnList = "warehouse_id"),
         @Index(name = "idx_inv_mov_type", columnList = "movement_type"),
-        @Index(name = "idx_inv_mov_created_at", columnList = "created_at"),
+        // Keyset slices of the audit trail: (filter, created_at, id)
+        @Index(name = "idx_inv_mov_created_id", columnList = "created_at,id"),
+        @Index(name = "idx_inv_mov_product_created_id", columnList = "product_id,created_at,id"),
+        @Index(name = "idx_inv_mov_warehouse_created_id", columnList = "warehouse_id,created_at,id"),
         @Index(name = "idx_inv_mov_reference", columnList = "reference_type,reference_id")
     }
 )
@@ -29,8 +31,13 @@ import java.time.LocalDateTime;
 @Builder
 public class InventoryMovement {
 
+    /**
+     * Sequence ids with a pooled optimizer (50 ids per round trip) so inserts can be
+     * JDBC-batched; IDENTITY forces one INSERT ... RETURNING per row.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_movements_seq")
+    @SequenceGenerator(name = "inventory_movements_seq", sequenceName = "inventory_movements_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -0,0 +1,74 @@
+package com.enterprise.erp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One sub-bucket of a striped (hot SKU) inventory row.
+ * When a product/warehouse is striped, stock lives here split across N stripes and the
+ * matching {@link Inventory} row is a rolled-up read model of their sums.
+ */
+@Entity
+@Table(
+    name = "inventory_stripes",
+    uniqueConstraints = {
+        @UniqueConstraint(
+            name = "uk_inventory_stripe",
+            columnNames = {"product_id", "warehouse_id", "stripe_index"}
+        )
+    }
+)
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryStripe {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+
+    @Column(name = "stripe_index", nullable = false)
+    private Integer stripeIndex;
+
+    @Column(name = "quantity", nullable = false)
+    @Builder.Default
+    private Integer quantity = 0;
+
+    @Column(name = "reserved_quantity", nullable = false)
+    @Builder.Default
+    private Integer reservedQuantity = 0;
+
+    @Column(name = "last_updated")
+    private LocalDateTime lastUpdated;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    @Builder.Default
+    private Long version = 0L;
+
+    @Transient
+    public Integer getAvailableQuantity() {
+        return this.quantity - this.reservedQuantity;
+    }
+
+    @PreUpdate
+    @PrePersist
+    public void onUpdate() {
+        this.lastUpdated = LocalDateTime.now();
+        if (this.quantity < 0 || this.reservedQuantity < 0 || this.reservedQuantity > this.quantity) {
+            throw new IllegalStateException(
+                "Invalid stripe state: quantity " + quantity + ", reserved " + reservedQuantity);
+        }
+    }
+}
@@ -55,6 +55,13 @@ public class Product extends BaseEntity {
     @Column(name = "status", nullable = false, length = 20)
     private ProductStatus status = ProductStatus.ACTIVE;
 
+    /**
+     * Hot-SKU striping: number of inventory sub-buckets per warehouse.
+     * Null or 1 = a single inventory row (default).
+     */
+    @Column(name = "inventory_stripes")
+    private Integer inventoryStripes;
+
     // Optimistic Locking - prevents lost updates under concurrency
     @Version
     @Column(name = "version", nullable = false)
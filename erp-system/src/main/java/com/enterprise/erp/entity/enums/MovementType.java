@@ -1,2 +1,2 @@
 package com.enterprise.erp.entity.enums;
-public enum MovementType { PURCHASE, SALE, RETURN, ADJUSTMENT, TRANSFER }
+public enum MovementType { PURCHASE, SALE, RETURN, ADJUSTMENT, TRANSFER, RESERVATION, RELEASE }
@@ -3,15 +3,21 @@ package com.enterprise.erp.exception;
 import com.enterprise.erp.dto.response.ErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -64,6 +70,44 @@ public class GlobalExceptionHandler {
             "Record was modified by another transaction. Please retry.", request);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloaded(
+            ServiceOverloadedException ex, HttpServletRequest request) {
+        log.warn("Request shed under load: {}", ex.getMessage());
+        ResponseEntity<ErrorResponse> error = buildError(HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_OVERLOADED",
+            ex.getMessage(), request);
+        return ResponseEntity.status(error.getStatusCode()).header(HttpHeaders.RETRY_AFTER, "1").body(error.getBody());
+    }
+
+    // No connection within the limiter / pool wait (virtual threads: ConnectionLimitingDataSource)
+    @ExceptionHandler({ CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class })
+    public ResponseEntity<ErrorResponse> handleNoConnection(
+            RuntimeException ex, HttpServletRequest request) {
+        log.warn("No database connection available: {}", ex.getMessage());
+        ResponseEntity<ErrorResponse> error = buildError(HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_OVERLOADED",
+            "The service is busy. Please retry shortly.", request);
+        return ResponseEntity.status(error.getStatusCode()).header(HttpHeaders.RETRY_AFTER, "1").body(error.getBody());
+    }
+
+    // Statement cancelled by its pool's statement_timeout (app.datasource.workloads.*)
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleQueryTimeout(
+            QueryTimeoutException ex, HttpServletRequest request) {
+        log.warn("Query timed out: {}", ex.getMessage());
+        return buildError(HttpStatus.SERVICE_UNAVAILABLE, "QUERY_TIMEOUT",
+            "The query took too long and was cancelled. Please narrow it down or retry later.", request);
+    }
+
+    // Row locks not acquired within app.inventory.lock.timeout-ms, after retries (LockRetry)
+    @ExceptionHandler({ InventoryLockedException.class, PessimisticLockingFailureException.class })
+    public ResponseEntity<ErrorResponse> handleInventoryLocked(
+            RuntimeException ex, HttpServletRequest request) {
+        log.warn("Inventory lock not acquired: {}", ex.getMessage());
+        ResponseEntity<ErrorResponse> error = buildError(HttpStatus.SERVICE_UNAVAILABLE, "INVENTORY_LOCKED",
+            "Inventory is busy with concurrent updates. Please retry shortly.", request);
+        return ResponseEntity.status(error.getStatusCode()).header(HttpHeaders.RETRY_AFTER, "1").body(error.getBody());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationErrors(
             MethodArgumentNotValidException ex, HttpServletRequest request) {
@@ -84,6 +128,14 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorResponse);
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatch(
+            MethodArgumentTypeMismatchException ex, HttpServletRequest request) {
+        log.warn("Invalid value '{}' for parameter {}", ex.getValue(), ex.getName());
+        return buildError(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR",
+            "Invalid value '" + ex.getValue() + "' for parameter '" + ex.getName() + "'", request);
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ErrorResponse> handleBadCredentials(
             BadCredentialsException ex, HttpServletRequest request) {
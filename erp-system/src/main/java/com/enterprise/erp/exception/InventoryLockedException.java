@@ -0,0 +1,4 @@
+package com.enterprise.erp.exception;
+public class InventoryLockedException extends RuntimeException {
+    public InventoryLockedException(String message, Throwable cause) { super(message, cause); }
+}
@@ -0,0 +1,4 @@
+package com.enterprise.erp.exception;
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message) { super(message); }
+}
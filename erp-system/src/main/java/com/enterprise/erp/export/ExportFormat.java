@@ -0,0 +1,159 @@
+package com.enterprise.erp.export;
+
+import com.enterprise.erp.exception.BusinessValidationException;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming row encodings of an export. A {@link RowWriter} encodes one row at a time
+ * into a fixed-size buffer: nothing is retained between rows.
+ */
+public enum ExportFormat {
+
+    CSV("text/csv", "csv") {
+        @Override
+        public RowWriter open(OutputStream out, String[] columns) throws IOException {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            RowWriter rows = new RowWriter() {
+                @Override
+                public void write(Object[] values) throws IOException {
+                    for (int i = 0; i < values.length; i++) {
+                        if (i > 0) {
+                            writer.write(',');
+                        }
+                        if (values[i] != null) {
+                            writeCsvField(writer, values[i] instanceof BigDecimal decimal
+                                ? decimal.toPlainString() : values[i].toString());
+                        }
+                    }
+                    writer.write("\r\n");
+                }
+
+                @Override
+                public void close() throws IOException {
+                    writer.flush();
+                }
+            };
+            rows.write(columns);
+            return rows;
+        }
+    },
+
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        public RowWriter open(OutputStream out, String[] columns) throws IOException {
+            JsonGenerator generator = JSON.createGenerator(out, JsonEncoding.UTF8);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            SerializedString[] names = new SerializedString[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                names[i] = new SerializedString(columns[i]);
+            }
+            return new RowWriter() {
+                private boolean empty = true;
+
+                @Override
+                public void write(Object[] values) throws IOException {
+                    empty = false;
+                    generator.writeStartObject();
+                    for (int i = 0; i < values.length; i++) {
+                        generator.writeFieldName(names[i]);
+                        Object value = values[i];
+                        if (value == null) {
+                            generator.writeNull();
+                        } else if (value instanceof BigDecimal decimal) {
+                            generator.writeNumber(decimal);
+                        } else if (value instanceof Long number) {
+                            generator.writeNumber(number);
+                        } else if (value instanceof Integer number) {
+                            generator.writeNumber(number);
+                        } else {
+                            generator.writeString(value.toString());
+                        }
+                    }
+                    generator.writeEndObject();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    if (!empty) {
+                        generator.writeRaw('\n');
+                    }
+                    generator.flush();
+                }
+            };
+        }
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final JsonFactory JSON = JsonFactory.builder()
+        .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+        .build();
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    /**
+     * Case-insensitive lookup ("csv", "ndjson").
+     */
+    public static ExportFormat parse(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new BusinessValidationException("Unsupported export format '" + value + "': use csv or ndjson");
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * Starts an export with the given column names (written as the CSV header).
+     * Closing the writer flushes it but leaves {@code out} open.
+     */
+    public abstract RowWriter open(OutputStream out, String[] columns) throws IOException;
+
+    public interface RowWriter extends AutoCloseable {
+
+        /**
+         * Writes one row; values are in column order. The array may be reused by the caller.
+         */
+        void write(Object[] values) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,115 @@
+package com.enterprise.erp.export;
+
+import com.enterprise.erp.datasource.RoutedTo;
+import com.enterprise.erp.datasource.Workload;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * STREAMS A QUERY RESULT TO AN OUTPUT STREAM
+ *
+ * Rows are read from a forward-only, read-only cursor in chunks of {@code fetch-size}
+ * and encoded one at a time: heap use is constant whatever the size of the result, and
+ * throughput is bounded by how fast the client reads.
+ *
+ * Runs in a read-only transaction: the PostgreSQL driver only fetches in chunks with
+ * auto-commit off (otherwise it materializes the whole result set). Uses the batch
+ * connection pool: an export may stream for far longer than the analytics statement timeout.
+ */
+@Component
+@RoutedTo(Workload.BATCH)
+@RequiredArgsConstructor
+@Slf4j
+public class JdbcExporter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Writes every row of {@code sql} to {@code out}; column names are the lower-cased
+     * column labels. Returns the number of rows written.
+     */
+    public long export(String sql, List<Object> params, ExportFormat format, OutputStream out) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        Long rows = transaction.execute(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return statement;
+        }, resultSet -> {
+            try {
+                return write(resultSet, format, out);
+            } catch (IOException e) {
+                // Typically the client went away: stop reading and release the connection
+                throw new UncheckedIOException(e);
+            }
+        }));
+        return rows != null ? rows : 0;
+    }
+
+    private static long write(ResultSet resultSet, ExportFormat format, OutputStream out)
+            throws SQLException, IOException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        String[] columns = new String[columnCount];
+        int[] types = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1).toLowerCase(Locale.ROOT);
+            types[i] = metaData.getColumnType(i + 1);
+        }
+
+        long rows = 0;
+        Object[] values = new Object[columnCount];
+        try (ExportFormat.RowWriter writer = format.open(out, columns)) {
+            while (resultSet.next()) {
+                for (int i = 0; i < columnCount; i++) {
+                    values[i] = read(resultSet, i + 1, types[i]);
+                }
+                writer.write(values);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static Object read(ResultSet resultSet, int column, int type) throws SQLException {
+        return switch (type) {
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> {
+                Timestamp timestamp = resultSet.getTimestamp(column);
+                yield timestamp != null ? timestamp.toLocalDateTime() : null;
+            }
+            case Types.DATE -> {
+                java.sql.Date date = resultSet.getDate(column);
+                yield date != null ? date.toLocalDate() : null;
+            }
+            case Types.BIGINT -> resultSet.getObject(column, Long.class);
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> resultSet.getObject(column, Integer.class);
+            case Types.NUMERIC, Types.DECIMAL -> resultSet.getBigDecimal(column);
+            default -> resultSet.getString(column);
+        };
+    }
+}
@@ -0,0 +1,439 @@
+package com.enterprise.erp.inventory;
+
+import com.enterprise.erp.entity.Inventory;
+import com.enterprise.erp.entity.InventoryMovement;
+import com.enterprise.erp.exception.InsufficientStockException;
+import com.enterprise.erp.exception.ResourceNotFoundException;
+import com.enterprise.erp.repository.InventoryMovementRepository;
+import com.enterprise.erp.repository.InventoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * IN-PROCESS AVAILABLE-TO-PROMISE LEDGER (reservation-mode = LEDGER)
+ *
+ * Keeps on-hand and reserved quantity per (product, warehouse) in one packed
+ * AtomicLong, so reservations on a hot SKU are a CAS instead of a row lock.
+ *
+ * Durability: every reservation/release is journalled as a RESERVATION/RELEASE
+ * row in inventory_movements inside the caller's transaction (an insert, which
+ * never contends on the inventory row). A scheduled group commit folds the
+ * journal into inventory.reserved_quantity and advances inventory.ledger_watermark
+ * in the same statement. Seeding a slot - at first use or after a crash - reads the
+ * row plus every journal entry above its watermark, so nothing is lost or doubled.
+ * Both read the journal from inventory.ledger_journal_since on - the previous fold's
+ * time minus app.inventory.ledger.journal-lookback-ms, which must exceed the longest
+ * ledger transaction - so only the newest movement partitions are scanned.
+ *
+ * Assumes one application node owns ledger-mode writes for a given row.
+ */
+@Component
+@Slf4j
+public class AvailableToPromiseLedger {
+
+    // Journal bound of rows never folded with a bound: the whole journal
+    private static final LocalDateTime JOURNAL_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryMovementRepository movementRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long journalLookbackMs;
+
+    private final Map<Key, Slot> slots = new ConcurrentHashMap<>();
+    private final Set<Key> dirtyKeys = ConcurrentHashMap.newKeySet();
+
+    // Journal ids of in-flight (uncommitted) ledger transactions, see safeWatermark()
+    private final Map<Object, Long> inFlightFloors = new ConcurrentHashMap<>();
+    private final AtomicLong lastJournalId = new AtomicLong();
+
+    private final Counter reservedCounter;
+    private final Counter rejectedCounter;
+    private final Timer flushTimer;
+
+    public AvailableToPromiseLedger(InventoryRepository inventoryRepository,
+                                    InventoryMovementRepository movementRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.inventory.ledger.journal-lookback-ms:86400000}") long journalLookbackMs) {
+        this.inventoryRepository = inventoryRepository;
+        this.movementRepository = movementRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journalLookbackMs = journalLookbackMs;
+        this.reservedCounter = meterRegistry.counter("erp.inventory.atp.reservations", "outcome", "reserved");
+        this.rejectedCounter = meterRegistry.counter("erp.inventory.atp.reservations", "outcome", "rejected");
+        this.flushTimer = meterRegistry.timer("erp.inventory.atp.flush");
+        meterRegistry.gaugeMapSize("erp.inventory.atp.slots", List.of(), slots);
+        meterRegistry.gaugeCollectionSize("erp.inventory.atp.dirty", List.of(), dirtyKeys);
+    }
+
+    record Key(Long productId, Long warehouseId) {}
+
+    /**
+     * Result of a ledger reservation or release: on-hand quantity at that moment
+     * (for the journal entry) and the units actually reserved or released.
+     */
+    public record Change(int onHand, int units) {}
+
+    // ================================================================
+    // RESERVE / RELEASE
+    // ================================================================
+
+    /**
+     * Reserves stock with a CAS. Undone automatically if the caller's transaction rolls back.
+     */
+    public Change reserve(Long productId, Long warehouseId, int quantity) {
+        Key key = new Key(productId, warehouseId);
+        Slot slot = slotFor(key);
+
+        long before;
+        while (true) {
+            before = slot.awaitUnfrozen();
+            int available = quantity(before) - reserved(before);
+            if (available < quantity) {
+                rejectedCounter.increment();
+                throw new InsufficientStockException(slot.sku, quantity, available);
+            }
+            if (slot.state.compareAndSet(before, pack(quantity(before), reserved(before) + quantity, frozen(before)))) {
+                break;
+            }
+        }
+        reservedCounter.increment();
+
+        onCompletion(committed -> {
+            if (committed) {
+                dirtyKeys.add(key);
+            } else {
+                slot.update(0, -quantity);
+            }
+        });
+        return new Change(quantity(before), quantity);
+    }
+
+    /**
+     * Releases up to {@code quantity} reserved units with a CAS.
+     */
+    public Change release(Long productId, Long warehouseId, int quantity) {
+        Key key = new Key(productId, warehouseId);
+        Slot slot = slotFor(key);
+
+        long before;
+        int released;
+        while (true) {
+            before = slot.awaitUnfrozen();
+            released = Math.min(quantity, reserved(before));
+            if (slot.state.compareAndSet(before, pack(quantity(before), reserved(before) - released, frozen(before)))) {
+                break;
+            }
+        }
+
+        int undo = released;
+        onCompletion(committed -> {
+            if (committed) {
+                dirtyKeys.add(key);
+            } else {
+                slot.update(0, undo);
+            }
+        });
+        return new Change(quantity(before), released);
+    }
+
+    /**
+     * Persists a RESERVATION/RELEASE journal entry in the caller's transaction.
+     */
+    public void journal(InventoryMovement movement) {
+        Key key = new Key(movement.getProduct().getId(), movement.getWarehouse().getId());
+        Object token = new Object();
+        // Registered before the id is drawn from the (single-node, ascending) pooled
+        // sequence: the id assigned below is always > this floor
+        inFlightFloors.put(token, lastJournalId.get());
+        onCompletion(committed -> inFlightFloors.remove(token));
+
+        long id = movementRepository.save(movement).getId();
+        lastJournalId.accumulateAndGet(id, Math::max);
+        Slot slot = slots.get(key);
+        if (slot != null) {
+            slot.maxJournalId.accumulateAndGet(id, Math::max);
+        }
+    }
+
+    // ================================================================
+    // ENTITY-PATH MUTATIONS (add / deduct / adjust while in LEDGER mode)
+    // ================================================================
+
+    /**
+     * Called before a locked, entity-based change to the inventory row. Blocks new
+     * reservations on the key until the caller's transaction completes and folds the
+     * journal so the row's reserved_quantity is current before it is modified.
+     */
+    public void beginRowChange(Long productId, Long warehouseId) {
+        Key key = new Key(productId, warehouseId);
+        Slot slot = slots.get(key);
+        if (slot != null && slot.freeze()) {
+            onCompletion(committed -> slot.unfreeze(committed));
+        }
+        inventoryRepository.foldLedgerJournal(productId, warehouseId, safeWatermark(), journalSince());
+    }
+
+    /**
+     * Mirrors a committed change to on-hand / reserved quantity into the slot.
+     * Applied when the transaction opened by {@link #beginRowChange} commits.
+     */
+    public void recordRowChange(Long productId, Long warehouseId, int quantityDelta, int reservedDelta) {
+        Slot slot = slots.get(new Key(productId, warehouseId));
+        if (slot != null) {
+            slot.pendingQuantityDelta += quantityDelta;
+            slot.pendingReservedDelta += reservedDelta;
+        }
+    }
+
+    // ================================================================
+    // GROUP COMMIT WRITE-BACK
+    // ================================================================
+
+    @Scheduled(fixedDelayString = "${app.inventory.ledger.flush-interval-ms:250}")
+    public void flush() {
+        if (dirtyKeys.isEmpty()) {
+            return;
+        }
+        // Watermark first, then the key snapshot: every journal id <= upTo belongs to a
+        // transaction that has already completed and marked its key dirty.
+        long upTo = safeWatermark();
+        LocalDateTime since = journalSince();
+        List<Key> keys = new ArrayList<>(dirtyKeys);
+        dirtyKeys.removeAll(keys);
+
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status ->
+                keys.forEach(key ->
+                    inventoryRepository.foldLedgerJournal(key.productId(), key.warehouseId(), upTo, since))));
+        } catch (RuntimeException ex) {
+            dirtyKeys.addAll(keys);
+            log.error("ATP ledger write-back of {} rows failed, will retry: {}", keys.size(), ex.getMessage());
+            return;
+        }
+
+        for (Key key : keys) {
+            Slot slot = slots.get(key);
+            if (slot != null && slot.maxJournalId.get() > upTo) {
+                dirtyKeys.add(key);
+            }
+        }
+        log.debug("ATP ledger folded {} rows up to journal id {}", keys.size(), upTo);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Highest journal id below which no ledger transaction is still in flight.
+     */
+    private long safeWatermark() {
+        long upTo = lastJournalId.get();
+        for (Long floor : inFlightFloors.values()) {
+            upTo = Math.min(upTo, floor);
+        }
+        return upTo;
+    }
+
+    /**
+     * Lower created_at bound for the journal entries a fold leaves behind: they belong to
+     * transactions still in flight or not yet started, none older than the lookback.
+     */
+    private LocalDateTime journalSince() {
+        return LocalDateTime.now().minusNanos(journalLookbackMs * 1_000_000L);
+    }
+
+    // ================================================================
+    // SEEDING / RECOVERY
+    // ================================================================
+
+    private Slot slotFor(Key key) {
+        Slot slot = slots.get(key);
+        if (slot != null) {
+            return slot;
+        }
+        Slot seeded = seed(key);
+        Slot existing = slots.putIfAbsent(key, seeded);
+        return existing != null ? existing : seeded;
+    }
+
+    /**
+     * Row state plus every journal entry not yet folded into it. Same path for a cold
+     * start and for recovery after a crash between journal insert and write-back.
+     */
+    private Slot seed(Key key) {
+        Inventory inventory = inventoryRepository
+            .findByProductIdAndWarehouseId(key.productId(), key.warehouseId())
+            .orElseThrow(() -> new ResourceNotFoundException(
+                "No inventory found for product: " + key.productId() + " in warehouse: " + key.warehouseId()));
+
+        long watermark = inventory.getLedgerWatermark() != null ? inventory.getLedgerWatermark() : 0L;
+        LocalDateTime since = inventory.getLedgerJournalSince() != null ? inventory.getLedgerJournalSince() : JOURNAL_START;
+        long unfolded = movementRepository.sumLedgerJournalAfter(key.productId(), key.warehouseId(), watermark, since);
+        int quantity = inventory.getQuantity();
+        int reserved = (int) Math.max(0, Math.min(quantity, inventory.getReservedQuantity() - unfolded));
+
+        if (unfolded != 0) {
+            dirtyKeys.add(key);
+            log.info("ATP ledger recovered {} unfolded units for product {} in warehouse {}",
+                -unfolded, key.productId(), key.warehouseId());
+        }
+        return new Slot(inventory.getProduct().getSku(), quantity, reserved, watermark);
+    }
+
+    private static void onCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    // ================================================================
+    // PACKED STATE: bit 62 = frozen, bits 31..61 = on-hand, bits 0..30 = reserved
+    // ================================================================
+
+    private static final long FROZEN = 1L << 62;
+    private static final long MASK = 0x7FFF_FFFFL;
+
+    static long pack(int quantity, int reserved, boolean frozen) {
+        return (frozen ? FROZEN : 0L) | ((long) quantity << 31) | reserved;
+    }
+
+    static int quantity(long state) {
+        return (int) ((state >>> 31) & MASK);
+    }
+
+    static int reserved(long state) {
+        return (int) (state & MASK);
+    }
+
+    static boolean frozen(long state) {
+        return (state & FROZEN) != 0;
+    }
+
+    int[] snapshot(Long productId, Long warehouseId) {
+        Slot slot = slots.get(new Key(productId, warehouseId));
+        if (slot == null) {
+            return null;
+        }
+        long state = slot.state.get();
+        return new int[] {quantity(state), reserved(state)};
+    }
+
+    private static final class Slot {
+        final String sku;
+        final AtomicLong state;
+        final AtomicLong maxJournalId;
+
+        volatile Thread owner;
+        // Waiters park on a Condition, not a monitor: a frozen slot stays frozen for the
+        // owner's whole transaction, and a virtual thread waiting in a monitor pins its carrier
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition unfrozen = lock.newCondition();
+        // Only touched by the owner thread
+        int pendingQuantityDelta;
+        int pendingReservedDelta;
+
+        Slot(String sku, int quantity, int reserved, long watermark) {
+            this.sku = sku;
+            this.state = new AtomicLong(pack(quantity, reserved, false));
+            this.maxJournalId = new AtomicLong(watermark);
+        }
+
+        long awaitUnfrozen() {
+            long current = state.get();
+            if (!frozen(current) || owner == Thread.currentThread()) {
+                return current;
+            }
+            lock.lock();
+            try {
+                while (frozen(current = state.get())) {
+                    unfrozen.await();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for inventory row change", ex);
+            } finally {
+                lock.unlock();
+            }
+            return current;
+        }
+
+        /** Applies a delta that keeps the frozen bit as-is (rollback compensation). */
+        void update(int quantityDelta, int reservedDelta) {
+            long current;
+            long next;
+            do {
+                current = state.get();
+                int quantity = quantity(current) + quantityDelta;
+                int reserved = Math.max(0, Math.min(quantity, reserved(current) + reservedDelta));
+                next = pack(quantity, reserved, frozen(current));
+            } while (!state.compareAndSet(current, next));
+        }
+
+        /** @return true if this call took the freeze (false when re-entered by the owner) */
+        boolean freeze() {
+            if (owner == Thread.currentThread()) {
+                return false;
+            }
+            while (true) {
+                long current = awaitUnfrozen();
+                if (state.compareAndSet(current, current | FROZEN)) {
+                    owner = Thread.currentThread();
+                    return true;
+                }
+            }
+        }
+
+        void unfreeze(boolean committed) {
+            int quantityDelta = committed ? pendingQuantityDelta : 0;
+            int reservedDelta = committed ? pendingReservedDelta : 0;
+            pendingQuantityDelta = 0;
+            pendingReservedDelta = 0;
+            owner = null;
+            long current;
+            long next;
+            do {
+                current = state.get();
+                int quantity = quantity(current) + quantityDelta;
+                int reserved = Math.max(0, Math.min(quantity, reserved(current) + reservedDelta));
+                next = pack(quantity, reserved, false);
+            } while (!state.compareAndSet(current, next));
+            lock.lock();
+            try {
+                unfrozen.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.enterprise.erp.inventory;
+
+import com.enterprise.erp.exception.InsufficientStockException;
+import com.enterprise.erp.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * SINGLE-STATEMENT RESERVATIONS (reservation-mode = CONDITIONAL)
+ *
+ * A reservation is one guarded UPDATE: the availability check is part of the WHERE
+ * clause, so the row lock is taken and released by the statement itself instead of
+ * being held across a SELECT ... FOR UPDATE, a check in Java and a save. Zero rows
+ * updated means the stock was short (or the row does not exist / is striped); only
+ * then is the row read again, without a lock, to report why.
+ *
+ * Runs in the caller's transaction through JdbcTemplate, so the change commits or
+ * rolls back with the rest of the order. Striped rows are never touched here: their
+ * stock lives in inventory_stripes (see StripedInventory).
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalReservation {
+
+    private static final String RESERVE = """
+        UPDATE inventory
+        SET reserved_quantity = reserved_quantity + ?, version = version + 1, last_updated = ?
+        WHERE product_id = ? AND warehouse_id = ?
+          AND stripe_count IS NULL
+          AND quantity - reserved_quantity >= ?
+        """;
+
+    // PostgreSQL: the on-hand quantity for the movement comes back with the update
+    private static final String RESERVE_RETURNING = RESERVE + "RETURNING quantity";
+
+    private static final String RELEASE = """
+        UPDATE inventory
+        SET reserved_quantity = GREATEST(0, reserved_quantity - ?), version = version + 1, last_updated = ?
+        WHERE product_id = ? AND warehouse_id = ?
+          AND stripe_count IS NULL
+        """;
+
+    private static final String READ_ROW = """
+        SELECT i.quantity, i.reserved_quantity, i.stripe_count, p.sku
+        FROM inventory i JOIN products p ON p.id = i.product_id
+        WHERE i.product_id = ? AND i.warehouse_id = ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    private record Row(int quantity, int reserved, boolean striped, String sku) {}
+
+    /**
+     * Reserves {@code quantity} units on the inventory row. Returns its on-hand quantity,
+     * or empty when the row is striped (reserve on the stripes instead).
+     *
+     * @throws InsufficientStockException if fewer than {@code quantity} units are available
+     * @throws ResourceNotFoundException if there is no inventory row
+     */
+    public OptionalInt reserve(Long productId, Long warehouseId, int quantity) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (postgres()) {
+            List<Integer> onHand = jdbcTemplate.queryForList(RESERVE_RETURNING, Integer.class,
+                quantity, now, productId, warehouseId, quantity);
+            if (!onHand.isEmpty()) {
+                return OptionalInt.of(onHand.get(0));
+            }
+        } else if (jdbcTemplate.update(RESERVE, quantity, now, productId, warehouseId, quantity) == 1) {
+            return OptionalInt.of(read(productId, warehouseId).quantity());
+        }
+
+        Row row = read(productId, warehouseId);
+        if (row.striped()) {
+            return OptionalInt.empty();
+        }
+        throw new InsufficientStockException(row.sku(), quantity, row.quantity() - row.reserved());
+    }
+
+    /**
+     * Releases up to {@code quantity} reserved units. Returns false when the row is
+     * striped (release on the stripes instead).
+     *
+     * @throws ResourceNotFoundException if there is no inventory row
+     */
+    public boolean release(Long productId, Long warehouseId, int quantity) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (jdbcTemplate.update(RELEASE, quantity, now, productId, warehouseId) == 1) {
+            return true;
+        }
+        read(productId, warehouseId);
+        return false;
+    }
+
+    private Row read(Long productId, Long warehouseId) {
+        List<Row> rows = jdbcTemplate.query(READ_ROW, (rs, i) -> new Row(
+            rs.getInt("quantity"), rs.getInt("reserved_quantity"),
+            rs.getObject("stripe_count") != null, rs.getString("sku")), productId, warehouseId);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException(
+                "No inventory found for product: " + productId + " in warehouse: " + warehouseId);
+        }
+        return rows.get(0);
+    }
+
+    private boolean postgres() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,108 @@
+package com.enterprise.erp.inventory;
+
+import com.enterprise.erp.entity.InventoryMovement;
+import com.enterprise.erp.repository.InventoryMovementRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * APPEND-ONLY GROUP-COMMIT WRITER FOR THE MOVEMENT AUDIT TRAIL
+ *
+ * Movements appended during a transaction are held in a per-transaction buffer and
+ * persisted together just before commit, so they go out as JDBC batches of
+ * hibernate.jdbc.batch_size rows (multi-row INSERTs with reWriteBatchedInserts) instead
+ * of being flushed one by one by every intermediate query. This relies on the pooled
+ * sequence id of InventoryMovement - IDENTITY ids cannot be batched.
+ *
+ * The rows are still written in the caller's transaction: an audit entry commits or
+ * rolls back with the stock change it describes. Coalescing across transactions is
+ * left to PostgreSQL's WAL group commit (commit_delay) rather than a shared buffer,
+ * which would detach the audit trail from the stock change.
+ *
+ * ATP ledger journal entries do not go through here: the ledger needs their ids
+ * at append time (see {@link AvailableToPromiseLedger#journal}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryMovementWriter {
+
+    private final InventoryMovementRepository movementRepository;
+
+    public void append(InventoryMovement movement) {
+        Buffer buffer = currentBuffer();
+        if (buffer == null) {
+            movementRepository.save(movement);
+            return;
+        }
+        buffer.movements.add(movement);
+    }
+
+    public void appendAll(Collection<InventoryMovement> movements) {
+        Buffer buffer = currentBuffer();
+        if (buffer == null) {
+            movementRepository.saveAll(movements);
+            return;
+        }
+        buffer.movements.addAll(movements);
+    }
+
+    /**
+     * Writes the current transaction's buffered movements now. Runs before commit;
+     * also useful ahead of a native query that must see them.
+     */
+    public void flush() {
+        Buffer buffer = currentBuffer();
+        if (buffer != null) {
+            buffer.writeBatch();
+        }
+    }
+
+    private Buffer currentBuffer() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        // Looked up among the transaction's synchronizations (not a bound resource),
+        // so a REQUIRES_NEW transaction suspends the outer buffer and gets its own.
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Buffer buffer && buffer.writer() == this) {
+                return buffer;
+            }
+        }
+        Buffer buffer = new Buffer();
+        TransactionSynchronizationManager.registerSynchronization(buffer);
+        return buffer;
+    }
+
+    private final class Buffer implements TransactionSynchronization {
+
+        private final List<InventoryMovement> movements = new ArrayList<>();
+
+        InventoryMovementWriter writer() {
+            return InventoryMovementWriter.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            writeBatch();
+        }
+
+        void writeBatch() {
+            if (movements.isEmpty()) {
+                return;
+            }
+            List<InventoryMovement> batch = List.copyOf(movements);
+            movements.clear();
+            movementRepository.saveAll(batch);
+            log.debug("Wrote {} inventory movement(s) as one batch", batch.size());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.enterprise.erp.inventory;
+
+import com.enterprise.erp.exception.InventoryLockedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * RETRY OF TRANSACTIONS THAT LOST A ROW LOCK
+ *
+ * Lock timeouts, deadlock victims and serialization failures all surface as
+ * PessimisticLockingFailureException once the transaction has rolled back. Such a call
+ * is run again, up to app.inventory.lock.max-attempts times, after a full-jitter backoff
+ * (random in [0, min(max-backoff, backoff * 2^attempt)]) so retried callers do not
+ * collide again in lockstep. When attempts run out, InventoryLockedException is thrown.
+ *
+ * Must wrap the outermost transaction: inside one there is nothing left to retry (a
+ * PostgreSQL transaction is aborted by the error), so the call then runs once.
+ */
+@Component
+@Slf4j
+public class LockRetry {
+
+    @Value("${app.inventory.lock.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.inventory.lock.backoff-ms:50}")
+    private long backoffMs;
+
+    @Value("${app.inventory.lock.max-backoff-ms:1000}")
+    private long maxBackoffMs;
+
+    private final Counter retryCounter;
+    private final Counter exhaustedCounter;
+
+    public LockRetry(MeterRegistry meterRegistry) {
+        this.retryCounter = meterRegistry.counter("erp.inventory.lock.retries", "outcome", "retried");
+        this.exhaustedCounter = meterRegistry.counter("erp.inventory.lock.retries", "outcome", "exhausted");
+    }
+
+    public <T> T call(Supplier<T> transaction) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transaction.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.get();
+            } catch (PessimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    exhaustedCounter.increment();
+                    throw new InventoryLockedException(
+                        "Inventory is busy with concurrent updates. Please retry shortly.", ex);
+                }
+                retryCounter.increment();
+                long delay = backoff(attempt);
+                log.debug("Row lock lost (attempt {}/{}), retrying in {} ms: {}",
+                    attempt, maxAttempts, delay, ex.getMessage());
+                sleep(delay);
+            }
+        }
+    }
+
+    long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, backoffMs << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InventoryLockedException("Interrupted while waiting to retry", e);
+        }
+    }
+}
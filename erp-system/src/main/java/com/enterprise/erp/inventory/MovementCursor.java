@@ -0,0 +1,50 @@
+package com.enterprise.erp.inventory;
+
+import com.enterprise.erp.entity.InventoryMovement;
+import com.enterprise.erp.exception.BusinessValidationException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * KEYSET POSITION IN THE MOVEMENT AUDIT TRAIL - "createdAt,id" of the last row seen.
+ *
+ * The trail is read newest first, ordered by (created_at, id) descending: the next
+ * slice starts strictly after this position, so each slice costs one index range
+ * scan of the slice size, however deep the reader has scrolled.
+ */
+public record MovementCursor(LocalDateTime createdAt, Long id) {
+
+    /**
+     * Position before the newest movement (first slice).
+     */
+    public static final MovementCursor START = new MovementCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+    public static MovementCursor of(InventoryMovement movement) {
+        return new MovementCursor(movement.getCreatedAt(), movement.getId());
+    }
+
+    /**
+     * Parses "createdAt,id" (ISO local date-time); null or blank means {@link #START}.
+     */
+    public static MovementCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return START;
+        }
+        int comma = value.lastIndexOf(',');
+        if (comma < 0) {
+            throw new BusinessValidationException("Invalid cursor '" + value + "': expected createdAt,id");
+        }
+        try {
+            return new MovementCursor(LocalDateTime.parse(value.substring(0, comma).trim()),
+                Long.parseLong(value.substring(comma + 1).trim()));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new BusinessValidationException("Invalid cursor '" + value + "': expected createdAt,id");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return createdAt + "," + id;
+    }
+}
@@ -0,0 +1,211 @@
+package com.enterprise.erp.inventory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * MONTHLY PARTITIONS OF inventory_movements (PostgreSQL, see V5 migration)
+ *
+ * - Creates the partitions for the coming months ahead of time, so inserts never
+ *   land in the default partition.
+ * - Drains the default partition: rows that landed there anyway (maintenance down
+ *   longer than months-ahead, a skewed clock) are moved into the partition of their
+ *   month, which is created for them. PostgreSQL refuses to create a partition whose
+ *   range still has rows in the default, so this also keeps creation from failing.
+ *   Rows left behind (months before the retention horizon) are reported as
+ *   erp.inventory.movements.default-partition.rows and logged as errors.
+ * - Detaches partitions older than the retention horizon and moves them into the
+ *   archive schema: the audit trail is kept, but dashboard and range queries no
+ *   longer plan or scan them.
+ *
+ * No-op when the table is not partitioned (e.g. H2 in tests, or before V5 ran).
+ */
+@Component
+@Slf4j
+public class MovementPartitionMaintenance {
+
+    static final String PARENT = "inventory_movements";
+    private static final Pattern PARTITION_NAME = Pattern.compile("inventory_movements_(\\d{4})_(\\d{2})");
+    static final String DEFAULT = PARENT + "_default";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicLong defaultRows = new AtomicLong();
+
+    @Value("${app.inventory.movements.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.inventory.movements.partitions.retention-months:24}")
+    private int retentionMonths;
+
+    @Value("${app.inventory.movements.partitions.archive-schema:movements_archive}")
+    private String archiveSchema;
+
+    private volatile Boolean partitioned;
+
+    public MovementPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        meterRegistry.gauge("erp.inventory.movements.default-partition.rows", defaultRows);
+    }
+
+    /**
+     * Creates missing partitions from the current month up to {@code months-ahead}, and
+     * for every month within retention that has rows in the default partition.
+     * Returns the number of partitions created.
+     */
+    public int createFuturePartitions() {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        List<String> existing = attachedPartitions();
+        boolean hasDefault = existing.contains(DEFAULT);
+        YearMonth current = YearMonth.now();
+        YearMonth horizon = current.minusMonths(retentionMonths);
+        TreeSet<YearMonth> months = new TreeSet<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            months.add(current.plusMonths(i));
+        }
+        if (hasDefault) {
+            for (LocalDate month : jdbcTemplate.queryForList(
+                    "SELECT DISTINCT CAST(date_trunc('month', created_at) AS DATE) FROM " + DEFAULT, LocalDate.class)) {
+                if (!YearMonth.from(month).isBefore(horizon)) {
+                    months.add(YearMonth.from(month));
+                }
+            }
+        }
+
+        int created = 0;
+        for (YearMonth month : months) {
+            String name = partitionName(month);
+            if (existing.contains(name)) {
+                continue;
+            }
+            // One failed month must not keep the later ones from being created
+            try {
+                createPartition(month, name, hasDefault);
+                created++;
+            } catch (RuntimeException e) {
+                log.error("Could not create movement partition {}: {}", name, e.getMessage());
+            }
+        }
+        if (hasDefault) {
+            checkDefaultPartition();
+        }
+        return created;
+    }
+
+    /**
+     * Creates the partition of a month in one transaction. Rows of that month in the
+     * default partition are moved into it: the default is detached while the partition
+     * is created and filled, then reattached.
+     */
+    private void createPartition(YearMonth month, String name, boolean hasDefault) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        String create = String.format(
+            "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')", name, PARENT, from, to);
+        String range = String.format("created_at >= '%s' AND created_at < '%s'", from, to);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Long stranded = hasDefault
+                ? jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + DEFAULT + " WHERE " + range, Long.class)
+                : null;
+            if (stranded == null || stranded == 0) {
+                jdbcTemplate.execute(create);
+                log.info("Created movement partition {}", name);
+                return;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + DEFAULT);
+            jdbcTemplate.execute(create);
+            jdbcTemplate.execute("INSERT INTO " + name + " SELECT * FROM " + DEFAULT + " WHERE " + range);
+            jdbcTemplate.execute("DELETE FROM " + DEFAULT + " WHERE " + range);
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + DEFAULT + " DEFAULT");
+            log.warn("Created movement partition {} and moved {} rows into it from {}", name, stranded, DEFAULT);
+        });
+    }
+
+    private void checkDefaultPartition() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + DEFAULT, Long.class);
+        defaultRows.set(rows != null ? rows : 0);
+        if (defaultRows.get() > 0) {
+            log.error("{} still holds {} movement rows outside every monthly partition", DEFAULT, rows);
+        }
+    }
+
+    /**
+     * Detaches partitions whose whole month lies before the retention horizon and
+     * moves them to the archive schema. Returns the number of partitions archived.
+     */
+    public int archiveExpiredPartitions() {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        YearMonth horizon = YearMonth.now().minusMonths(retentionMonths);
+        int archived = 0;
+        for (String name : attachedPartitions()) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (!matcher.matches()) {
+                continue;   // default partition
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!month.isBefore(horizon)) {
+                continue;
+            }
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + name);
+            jdbcTemplate.execute("ALTER TABLE " + name + " SET SCHEMA " + archiveSchema);
+            log.info("Archived movement partition {} to schema {}", name, archiveSchema);
+            archived++;
+        }
+        return archived;
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARENT + "_" + month.atDay(1).format(SUFFIX);
+    }
+
+    private List<String> attachedPartitions() {
+        return jdbcTemplate.queryForList("""
+            SELECT c.relname FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = ?
+            ORDER BY c.relname
+            """, String.class, PARENT);
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            partitioned = "PostgreSQL".equalsIgnoreCase(product) && Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt
+                               JOIN pg_class c ON c.oid = pt.partrelid
+                               WHERE c.relname = ?)
+                """, Boolean.class, PARENT));
+            if (!partitioned) {
+                log.info("{} is not partitioned; partition maintenance disabled", PARENT);
+            }
+        }
+        return partitioned;
+    }
+}
@@ -0,0 +1,17 @@
+package com.enterprise.erp.inventory;
+
+/**
+ * How {@code InventoryService} reserves and releases stock.
+ * Selected per deployment with {@code app.inventory.reservation-mode}.
+ */
+public enum ReservationMode {
+
+    /** SELECT ... FOR UPDATE on the inventory row (default). */
+    LOCK,
+
+    /** In-memory ATP ledger with asynchronous write-back, see {@link AvailableToPromiseLedger}. */
+    LEDGER,
+
+    /** One guarded UPDATE per reservation, no SELECT ... FOR UPDATE, see {@link ConditionalReservation}. */
+    CONDITIONAL
+}
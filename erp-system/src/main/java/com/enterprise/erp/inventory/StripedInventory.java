@@ -0,0 +1,342 @@
+package com.enterprise.erp.inventory;
+
+import com.enterprise.erp.entity.Inventory;
+import com.enterprise.erp.entity.InventoryStripe;
+import com.enterprise.erp.entity.Product;
+import com.enterprise.erp.exception.BusinessValidationException;
+import com.enterprise.erp.exception.InsufficientStockException;
+import com.enterprise.erp.repository.InventoryRepository;
+import com.enterprise.erp.repository.InventoryStripeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * STRIPED INVENTORY FOR HOT SKUs (reservation-mode = LOCK)
+ *
+ * A product opts in with {@code Product.inventoryStripes > 1}. Its stock per warehouse
+ * is then split across N inventory_stripes rows so concurrent orders lock different
+ * stripes instead of queueing on one inventory row.
+ *
+ * Fast path: one SELECT ... FOR UPDATE SKIP LOCKED picks a stripe that can absorb the
+ * change, starting at a random index. Slow path (no single stripe can, or all are busy):
+ * lock every stripe in index order, apply the change to the totals and spread stock
+ * evenly again - this is also how a stripe that ran dry gets refilled.
+ *
+ * The inventory row stays the read model: a scheduled rollup copies stripe totals into
+ * it, so InventoryResponse and analytics keep reading aggregate stock.
+ */
+@Component
+@Slf4j
+public class StripedInventory {
+
+    private final InventoryStripeRepository stripeRepository;
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.inventory.reservation-mode:LOCK}")
+    private ReservationMode reservationMode;
+
+    // (product, warehouse) -> stripe count. Only a routing hint: inventory.stripe_count is authoritative
+    private volatile Map<Key, Integer> stripedKeys = Map.of();
+
+    private final Counter fastPathCounter;
+    private final Counter rebalanceCounter;
+
+    public StripedInventory(InventoryStripeRepository stripeRepository,
+                            InventoryRepository inventoryRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.stripeRepository = stripeRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fastPathCounter = meterRegistry.counter("erp.inventory.stripes.operations", "path", "fast");
+        this.rebalanceCounter = meterRegistry.counter("erp.inventory.stripes.operations", "path", "rebalance");
+    }
+
+    record Key(Long productId, Long warehouseId) {}
+
+    record Totals(int quantity, int reserved) {}
+
+    @FunctionalInterface
+    private interface TotalsChange {
+        Totals apply(Totals current, Product product);
+    }
+
+    public boolean isStriped(Long productId, Long warehouseId) {
+        return stripedKeys.containsKey(new Key(productId, warehouseId));
+    }
+
+    // ================================================================
+    // STOCK OPERATIONS - run in the caller's transaction.
+    // Each returns the aggregate on-hand quantity after the change, or
+    // empty when the product/warehouse has no stripes (use the row).
+    // ================================================================
+
+    public OptionalInt reserve(Long productId, Long warehouseId, int quantity) {
+        Optional<InventoryStripe> stripe = pick(productId, warehouseId, quantity, 0);
+        if (stripe.isPresent()) {
+            stripe.get().setReservedQuantity(stripe.get().getReservedQuantity() + quantity);
+            return onHand(productId, warehouseId);
+        }
+        return rebalance(productId, warehouseId, (current, product) -> {
+            int available = current.quantity() - current.reserved();
+            if (available < quantity) {
+                throw new InsufficientStockException(product.getSku(), quantity, available);
+            }
+            return new Totals(current.quantity(), current.reserved() + quantity);
+        });
+    }
+
+    public OptionalInt release(Long productId, Long warehouseId, int quantity) {
+        Optional<InventoryStripe> stripe = pick(productId, warehouseId, 0, quantity);
+        if (stripe.isPresent()) {
+            stripe.get().setReservedQuantity(stripe.get().getReservedQuantity() - quantity);
+            return onHand(productId, warehouseId);
+        }
+        return rebalance(productId, warehouseId, (current, product) ->
+            new Totals(current.quantity(), Math.max(0, current.reserved() - quantity)));
+    }
+
+    public OptionalInt deduct(Long productId, Long warehouseId, int quantity) {
+        // A stripe holding the reservation also holds the units (reserved <= quantity)
+        Optional<InventoryStripe> stripe = pick(productId, warehouseId, 0, quantity);
+        if (stripe.isPresent()) {
+            stripe.get().setQuantity(stripe.get().getQuantity() - quantity);
+            stripe.get().setReservedQuantity(stripe.get().getReservedQuantity() - quantity);
+            return onHand(productId, warehouseId);
+        }
+        return rebalance(productId, warehouseId, (current, product) -> {
+            if (current.quantity() < quantity) {
+                throw new InsufficientStockException(product.getSku(), quantity, current.quantity());
+            }
+            return new Totals(current.quantity() - quantity, Math.max(0, current.reserved() - quantity));
+        });
+    }
+
+    public OptionalInt add(Long productId, Long warehouseId, int quantity) {
+        Optional<InventoryStripe> stripe = pick(productId, warehouseId, 0, 0);
+        if (stripe.isPresent()) {
+            stripe.get().setQuantity(stripe.get().getQuantity() + quantity);
+            return onHand(productId, warehouseId);
+        }
+        return rebalance(productId, warehouseId, (current, product) ->
+            new Totals(current.quantity() + quantity, current.reserved()));
+    }
+
+    /**
+     * Manual adjustment of a striped row the caller already locked: rebalances the
+     * stripes and copies the new totals into the row right away. False if not striped.
+     */
+    public boolean adjust(Inventory row, int delta) {
+        Optional<Totals> after = rebalanceTotals(row.getProduct().getId(), row.getWarehouse().getId(),
+            (current, product) -> {
+                int newQty = current.quantity() + delta;
+                if (newQty < 0) {
+                    throw new BusinessValidationException(
+                        "Adjustment would result in negative inventory. Current: "
+                        + current.quantity() + ", Delta: " + delta);
+                }
+                return new Totals(newQty, Math.min(current.reserved(), newQty));
+            });
+        after.ifPresent(totals -> {
+            row.setQuantity(totals.quantity());
+            row.setReservedQuantity(totals.reserved());
+        });
+        return after.isPresent();
+    }
+
+    /**
+     * Stock count of a striped row the caller already locked: sets the on-hand total to
+     * {@code quantity} (reserved capped at it) and copies the new totals into the row.
+     * Returns the on-hand total before the count, or empty if not striped.
+     */
+    public OptionalInt count(Inventory row, int quantity) {
+        int[] before = new int[1];
+        Optional<Totals> after = rebalanceTotals(row.getProduct().getId(), row.getWarehouse().getId(),
+            (current, product) -> {
+                before[0] = current.quantity();
+                return new Totals(quantity, Math.min(current.reserved(), quantity));
+            });
+        after.ifPresent(totals -> {
+            row.setQuantity(totals.quantity());
+            row.setReservedQuantity(totals.reserved());
+        });
+        return after.isPresent() ? OptionalInt.of(before[0]) : OptionalInt.empty();
+    }
+
+    // ================================================================
+    // RESTRIPE (called when Product.inventoryStripes changes)
+    // ================================================================
+
+    /**
+     * Splits every inventory row of the product into {@code stripeCount} stripes, or folds
+     * the stripes back into the row when the count is 1 or null. Locks rows before stripes,
+     * the same order as the reservation paths.
+     */
+    public void restripe(Long productId, Integer stripeCount) {
+        int count = stripeCount == null ? 1 : stripeCount;
+        if (count > 1 && reservationMode == ReservationMode.LEDGER) {
+            throw new BusinessValidationException(
+                "Inventory striping is not available with reservation-mode LEDGER");
+        }
+        for (Inventory row : inventoryRepository.findByProductForUpdate(productId)) {
+            restripe(row, count);
+        }
+    }
+
+    /**
+     * Restripes one inventory row the caller already locked (or just created).
+     */
+    public void restripe(Inventory row, int count) {
+        Long productId = row.getProduct().getId();
+        Long warehouseId = row.getWarehouse().getId();
+        List<InventoryStripe> stripes = stripeRepository.findAllForUpdate(productId, warehouseId);
+        Totals totals = stripes.isEmpty()
+            ? new Totals(row.getQuantity(), row.getReservedQuantity())
+            : totals(stripes);
+
+        List<InventoryStripe> kept = new ArrayList<>(count);
+        List<InventoryStripe> removed = new ArrayList<>();
+        for (InventoryStripe stripe : stripes) {
+            (count > 1 && stripe.getStripeIndex() < count ? kept : removed).add(stripe);
+        }
+        for (int index = kept.size(); count > 1 && index < count; index++) {
+            kept.add(InventoryStripe.builder()
+                .product(row.getProduct())
+                .warehouse(row.getWarehouse())
+                .stripeIndex(index)
+                .quantity(0)
+                .reservedQuantity(0)
+                .build());
+        }
+
+        stripeRepository.deleteAll(removed);
+        if (!kept.isEmpty()) {
+            redistribute(kept, totals);
+            stripeRepository.saveAll(kept);
+        }
+
+        row.setStripeCount(count > 1 ? count : null);
+        row.setQuantity(totals.quantity());
+        row.setReservedQuantity(totals.reserved());
+        log.info("Restriped product {} in warehouse {} into {} stripe(s)", productId, warehouseId, count);
+        afterCommit(this::refreshStripedKeys);
+    }
+
+    // ================================================================
+    // BACKGROUND: routing hint refresh + rollup into inventory rows
+    // ================================================================
+
+    @Scheduled(fixedDelayString = "${app.inventory.stripes.refresh-interval-ms:60000}")
+    public void refreshStripedKeys() {
+        Map<Key, Integer> keys = new HashMap<>();
+        for (Object[] row : stripeRepository.findStripedKeys()) {
+            keys.put(new Key((Long) row[0], (Long) row[1]), ((Number) row[2]).intValue());
+        }
+        stripedKeys = Map.copyOf(keys);
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.stripes.rollup-interval-ms:1000}")
+    public void rollUp() {
+        if (stripedKeys.isEmpty()) {
+            return;
+        }
+        Integer updated = transactionTemplate.execute(status -> inventoryRepository.rollUpStripes());
+        if (updated != null && updated > 0) {
+            log.debug("Rolled up stripes into {} inventory row(s)", updated);
+        }
+    }
+
+    // ================================================================
+    // INTERNALS
+    // ================================================================
+
+    private Optional<InventoryStripe> pick(Long productId, Long warehouseId, int minAvailable, int minReserved) {
+        int stripeCount = stripedKeys.getOrDefault(new Key(productId, warehouseId), 1);
+        List<InventoryStripe> candidates = stripeRepository.findUsableStripeSkipLocked(
+            productId, warehouseId, minAvailable, minReserved,
+            ThreadLocalRandom.current().nextInt(stripeCount), stripeCount, PageRequest.of(0, 1));
+        if (candidates.isEmpty()) {
+            return Optional.empty();
+        }
+        fastPathCounter.increment();
+        return Optional.of(candidates.get(0));
+    }
+
+    private OptionalInt rebalance(Long productId, Long warehouseId, TotalsChange change) {
+        return rebalanceTotals(productId, warehouseId, change)
+            .map(totals -> OptionalInt.of(totals.quantity()))
+            .orElse(OptionalInt.empty());
+    }
+
+    private Optional<Totals> rebalanceTotals(Long productId, Long warehouseId, TotalsChange change) {
+        List<InventoryStripe> stripes = stripeRepository.findAllForUpdate(productId, warehouseId);
+        if (stripes.isEmpty()) {
+            return Optional.empty();
+        }
+        Totals after = change.apply(totals(stripes), stripes.get(0).getProduct());
+        redistribute(stripes, after);
+        rebalanceCounter.increment();
+        return Optional.of(after);
+    }
+
+    private OptionalInt onHand(Long productId, Long warehouseId) {
+        // JPQL aggregate: auto-flushes the pending stripe update first
+        return OptionalInt.of(stripeRepository.sumQuantity(productId, warehouseId));
+    }
+
+    static Totals totals(List<InventoryStripe> stripes) {
+        int quantity = 0;
+        int reserved = 0;
+        for (InventoryStripe stripe : stripes) {
+            quantity += stripe.getQuantity();
+            reserved += stripe.getReservedQuantity();
+        }
+        return new Totals(quantity, reserved);
+    }
+
+    /**
+     * Spreads reserved and free units evenly; remainders go to the lowest indexes.
+     */
+    static void redistribute(List<InventoryStripe> stripes, Totals totals) {
+        int n = stripes.size();
+        int free = totals.quantity() - totals.reserved();
+        for (int i = 0; i < n; i++) {
+            int reserved = totals.reserved() / n + (i < totals.reserved() % n ? 1 : 0);
+            int available = free / n + (i < free % n ? 1 : 0);
+            InventoryStripe stripe = stripes.get(i);
+            stripe.setReservedQuantity(reserved);
+            stripe.setQuantity(reserved + available);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
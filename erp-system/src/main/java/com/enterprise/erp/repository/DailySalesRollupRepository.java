@@ -0,0 +1,42 @@
+package com.enterprise.erp.repository;
+
+import com.enterprise.erp.entity.DailySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reads over daily_sales_rollup: at most (days x warehouses x statuses) rows per range,
+ * independent of the number of orders.
+ */
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, Long> {
+
+    /**
+     * Per-day order count and revenue of non-cancelled orders since {@code since}
+     * (same row shape as the former GROUP BY DATE(created_at) over sales_orders).
+     */
+    @Query("""
+        SELECT r.rollupDate, SUM(r.orderCount), SUM(r.revenue)
+        FROM DailySalesRollup r
+        WHERE r.status <> com.enterprise.erp.entity.enums.SalesOrderStatus.CANCELLED
+          AND r.rollupDate >= :since
+        GROUP BY r.rollupDate
+        HAVING SUM(r.orderCount) > 0
+        ORDER BY r.rollupDate DESC
+        """)
+    List<Object[]> getDailyOrderStats(@Param("since") LocalDate since);
+
+    @Query("""
+        SELECT COALESCE(SUM(r.revenue), 0)
+        FROM DailySalesRollup r
+        WHERE r.status <> com.enterprise.erp.entity.enums.SalesOrderStatus.CANCELLED
+          AND r.rollupDate BETWEEN :from AND :to
+        """)
+    BigDecimal getTotalRevenue(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
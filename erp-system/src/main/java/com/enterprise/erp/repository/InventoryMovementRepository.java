@@ -5,6 +5,7 @@ import com.enterprise.erp.entity.enums.MovementType;
 import com.enterprise.erp.entity.enums.ReferenceType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,8 +21,73 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
 
     Page<InventoryMovement> findByWarehouseId(Long warehouseId, Pageable pageable);
 
+    /**
+     * Paged audit trail with product and warehouse fetch-joined (mapped outside the
+     * session by InventoryController); the count query does not join.
+     */
+    @Query(value = "SELECT im FROM InventoryMovement im JOIN FETCH im.product JOIN FETCH im.warehouse",
+           countQuery = "SELECT COUNT(im) FROM InventoryMovement im")
+    Page<InventoryMovement> findPage(Pageable pageable);
+
+    @Query(value = """
+        SELECT im FROM InventoryMovement im JOIN FETCH im.product JOIN FETCH im.warehouse
+        WHERE im.product.id = :productId
+        """,
+           countQuery = "SELECT COUNT(im) FROM InventoryMovement im WHERE im.product.id = :productId")
+    Page<InventoryMovement> findPageByProductId(@Param("productId") Long productId, Pageable pageable);
+
+    // ---- KEYSET SLICES (newest first, see MovementCursor) ----
+    // Rows strictly after the cursor in (created_at, id) descending order. The bare
+    // created_at <= :createdAt conjunct bounds the index range scan and prunes partitions;
+    // the OR only breaks ties within the same created_at. No count query.
+
+    @Query("""
+        SELECT im FROM InventoryMovement im JOIN FETCH im.product JOIN FETCH im.warehouse
+        WHERE im.createdAt <= :createdAt
+          AND (im.createdAt < :createdAt OR im.id < :id)
+        ORDER BY im.createdAt DESC, im.id DESC
+        """)
+    Slice<InventoryMovement> findSliceAfter(
+        @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("""
+        SELECT im FROM InventoryMovement im JOIN FETCH im.product JOIN FETCH im.warehouse
+        WHERE im.product.id = :productId
+          AND im.createdAt <= :createdAt
+          AND (im.createdAt < :createdAt OR im.id < :id)
+        ORDER BY im.createdAt DESC, im.id DESC
+        """)
+    Slice<InventoryMovement> findSliceByProductAfter(@Param("productId") Long productId,
+        @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("""
+        SELECT im FROM InventoryMovement im JOIN FETCH im.product JOIN FETCH im.warehouse
+        WHERE im.warehouse.id = :warehouseId
+          AND im.createdAt <= :createdAt
+          AND (im.createdAt < :createdAt OR im.id < :id)
+        ORDER BY im.createdAt DESC, im.id DESC
+        """)
+    Slice<InventoryMovement> findSliceByWarehouseAfter(@Param("warehouseId") Long warehouseId,
+        @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("""
+        SELECT im FROM InventoryMovement im JOIN FETCH im.product JOIN FETCH im.warehouse
+        WHERE im.product.id = :productId
+          AND im.warehouse.id = :warehouseId
+          AND im.createdAt <= :createdAt
+          AND (im.createdAt < :createdAt OR im.id < :id)
+        ORDER BY im.createdAt DESC, im.id DESC
+        """)
+    Slice<InventoryMovement> findSliceByProductAndWarehouseAfter(@Param("productId") Long productId,
+        @Param("warehouseId") Long warehouseId,
+        @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
     List<InventoryMovement> findByReferenceTypeAndReferenceId(ReferenceType referenceType, Long referenceId);
 
+    /**
+     * inventory_movements is range-partitioned by month on created_at: keep the
+     * created_at predicates bare (no functions, no OR) so PostgreSQL prunes partitions.
+     */
     @Query("""
         SELECT im FROM InventoryMovement im
         JOIN FETCH im.product
@@ -36,6 +102,27 @@ public interface InventoryMovementRepository extends JpaRepository<InventoryMove
         @Param("to") LocalDateTime to
     );
 
+    /**
+     * Sum of ATP ledger journal entries not yet folded into the inventory row, created
+     * at or after its ledger_journal_since. RESERVATION rows are negative, RELEASE rows positive.
+     */
+    @Query("""
+        SELECT COALESCE(SUM(im.quantity), 0)
+        FROM InventoryMovement im
+        WHERE im.product.id = :productId
+          AND im.warehouse.id = :warehouseId
+          AND im.movementType IN (com.enterprise.erp.entity.enums.MovementType.RESERVATION,
+                                  com.enterprise.erp.entity.enums.MovementType.RELEASE)
+          AND im.id > :afterId
+          AND im.createdAt >= :since
+        """)
+    long sumLedgerJournalAfter(
+        @Param("productId") Long productId,
+        @Param("warehouseId") Long warehouseId,
+        @Param("afterId") long afterId,
+        @Param("since") LocalDateTime since
+    );
+
     @Query("""
         SELECT im.product.id, SUM(ABS(im.quantity))
         FROM InventoryMovement im
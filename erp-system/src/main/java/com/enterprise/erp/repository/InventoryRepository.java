@@ -2,6 +2,8 @@ package com.enterprise.erp.repository;
 
 import com.enterprise.erp.entity.Inventory;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
@@ -9,6 +11,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +33,37 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
         @Param("warehouseId") Long warehouseId
     );
 
+    /**
+     * PESSIMISTIC WRITE LOCK on every requested row of one warehouse in a single statement.
+     * Rows are locked in product id order, so concurrent multi-line reservations that
+     * share SKUs always acquire their locks in the same sequence and cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT i FROM Inventory i
+        WHERE i.warehouse.id = :warehouseId
+          AND i.product.id IN :productIds
+        ORDER BY i.product.id
+        """)
+    List<Inventory> findByWarehouseAndProductsForUpdate(
+        @Param("warehouseId") Long warehouseId,
+        @Param("productIds") Collection<Long> productIds
+    );
+
+    /**
+     * PESSIMISTIC WRITE LOCK on every warehouse row of one product, in warehouse id order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.product.id = :productId ORDER BY i.warehouse.id")
+    List<Inventory> findByProductForUpdate(@Param("productId") Long productId);
+
+    /**
+     * Paged list with product and warehouse fetch-joined; the count query does not join.
+     */
+    @Query(value = "SELECT i FROM Inventory i JOIN FETCH i.product JOIN FETCH i.warehouse",
+           countQuery = "SELECT COUNT(i) FROM Inventory i")
+    Page<Inventory> findPage(Pageable pageable);
+
     @Query("SELECT i FROM Inventory i JOIN FETCH i.product JOIN FETCH i.warehouse WHERE i.warehouse.id = :warehouseId")
     List<Inventory> findByWarehouseIdWithDetails(@Param("warehouseId") Long warehouseId);
 
@@ -46,6 +82,75 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     @Query("SELECT i FROM Inventory i JOIN FETCH i.product JOIN FETCH i.warehouse WHERE i.product.id = :productId")
     List<Inventory> findByProductIdWithDetails(@Param("productId") Long productId);
 
+    /**
+     * SUM(quantity * cost_price) over rows that hold their own stock; striped rows
+     * are valued from inventory_stripes (see InventoryStripeRepository.sumValuation).
+     */
+    @Query("""
+        SELECT COALESCE(SUM(i.quantity * p.costPrice), 0)
+        FROM Inventory i JOIN i.product p
+        WHERE i.stripeCount IS NULL
+        """)
+    BigDecimal sumUnstripedValuation();
+
+    @Query("SELECT COALESCE(SUM(i.quantity), 0) FROM Inventory i WHERE i.product.id = :productId")
+    long sumQuantityByProduct(@Param("productId") Long productId);
+
+    /**
+     * ATP ledger write-back. Folds every journalled RESERVATION/RELEASE movement with
+     * ledger_watermark < id <= :upTo into reserved_quantity and advances the watermark
+     * in the same statement, so a crash can never apply a movement twice or lose one.
+     * The journal is read from ledger_journal_since on (bare created_at bound, so older
+     * movement partitions are pruned), and :since becomes the bound of the next fold.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE inventory SET
+            reserved_quantity = GREATEST(0, LEAST(quantity, reserved_quantity - COALESCE((
+                SELECT SUM(m.quantity) FROM inventory_movements m
+                WHERE m.product_id = inventory.product_id
+                  AND m.warehouse_id = inventory.warehouse_id
+                  AND m.movement_type IN ('RESERVATION', 'RELEASE')
+                  AND m.id > COALESCE(inventory.ledger_watermark, 0)
+                  AND m.id <= :upTo
+                  AND m.created_at >= COALESCE(inventory.ledger_journal_since, TIMESTAMP '1970-01-01 00:00:00')), 0))),
+            ledger_watermark = :upTo,
+            ledger_journal_since = :since,
+            version = version + 1,
+            last_updated = CURRENT_TIMESTAMP
+        WHERE product_id = :productId
+          AND warehouse_id = :warehouseId
+          AND COALESCE(ledger_watermark, 0) < :upTo
+        """, nativeQuery = true)
+    int foldLedgerJournal(
+        @Param("productId") Long productId,
+        @Param("warehouseId") Long warehouseId,
+        @Param("upTo") long upTo,
+        @Param("since") LocalDateTime since
+    );
+
+    /**
+     * Rolls inventory_stripes up into their striped inventory rows so reads and
+     * analytics see aggregate stock. Only rows whose totals drifted are touched.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE inventory SET
+            quantity = (SELECT SUM(s.quantity) FROM inventory_stripes s
+                        WHERE s.product_id = inventory.product_id AND s.warehouse_id = inventory.warehouse_id),
+            reserved_quantity = (SELECT SUM(s.reserved_quantity) FROM inventory_stripes s
+                        WHERE s.product_id = inventory.product_id AND s.warehouse_id = inventory.warehouse_id),
+            version = version + 1,
+            last_updated = CURRENT_TIMESTAMP
+        WHERE stripe_count IS NOT NULL
+          AND EXISTS (SELECT 1 FROM inventory_stripes s
+                      WHERE s.product_id = inventory.product_id AND s.warehouse_id = inventory.warehouse_id
+                      GROUP BY s.product_id, s.warehouse_id
+                      HAVING SUM(s.quantity) <> inventory.quantity
+                          OR SUM(s.reserved_quantity) <> inventory.reserved_quantity)
+        """, nativeQuery = true)
+    int rollUpStripes();
+
     /**
      * Bulk update available quantity - for batch operations.
      */
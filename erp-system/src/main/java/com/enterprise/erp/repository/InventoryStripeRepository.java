@@ -0,0 +1,74 @@
+package com.enterprise.erp.repository;
+
+import com.enterprise.erp.entity.InventoryStripe;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface InventoryStripeRepository extends JpaRepository<InventoryStripe, Long> {
+
+    /**
+     * Hot path stripe pick: SELECT ... FOR UPDATE SKIP LOCKED (lock timeout -2).
+     * Returns stripes that can absorb the change, starting at a rotated index so
+     * concurrent callers spread across stripes; stripes held by other transactions are skipped.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT s FROM InventoryStripe s
+        WHERE s.product.id = :productId
+          AND s.warehouse.id = :warehouseId
+          AND s.quantity - s.reservedQuantity >= :minAvailable
+          AND s.reservedQuantity >= :minReserved
+        ORDER BY MOD(s.stripeIndex + :rotation, :stripeCount)
+        """)
+    List<InventoryStripe> findUsableStripeSkipLocked(
+        @Param("productId") Long productId,
+        @Param("warehouseId") Long warehouseId,
+        @Param("minAvailable") int minAvailable,
+        @Param("minReserved") int minReserved,
+        @Param("rotation") int rotation,
+        @Param("stripeCount") int stripeCount,
+        Pageable pageable
+    );
+
+    /**
+     * PESSIMISTIC WRITE LOCK on every stripe of a product/warehouse, in stripe order.
+     * Used for rebalancing and restriping; the fixed order keeps these paths deadlock-free.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT s FROM InventoryStripe s
+        WHERE s.product.id = :productId AND s.warehouse.id = :warehouseId
+        ORDER BY s.stripeIndex
+        """)
+    List<InventoryStripe> findAllForUpdate(
+        @Param("productId") Long productId,
+        @Param("warehouseId") Long warehouseId
+    );
+
+    @Query("""
+        SELECT COALESCE(SUM(s.quantity), 0) FROM InventoryStripe s
+        WHERE s.product.id = :productId AND s.warehouse.id = :warehouseId
+        """)
+    int sumQuantity(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId);
+
+    @Query("SELECT COALESCE(SUM(s.quantity * p.costPrice), 0) FROM InventoryStripe s JOIN s.product p")
+    BigDecimal sumValuation();
+
+    /**
+     * (productId, warehouseId, stripe count) for every striped inventory row.
+     */
+    @Query("SELECT s.product.id, s.warehouse.id, COUNT(s) FROM InventoryStripe s GROUP BY s.product.id, s.warehouse.id")
+    List<Object[]> findStripedKeys();
+}
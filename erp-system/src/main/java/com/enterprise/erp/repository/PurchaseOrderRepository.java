@@ -21,6 +21,14 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Lo
 
     Page<PurchaseOrder> findByStatus(PurchaseOrderStatus status, Pageable pageable);
 
+    // ---- PAGED LISTS ----
+    // To-one associations are fetch-joined; items and their products are loaded in
+    // batches (hibernate.default_batch_fetch_size). The count query does not join.
+
+    @Query(value = "SELECT po FROM PurchaseOrder po JOIN FETCH po.supplier JOIN FETCH po.warehouse",
+           countQuery = "SELECT COUNT(po) FROM PurchaseOrder po")
+    Page<PurchaseOrder> findPage(Pageable pageable);
+
     @Query("SELECT po FROM PurchaseOrder po JOIN FETCH po.items i JOIN FETCH i.product WHERE po.id = :id")
     Optional<PurchaseOrder> findByIdWithItems(@Param("id") Long id);
 
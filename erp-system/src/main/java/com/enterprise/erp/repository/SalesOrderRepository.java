@@ -9,7 +9,6 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +20,21 @@ public interface SalesOrderRepository extends JpaRepository<SalesOrder, Long> {
 
     Page<SalesOrder> findByStatus(SalesOrderStatus status, Pageable pageable);
 
+    // ---- PAGED LISTS ----
+    // To-one associations are fetch-joined; items and their products are loaded in
+    // batches (hibernate.default_batch_fetch_size). Count queries do not join.
+
+    @Query(value = "SELECT so FROM SalesOrder so JOIN FETCH so.customer JOIN FETCH so.warehouse",
+           countQuery = "SELECT COUNT(so) FROM SalesOrder so")
+    Page<SalesOrder> findPage(Pageable pageable);
+
+    @Query(value = """
+        SELECT so FROM SalesOrder so JOIN FETCH so.customer JOIN FETCH so.warehouse
+        WHERE so.status = :status
+        """,
+           countQuery = "SELECT COUNT(so) FROM SalesOrder so WHERE so.status = :status")
+    Page<SalesOrder> findPageByStatus(@Param("status") SalesOrderStatus status, Pageable pageable);
+
     Page<SalesOrder> findByCustomerId(Long customerId, Pageable pageable);
 
     @Query("SELECT so FROM SalesOrder so JOIN FETCH so.items i JOIN FETCH i.product WHERE so.id = :id")
@@ -28,16 +42,6 @@ public interface SalesOrderRepository extends JpaRepository<SalesOrder, Long> {
 
     // ---- ANALYTICS QUERIES ----
 
-    @Query("""
-        SELECT FUNCTION('DATE', so.createdAt), COUNT(so), SUM(so.totalAmount)
-        FROM SalesOrder so
-        WHERE so.status NOT IN ('CANCELLED')
-          AND so.createdAt >= :since
-        GROUP BY FUNCTION('DATE', so.createdAt)
-        ORDER BY FUNCTION('DATE', so.createdAt) DESC
-        """)
-    List<Object[]> getDailyOrderStats(@Param("since") LocalDateTime since);
-
     @Query("""
         SELECT so.status, COUNT(so)
         FROM SalesOrder so
@@ -45,13 +49,8 @@ public interface SalesOrderRepository extends JpaRepository<SalesOrder, Long> {
         """)
     List<Object[]> getOrderStatusDistribution();
 
-    @Query("""
-        SELECT SUM(so.totalAmount)
-        FROM SalesOrder so
-        WHERE so.status NOT IN ('CANCELLED')
-          AND so.createdAt BETWEEN :from AND :to
-        """)
-    BigDecimal getTotalRevenue(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    @Query("SELECT MIN(so.createdAt) FROM SalesOrder so")
+    Optional<LocalDateTime> findEarliestCreatedAt();
 
     @Query("""
         SELECT so FROM SalesOrder so
@@ -1,26 +1,47 @@
 package com.enterprise.erp.scheduler;
 
+import com.enterprise.erp.analytics.DashboardSnapshotCache;
+import com.enterprise.erp.datasource.RoutedTo;
+import com.enterprise.erp.datasource.Workload;
 import com.enterprise.erp.entity.Inventory;
 import com.enterprise.erp.entity.SalesOrder;
+import com.enterprise.erp.inventory.MovementPartitionMaintenance;
 import com.enterprise.erp.repository.InventoryRepository;
 import com.enterprise.erp.repository.SalesOrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Scheduled scans and maintenance, on the batch connection pool (dashboard refreshes
+ * still query through AnalyticsService, on the analytics pool).
+ */
 @Component
 @EnableScheduling
+@RoutedTo(Workload.BATCH)
 @RequiredArgsConstructor
 @Slf4j
 public class ERPScheduler {
 
     private final InventoryRepository inventoryRepository;
     private final SalesOrderRepository salesOrderRepository;
+    private final MovementPartitionMaintenance movementPartitionMaintenance;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final JobLauncher jobLauncher;
+    private final Job salesRollupBackfillJob;
+
+    @Value("${app.analytics.sales-rollup.repair-days:3}")
+    private int salesRollupRepairDays;
 
     /**
      * LOW STOCK ALERT
@@ -125,6 +146,47 @@ public class ERPScheduler {
         log.info("=== [SCHEDULER] Weekly Inventory Reconciliation END ===");
     }
 
+    /**
+     * MOVEMENT PARTITION MAINTENANCE
+     * Runs every day at 1:30 AM.
+     * Creates upcoming monthly partitions of inventory_movements, moves rows out of
+     * the default partition, and archives partitions past the retention horizon.
+     */
+    @Scheduled(cron = "0 30 1 * * *")
+    public void runMovementPartitionMaintenance() {
+        log.info("=== [SCHEDULER] Movement Partition Maintenance ===");
+        try {
+            int created = movementPartitionMaintenance.createFuturePartitions();
+            int archived = movementPartitionMaintenance.archiveExpiredPartitions();
+            if (created > 0 || archived > 0) {
+                log.info("[PARTITIONS] Created {} and archived {} movement partition(s)", created, archived);
+            }
+        } catch (Exception e) {
+            log.error("[PARTITIONS] Movement partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * SALES ROLLUP REPAIR
+     * Runs every day at 1:45 AM.
+     * Rebuilds daily_sales_rollup for the last few days from sales_orders,
+     * correcting any drift of the incremental maintenance.
+     */
+    @Scheduled(cron = "0 45 1 * * *")
+    public void runSalesRollupRepair() {
+        log.info("=== [SCHEDULER] Sales Rollup Repair ===");
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        try {
+            jobLauncher.run(salesRollupBackfillJob, new JobParametersBuilder()
+                .addString("from", yesterday.minusDays(salesRollupRepairDays - 1L).toString())
+                .addString("to", yesterday.toString())
+                .addLong("requestedAt", System.currentTimeMillis())
+                .toJobParameters());
+        } catch (Exception e) {
+            log.error("[ROLLUP] Sales rollup repair failed: {}", e.getMessage(), e);
+        }
+    }
+
     /**
      * DASHBOARD CACHE REFRESH
      * Runs every 30 minutes during business hours.
@@ -132,7 +194,10 @@ public class ERPScheduler {
     @Scheduled(cron = "0 */30 8-20 * * MON-FRI")
     public void refreshDashboardCache() {
         log.debug("[SCHEDULER] Dashboard cache refresh triggered");
-        // TODO: Integrate with Spring Cache eviction
-        // cacheManager.getCache("inventoryDashboard").clear();
+        try {
+            dashboardSnapshotCache.refreshAll();
+        } catch (Exception e) {
+            log.error("[DASHBOARD] Snapshot refresh failed: {}", e.getMessage(), e);
+        }
     }
 }
@@ -1,6 +1,9 @@
 package com.enterprise.erp.security.filter;
 
 import com.enterprise.erp.security.jwt.JwtTokenProvider;
+import com.enterprise.erp.security.service.UserStateCache;
+import com.enterprise.erp.security.service.UserStateCache.UserState;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,13 +13,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -24,7 +28,7 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final UserStateCache userStateCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -33,16 +37,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
-                    );
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            Optional<Claims> claims = tokenProvider.validateAndGetClaims(jwt);
+            if (claims.isPresent()) {
+                UserDetails userDetails = toPrincipal(claims.get());
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities()
+                        );
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             log.error("Could not set user authentication in security context: {}", ex.getMessage());
@@ -51,6 +56,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Builds the principal from the token claims - no users query per request.
+     * The cached user state (short TTL, invalidated by UserService) only guards
+     * revocation: tokens of disabled or deleted users, or issued for a role the
+     * user no longer has, are not authenticated.
+     */
+    private UserDetails toPrincipal(Claims claims) {
+        String username = claims.getSubject();
+        UserState state = userStateCache.get(username).orElse(null);
+        if (state == null || !state.enabled()
+                || Boolean.FALSE.equals(claims.get(JwtTokenProvider.CLAIM_ENABLED, Boolean.class))) {
+            log.warn("Token rejected: user {} is disabled or no longer exists", username);
+            return null;
+        }
+        // Tokens issued before role claims existed fall back to the cached role
+        String role = claims.get(JwtTokenProvider.CLAIM_ROLE, String.class);
+        if (role != null && !role.equals(state.role().name())) {
+            log.warn("Token rejected: role of user {} changed since it was issued", username);
+            return null;
+        }
+        return User.withUsername(username)
+            .password("")
+            .roles(role != null ? role : state.role().name())
+            .build();
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -3,63 +3,116 @@ package com.enterprise.erp.security.jwt;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 
 @Component
 @Slf4j
 public class JwtTokenProvider {
 
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ENABLED = "enabled";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration}")
     private long jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${app.jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
+    // Built once: decoding the secret and building a parser per call showed up in profiles
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Verified claims by SHA-256 of the token, until the token expires (LRU-bounded)
+    private Map<String, Claims> verifiedClaims;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedClaims = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > claimsCacheSize;
+            }
+        });
     }
 
     public String generateToken(Authentication authentication) {
         UserDetails principal = (UserDetails) authentication.getPrincipal();
-        return generateTokenFromUsername(principal.getUsername());
+        String role = principal.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .filter(authority -> authority.startsWith("ROLE_"))
+            .map(authority -> authority.substring("ROLE_".length()))
+            .findFirst()
+            .orElse(null);
+        return buildToken(principal.getUsername(), role, principal.isEnabled());
     }
 
     public String generateTokenFromUsername(String username) {
+        return buildToken(username, null, true);
+    }
+
+    /**
+     * Role and enabled state travel in the token, so requests can be authenticated
+     * without loading the user (see JwtAuthenticationFilter).
+     */
+    private String buildToken(String username, String role, boolean enabled) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
             .subject(username)
+            .claim(CLAIM_ENABLED, enabled)
             .issuedAt(now)
-            .expiration(expiryDate)
-            .signWith(getSigningKey())
-            .compact();
-    }
-
-    public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-            .verifyWith(getSigningKey())
-            .build()
-            .parseSignedClaims(token)
-            .getPayload()
-            .getSubject();
+            .expiration(expiryDate);
+        if (role != null) {
+            builder.claim(CLAIM_ROLE, role);
+        }
+        return builder.signWith(signingKey).compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the token and returns its claims, or empty if it is invalid or expired.
+     * The token is parsed once; repeated calls with the same token are served from the
+     * verified-claims cache without HMAC verification until the token expires.
+     */
+    public Optional<Claims> validateAndGetClaims(String token) {
+        if (!StringUtils.hasText(token)) {
+            return Optional.empty();
+        }
+        String key = hash(token);
+        Claims cached = verifiedClaims.get(key);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                return Optional.of(cached);
+            }
+            verifiedClaims.remove(key);
+        }
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            verifiedClaims.put(key, claims);
+            return Optional.of(claims);
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token: {}", ex.getMessage());
         } catch (ExpiredJwtException ex) {
@@ -68,11 +121,27 @@ public class JwtTokenProvider {
             log.error("JWT token is unsupported: {}", ex.getMessage());
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty: {}", ex.getMessage());
+        } catch (JwtException ex) {
+            log.error("JWT token rejected: {}", ex.getMessage());
         }
-        return false;
+        return Optional.empty();
     }
 
     public long getExpirationMs() {
         return jwtExpiration;
     }
+
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && !expiration.after(new Date());
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
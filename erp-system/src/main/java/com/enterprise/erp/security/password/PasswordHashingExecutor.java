@@ -0,0 +1,97 @@
+package com.enterprise.erp.security.password;
+
+import com.enterprise.erp.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * BOUNDED EXECUTOR FOR PASSWORD HASHING
+ *
+ * BCrypt/Argon2 are deliberately CPU-expensive. Running them on the request thread
+ * lets a login storm occupy every core and Tomcat thread. Here at most
+ * {@code hashing-threads} hashes run at once and at most {@code hashing-queue-capacity}
+ * wait; anything beyond that fails fast with 503 instead of queueing behind the storm,
+ * so the rest of the API keeps its CPU and request threads.
+ *
+ * Metrics: executor.* (tag name=password-hashing, incl. executor.queued for the queue
+ * depth) and erp.auth.password.rejected.
+ */
+@Component
+@Slf4j
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final Counter rejected;
+    private final long timeoutMs;
+
+    public PasswordHashingExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${app.security.password.hashing-threads:0}") int threads,
+            @Value("${app.security.password.hashing-queue-capacity:16}") int queueCapacity,
+            @Value("${app.security.password.hashing-timeout-ms:10000}") long timeoutMs) {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "password-hashing");
+        this.rejected = meterRegistry.counter("erp.auth.password.rejected");
+        this.timeoutMs = timeoutMs;
+        log.info("Password hashing executor: {} thread(s), queue capacity {}", size, queueCapacity);
+    }
+
+    /**
+     * Runs the hashing task on the pool and waits for its result.
+     *
+     * @throws ServiceOverloadedException when the queue is full or the wait times out
+     */
+    public <T> T call(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task::get);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Too many concurrent logins. Please retry shortly.");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceOverloadedException("Password verification timed out. Please retry shortly.");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Password verification interrupted.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    int queueDepth() {
+        return pool.getQueue().size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
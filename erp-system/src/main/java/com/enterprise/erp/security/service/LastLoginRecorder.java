@@ -0,0 +1,70 @@
+package com.enterprise.erp.security.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WRITE-BEHIND BUFFER FOR users.last_login
+ *
+ * Logins only record the timestamp in memory; repeated logins of a user between two
+ * flushes coalesce into one entry. Pending timestamps are written periodically as one
+ * JDBC batch of targeted UPDATEs - no entity load/merge, no audit columns touched, no
+ * write on the login path. Timestamps never move backwards (guarded UPDATE), so
+ * several application nodes may flush in any order.
+ *
+ * A crash loses at most one flush interval of last-login timestamps.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LastLoginRecorder {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public void record(Long userId, LocalDateTime loginAt) {
+        pending.merge(userId, loginAt, (previous, latest) -> latest.isAfter(previous) ? latest : previous);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>();
+        for (Long userId : List.copyOf(pending.keySet())) {
+            LocalDateTime loginAt = pending.remove(userId);
+            if (loginAt != null) {
+                Timestamp timestamp = Timestamp.valueOf(loginAt);
+                batch.add(new Object[] { timestamp, userId, timestamp });
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(
+                "UPDATE users SET last_login = ? WHERE id = ? AND (last_login IS NULL OR last_login < ?)",
+                batch);
+        } catch (RuntimeException e) {
+            // Put the entries back (unless newer logins arrived meanwhile) for the next flush
+            batch.forEach(row -> record((Long) row[1], ((Timestamp) row[0]).toLocalDateTime()));
+            throw e;
+        }
+        log.debug("Flushed last-login timestamps of {} user(s)", batch.size());
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
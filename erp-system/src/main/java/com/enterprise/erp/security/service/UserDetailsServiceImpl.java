@@ -1,8 +1,13 @@
 package com.enterprise.erp.security.service;
 
+import com.enterprise.erp.datasource.RoutedTo;
+import com.enterprise.erp.datasource.Workload;
+import com.enterprise.erp.entity.User;
 import com.enterprise.erp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -10,14 +15,31 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+@Slf4j
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
+    // Primary, never a replica: a disabled user or a changed password must take effect at once
     @Override
     @Transactional(readOnly = true)
+    @RoutedTo(value = Workload.OLTP, replicas = false)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return userRepository.findByUsername(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
     }
+
+    /**
+     * Stores the rehashed password after a successful login with an outdated hash.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = user instanceof User loaded ? loaded
+            : userRepository.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + user.getUsername()));
+        entity.setPassword(newPassword);
+        log.info("Password hash upgraded for user {}", entity.getUsername());
+        return userRepository.save(entity);
+    }
 }
@@ -0,0 +1,112 @@
+package com.enterprise.erp.security.service;
+
+import com.enterprise.erp.entity.enums.UserRole;
+import com.enterprise.erp.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SHORT-TTL CACHE OF USER ROLE / ENABLED STATE
+ *
+ * Lets JwtAuthenticationFilter check that a token's role and enabled claims still hold
+ * with at most one users query per user and TTL, instead of one per request.
+ * UserService invalidates an entry when it disables a user or changes its role, so
+ * revocation is immediate on this node and bounded by the TTL on other nodes.
+ *
+ * A load that read the users row before the change committed must not put the old
+ * state back after the invalidation: each invalidation bumps the user's generation,
+ * and a loaded entry is withdrawn if the generation moved while it was being loaded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserStateCache {
+
+    public record UserState(UserRole role, boolean enabled) {}
+
+    // state == null: no such user (cached too, so tokens of deleted users stay cheap)
+    private record CachedState(UserState state, long expiresAt) {}
+
+    private final UserRepository userRepository;
+
+    @Value("${app.security.user-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${app.security.user-cache.max-size:10000}")
+    private int maxSize;
+
+    private Map<String, CachedState> entries;
+
+    // Invalidations per username; only users that were ever invalidated have one
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        entries = Collections.synchronizedMap(new LinkedHashMap<String, CachedState>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedState> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Current state of the user, or empty if it does not exist.
+     */
+    public Optional<UserState> get(String username) {
+        long now = System.currentTimeMillis();
+        CachedState entry = entries.get(username);
+        if (entry == null || entry.expiresAt() <= now) {
+            long generation = generation(username);
+            UserState state = userRepository.findByUsername(username)
+                .map(user -> new UserState(user.getRole(), user.isEnabled()))
+                .orElse(null);
+            entry = new CachedState(state, now + ttlMs);
+            entries.put(username, entry);
+            // Put before re-checking: an invalidate() that bumps after this check
+            // removes the entry itself, one that bumped before it is seen here
+            if (generation(username) != generation) {
+                entries.remove(username, entry);
+            }
+        }
+        return Optional.ofNullable(entry.state());
+    }
+
+    /**
+     * Drops the cached state once the current transaction commits (immediately when
+     * there is none), so the next request reloads the committed state.
+     */
+    public void invalidate(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(username);
+                log.debug("User state cache invalidated: {}", username);
+            }
+        });
+    }
+
+    private void evict(String username) {
+        generations.merge(username, 1L, Long::sum);
+        entries.remove(username);
+    }
+
+    private long generation(String username) {
+        return generations.getOrDefault(username, 0L);
+    }
+}
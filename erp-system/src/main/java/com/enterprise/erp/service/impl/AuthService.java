@@ -6,6 +6,7 @@ import com.enterprise.erp.entity.User;
 import com.enterprise.erp.exception.DuplicateResourceException;
 import com.enterprise.erp.repository.UserRepository;
 import com.enterprise.erp.security.jwt.JwtTokenProvider;
+import com.enterprise.erp.security.service.LastLoginRecorder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,7 +14,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 @Service @RequiredArgsConstructor @Slf4j
 public class AuthService {
@@ -21,13 +21,14 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
-    @Transactional
+    private final LastLoginRecorder lastLoginRecorder;
+    // Not transactional: no pooled connection is held while the password hash is
+    // verified (possibly queued on the bounded PasswordHashingExecutor)
     public JwtAuthResponse login(LoginRequest request) {
         Authentication auth = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
         User user = (User) auth.getPrincipal();
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
+        lastLoginRecorder.record(user.getId(), LocalDateTime.now());
         String token = tokenProvider.generateToken(auth);
         log.info("User logged in: {}", user.getUsername());
         return JwtAuthResponse.builder()
@@ -37,7 +38,8 @@ public class AuthService {
             .role(user.getRole().name())
             .build();
     }
-    @Transactional
+    // Not transactional either: the password is hashed outside any transaction;
+    // the unique constraints on username/email still guard concurrent registrations
     public String register(RegisterRequest request) {
         if (userRepository.existsByUsername(request.getUsername()))
             throw new DuplicateResourceException("Username already taken: " + request.getUsername());
@@ -0,0 +1,137 @@
+package com.enterprise.erp.service.impl;
+
+import com.enterprise.erp.entity.enums.PurchaseOrderStatus;
+import com.enterprise.erp.entity.enums.SalesOrderStatus;
+import com.enterprise.erp.exception.BusinessValidationException;
+import com.enterprise.erp.export.ExportFormat;
+import com.enterprise.erp.export.JdbcExporter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FULL-HISTORY EXPORTS (month-end, finance)
+ *
+ * Each export is one SQL statement streamed by {@link JdbcExporter}, in ledger order
+ * (created_at, id). Date bounds are inclusive days; the created_at predicates stay bare
+ * so the movement partitions outside the range are pruned.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+    private final JdbcExporter jdbcExporter;
+
+    private static final String MOVEMENTS = """
+        SELECT m.id, m.created_at, m.product_id, p.sku, p.name AS product_name,
+               m.warehouse_id, w.code AS warehouse_code, m.movement_type, m.quantity,
+               m.quantity_before, m.quantity_after, m.reference_type, m.reference_id,
+               m.notes, m.created_by
+        FROM inventory_movements m
+        JOIN products p ON p.id = m.product_id
+        JOIN warehouses w ON w.id = m.warehouse_id
+        """;
+
+    private static final String SALES_ORDERS = """
+        SELECT so.id, so.order_number, so.created_at, so.status, so.customer_id,
+               c.name AS customer_name, so.warehouse_id, w.code AS warehouse_code,
+               so.total_amount, so.requested_date, so.shipped_at, so.delivered_at
+        FROM sales_orders so
+        JOIN customers c ON c.id = so.customer_id
+        JOIN warehouses w ON w.id = so.warehouse_id
+        """;
+
+    private static final String PURCHASE_ORDERS = """
+        SELECT po.id, po.order_number, po.created_at, po.status, po.supplier_id,
+               s.name AS supplier_name, po.warehouse_id, w.code AS warehouse_code,
+               po.total_amount, po.expected_date, po.approved_at, po.received_at
+        FROM purchase_orders po
+        JOIN suppliers s ON s.id = po.supplier_id
+        JOIN warehouses w ON w.id = po.warehouse_id
+        """;
+
+    // ================================================================
+    // EXPORTS
+    // ================================================================
+
+    /**
+     * A validated export, run when the response body is written.
+     */
+    @FunctionalInterface
+    public interface Export {
+        long writeTo(OutputStream out);
+    }
+
+    public Export movements(LocalDate from, LocalDate to, Long productId, Long warehouseId, ExportFormat format) {
+        Query query = new Query(MOVEMENTS, "m", from, to);
+        query.filter("m.product_id", productId);
+        query.filter("m.warehouse_id", warehouseId);
+        return out -> run("movements", query, format, out);
+    }
+
+    public Export salesOrders(LocalDate from, LocalDate to, SalesOrderStatus status, ExportFormat format) {
+        Query query = new Query(SALES_ORDERS, "so", from, to);
+        query.filter("so.status", status != null ? status.name() : null);
+        return out -> run("sales orders", query, format, out);
+    }
+
+    public Export purchaseOrders(LocalDate from, LocalDate to, PurchaseOrderStatus status, ExportFormat format) {
+        Query query = new Query(PURCHASE_ORDERS, "po", from, to);
+        query.filter("po.status", status != null ? status.name() : null);
+        return out -> run("purchase orders", query, format, out);
+    }
+
+    // ================================================================
+    // HELPERS
+    // ================================================================
+
+    private long run(String name, Query query, ExportFormat format, OutputStream out) {
+        long started = System.currentTimeMillis();
+        long rows = jdbcExporter.export(query.sql(), query.params, format, out);
+        log.info("Exported {} {} as {} in {} ms", rows, name, format, System.currentTimeMillis() - started);
+        return rows;
+    }
+
+    private static final class Query {
+
+        private final StringBuilder where = new StringBuilder();
+        private final List<Object> params = new ArrayList<>();
+        private final String select;
+        private final String alias;
+
+        Query(String select, String alias, LocalDate from, LocalDate to) {
+            if (from != null && to != null && to.isBefore(from)) {
+                throw new BusinessValidationException("Export range ends before it starts: " + from + " - " + to);
+            }
+            this.select = select;
+            this.alias = alias;
+            if (from != null) {
+                condition(alias + ".created_at >= ?", from.atStartOfDay());
+            }
+            if (to != null) {
+                condition(alias + ".created_at < ?", to.plusDays(1).atStartOfDay());
+            }
+        }
+
+        void filter(String column, Object value) {
+            if (value != null) {
+                condition(column + " = ?", value);
+            }
+        }
+
+        String sql() {
+            return select + where + " ORDER BY " + alias + ".created_at, " + alias + ".id";
+        }
+
+        private void condition(String predicate, Object value) {
+            where.append(where.isEmpty() ? "WHERE " : " AND ").append(predicate);
+            params.add(value);
+        }
+    }
+}
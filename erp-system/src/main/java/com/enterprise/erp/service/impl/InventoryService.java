@@ -1,5 +1,8 @@
 package com.enterprise.erp.service.impl;
 
+import com.enterprise.erp.analytics.DashboardSnapshotCache;
+import com.enterprise.erp.analytics.DashboardSnapshotCache.Dashboard;
+import com.enterprise.erp.analytics.InventoryValuation;
 import com.enterprise.erp.dto.request.InventoryAdjustRequest;
 import com.enterprise.erp.dto.response.InventoryResponse;
 import com.enterprise.erp.entity.Inventory;
@@ -11,12 +14,18 @@ import com.enterprise.erp.entity.enums.ReferenceType;
 import com.enterprise.erp.exception.BusinessValidationException;
 import com.enterprise.erp.exception.InsufficientStockException;
 import com.enterprise.erp.exception.ResourceNotFoundException;
-import com.enterprise.erp.repository.InventoryMovementRepository;
+import com.enterprise.erp.inventory.AvailableToPromiseLedger;
+import com.enterprise.erp.inventory.ConditionalReservation;
+import com.enterprise.erp.inventory.InventoryMovementWriter;
+import com.enterprise.erp.inventory.InventoryRowLocks;
+import com.enterprise.erp.inventory.ReservationMode;
+import com.enterprise.erp.inventory.StripedInventory;
 import com.enterprise.erp.repository.InventoryRepository;
 import com.enterprise.erp.repository.ProductRepository;
 import com.enterprise.erp.repository.WarehouseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,7 +33,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
@@ -32,21 +47,54 @@ import java.util.List;
 public class InventoryService {
 
     private final InventoryRepository inventoryRepository;
-    private final InventoryMovementRepository movementRepository;
+    private final InventoryMovementWriter movementWriter;
     private final ProductRepository productRepository;
     private final WarehouseRepository warehouseRepository;
+    private final AvailableToPromiseLedger atpLedger;
+    private final StripedInventory stripedInventory;
+    private final ConditionalReservation conditionalReservation;
+    private final InventoryRowLocks rowLocks;
+    private final InventoryValuation inventoryValuation;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+
+    @Value("${app.inventory.reservation-mode:LOCK}")
+    private ReservationMode reservationMode;
+
+    /**
+     * One line of a multi-line reservation, e.g. a single sales order item.
+     */
+    public record ReservationLine(Long productId, Long warehouseId, int quantity) {}
 
     // ================================================================
     // RESERVE INVENTORY (called when Sales Order is CONFIRMED)
     // Uses PESSIMISTIC_WRITE lock to prevent concurrent overselling
+    // (CONDITIONAL mode: one guarded UPDATE instead, see ConditionalReservation)
     // ================================================================
     @Transactional
     public void reserveInventory(Long productId, Long warehouseId, int quantity) {
+        if (ledgerMode()) {
+            reserveThroughLedger(productId, warehouseId, quantity, null);
+            return;
+        }
+        if (striped(productId, warehouseId) && reserveOnStripes(productId, warehouseId, quantity, null)) {
+            return;
+        }
+        if (conditionalMode()) {
+            reserveConditionally(productId, warehouseId, quantity, null);
+            return;
+        }
+        reserveOnRow(productId, warehouseId, quantity, null);
+    }
+
+    private void reserveOnRow(Long productId, Long warehouseId, int quantity, Long salesOrderId) {
         // PESSIMISTIC LOCK - SELECT ... FOR UPDATE in PostgreSQL
-        Inventory inventory = inventoryRepository
-            .findByProductAndWarehouseForUpdate(productId, warehouseId)
+        Inventory inventory = rowLocks.acquire(warehouseId, () -> inventoryRepository
+                .findByProductAndWarehouseForUpdate(productId, warehouseId))
             .orElseThrow(() -> new ResourceNotFoundException(
                 "No inventory found for product: " + productId + " in warehouse: " + warehouseId));
+        if (striped(inventory) && reserveOnStripes(productId, warehouseId, quantity, salesOrderId)) {
+            return;
+        }
 
         int available = inventory.getAvailableQuantity();
         if (available < quantity) {
@@ -63,7 +111,100 @@ public class InventoryService {
 
         recordMovement(inventory.getProduct(), inventory.getWarehouse(),
             MovementType.SALE, -quantity, beforeQty,
-            inventory.getQuantity(), ReferenceType.SALES_ORDER, null, "Inventory reserved for order");
+            inventory.getQuantity(), ReferenceType.SALES_ORDER, salesOrderId, "Inventory reserved for order");
+    }
+
+    // ================================================================
+    // RESERVE INVENTORY - MULTI-LINE (called when Sales Order is CONFIRMED)
+    // All rows of the order are locked with one SELECT ... FOR UPDATE per
+    // warehouse, in product id order, so orders sharing SKUs cannot deadlock.
+    // Availability is validated for every line before anything is modified;
+    // row updates and movements are then flushed together as JDBC batches.
+    // Striped (hot SKU) lines are reserved on their stripes afterwards, so
+    // every path takes inventory row locks before stripe locks.
+    // ================================================================
+    @Transactional
+    public void reserveInventory(List<ReservationLine> lines, Long salesOrderId) {
+        if (ledgerMode()) {
+            // No row locks to order; a short line rolls back the CAS of earlier lines
+            lines.forEach(line -> reserveThroughLedger(
+                line.productId(), line.warehouseId(), line.quantity(), salesOrderId));
+            return;
+        }
+
+        // warehouseId -> (productId -> quantity), both sorted => deterministic lock order
+        Map<Long, Map<Long, Integer>> requested = new TreeMap<>();
+        List<ReservationLine> stripedLines = new ArrayList<>();
+        for (ReservationLine line : lines) {
+            if (striped(line.productId(), line.warehouseId())) {
+                stripedLines.add(line);
+                continue;
+            }
+            requested.computeIfAbsent(line.warehouseId(), w -> new TreeMap<>())
+                .merge(line.productId(), line.quantity(), Integer::sum);
+        }
+
+        if (conditionalMode()) {
+            // One guarded UPDATE per line, in the same order; a short line rolls back the earlier ones
+            requested.forEach((warehouseId, quantities) -> quantities.forEach((productId, quantity) ->
+                reserveConditionally(productId, warehouseId, quantity, salesOrderId)));
+            reserveStripedLines(stripedLines, salesOrderId);
+            log.info("Reserved {} lines ({} striped) for sales order {} (conditional)",
+                lines.size(), stripedLines.size(), salesOrderId);
+            return;
+        }
+
+        List<Inventory> locked = new ArrayList<>();
+        for (Map.Entry<Long, Map<Long, Integer>> entry : requested.entrySet()) {
+            Long warehouseId = entry.getKey();
+            Map<Long, Integer> quantities = entry.getValue();
+
+            List<Inventory> rows = rowLocks.acquire(warehouseId, () -> inventoryRepository
+                .findByWarehouseAndProductsForUpdate(warehouseId, quantities.keySet()));
+
+            Map<Long, Inventory> rowsByProduct = new HashMap<>();
+            for (Inventory row : rows) {
+                rowsByProduct.put(row.getProduct().getId(), row);
+            }
+
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                Inventory inventory = rowsByProduct.get(line.getKey());
+                if (inventory == null) {
+                    throw new ResourceNotFoundException(
+                        "No inventory found for product: " + line.getKey() + " in warehouse: " + warehouseId);
+                }
+                if (striped(inventory)) {
+                    stripedLines.add(new ReservationLine(line.getKey(), warehouseId, line.getValue()));
+                    continue;
+                }
+                int available = inventory.getAvailableQuantity();
+                if (available < line.getValue()) {
+                    throw new InsufficientStockException(
+                        inventory.getProduct().getSku(), line.getValue(), available);
+                }
+            }
+            rows.stream().filter(row -> !striped(row)).forEach(locked::add);
+        }
+
+        List<InventoryMovement> movements = new ArrayList<>(locked.size());
+        for (Inventory inventory : locked) {
+            int quantity = requested.get(inventory.getWarehouse().getId())
+                .get(inventory.getProduct().getId());
+            int beforeQty = inventory.getQuantity();
+            inventory.setReservedQuantity(inventory.getReservedQuantity() + quantity);
+
+            movements.add(buildMovement(inventory.getProduct(), inventory.getWarehouse(),
+                MovementType.SALE, -quantity, beforeQty,
+                inventory.getQuantity(), ReferenceType.SALES_ORDER, salesOrderId, "Inventory reserved for order"));
+        }
+
+        inventoryRepository.saveAll(locked);
+        movementWriter.appendAll(movements);
+
+        reserveStripedLines(stripedLines, salesOrderId);
+
+        log.info("Reserved {} lines ({} striped) for sales order {}",
+            locked.size() + stripedLines.size(), stripedLines.size(), salesOrderId);
     }
 
     // ================================================================
@@ -71,9 +212,32 @@ public class InventoryService {
     // ================================================================
     @Transactional
     public void releaseReservation(Long productId, Long warehouseId, int quantity) {
-        Inventory inventory = inventoryRepository
-            .findByProductAndWarehouseForUpdate(productId, warehouseId)
+        if (ledgerMode()) {
+            AvailableToPromiseLedger.Change change = atpLedger.release(productId, warehouseId, quantity);
+            atpLedger.journal(buildMovement(
+                productRepository.getReferenceById(productId), warehouseRepository.getReferenceById(warehouseId),
+                MovementType.RELEASE, change.units(), change.onHand(), change.onHand(),
+                ReferenceType.SALES_ORDER, null, "Reservation released"));
+            log.info("Released reservation of {} units for product {} in warehouse {} (ATP ledger)",
+                change.units(), productId, warehouseId);
+            return;
+        }
+        if (striped(productId, warehouseId) && releaseOnStripes(productId, warehouseId, quantity)) {
+            return;
+        }
+        if (conditionalMode() && rowLocks.acquire(warehouseId,
+                () -> conditionalReservation.release(productId, warehouseId, quantity))) {
+            log.info("Released reservation of {} units for product {} in warehouse {}",
+                quantity, productId, warehouseId);
+            return;
+        }
+
+        Inventory inventory = rowLocks.acquire(warehouseId, () -> inventoryRepository
+                .findByProductAndWarehouseForUpdate(productId, warehouseId))
             .orElseThrow(() -> new ResourceNotFoundException("Inventory not found"));
+        if (striped(inventory) && releaseOnStripes(productId, warehouseId, quantity)) {
+            return;
+        }
 
         int newReserved = Math.max(0, inventory.getReservedQuantity() - quantity);
         inventory.setReservedQuantity(newReserved);
@@ -88,9 +252,18 @@ public class InventoryService {
     // ================================================================
     @Transactional
     public void deductInventory(Long productId, Long warehouseId, int quantity, Long salesOrderId) {
-        Inventory inventory = inventoryRepository
-            .findByProductAndWarehouseForUpdate(productId, warehouseId)
+        if (ledgerMode()) {
+            atpLedger.beginRowChange(productId, warehouseId);
+        }
+        if (striped(productId, warehouseId) && deductOnStripes(productId, warehouseId, quantity, salesOrderId)) {
+            return;
+        }
+        Inventory inventory = rowLocks.acquire(warehouseId, () -> inventoryRepository
+                .findByProductAndWarehouseForUpdate(productId, warehouseId))
             .orElseThrow(() -> new ResourceNotFoundException("Inventory not found"));
+        if (striped(inventory) && deductOnStripes(productId, warehouseId, quantity, salesOrderId)) {
+            return;
+        }
 
         if (inventory.getQuantity() < quantity) {
             throw new InsufficientStockException(
@@ -98,10 +271,17 @@ public class InventoryService {
         }
 
         int beforeQty = inventory.getQuantity();
+        int beforeReserved = inventory.getReservedQuantity();
         inventory.setQuantity(inventory.getQuantity() - quantity);
         inventory.setReservedQuantity(
             Math.max(0, inventory.getReservedQuantity() - quantity));
         inventoryRepository.save(inventory);
+        if (ledgerMode()) {
+            atpLedger.recordRowChange(productId, warehouseId,
+                -quantity, inventory.getReservedQuantity() - beforeReserved);
+        }
+
+        revalue(inventory.getProduct(), -quantity);
 
         log.info("Deducted {} units of product {} for sales order {}",
             quantity, inventory.getProduct().getSku(), salesOrderId);
@@ -116,11 +296,25 @@ public class InventoryService {
     // ================================================================
     @Transactional
     public void addInventory(Long productId, Long warehouseId, int quantity, Long purchaseOrderId) {
+        if (ledgerMode()) {
+            atpLedger.beginRowChange(productId, warehouseId);
+        }
+        if (striped(productId, warehouseId) && addOnStripes(productId, warehouseId, quantity, purchaseOrderId)) {
+            return;
+        }
         Inventory inventory = findOrCreateInventory(productId, warehouseId);
+        if (striped(inventory) && addOnStripes(productId, warehouseId, quantity, purchaseOrderId)) {
+            return;
+        }
 
         int beforeQty = inventory.getQuantity();
         inventory.setQuantity(inventory.getQuantity() + quantity);
         inventoryRepository.save(inventory);
+        if (ledgerMode()) {
+            atpLedger.recordRowChange(productId, warehouseId, quantity, 0);
+        }
+
+        revalue(inventory.getProduct(), quantity);
 
         log.info("Added {} units of product {} from purchase order {}",
             quantity, inventory.getProduct().getSku(), purchaseOrderId);
@@ -135,8 +329,13 @@ public class InventoryService {
     // ================================================================
     @Transactional
     public InventoryResponse adjustInventory(InventoryAdjustRequest request) {
-        Inventory inventory = inventoryRepository
-            .findByProductAndWarehouseForUpdate(request.getProductId(), request.getWarehouseId())
+        // Takes effect only if the adjustment commits
+        dashboardSnapshotCache.invalidate(Dashboard.INVENTORY, Dashboard.MANAGEMENT);
+        if (ledgerMode()) {
+            atpLedger.beginRowChange(request.getProductId(), request.getWarehouseId());
+        }
+        Inventory inventory = rowLocks.acquire(request.getWarehouseId(), () -> inventoryRepository
+                .findByProductAndWarehouseForUpdate(request.getProductId(), request.getWarehouseId()))
             .orElseGet(() -> {
                 Product product = productRepository.findById(request.getProductId())
                     .orElseThrow(() -> new ResourceNotFoundException("Product", request.getProductId()));
@@ -151,6 +350,18 @@ public class InventoryService {
             });
 
         int delta = request.getQuantity();
+        if (striped(inventory)) {
+            int beforeQty = inventory.getQuantity();
+            if (stripedInventory.adjust(inventory, delta)) {
+                revalue(inventory.getProduct(), inventory.getQuantity() - beforeQty);
+                recordMovement(inventory.getProduct(), inventory.getWarehouse(),
+                    MovementType.ADJUSTMENT, delta, beforeQty, inventory.getQuantity(),
+                    ReferenceType.MANUAL, null, request.getNotes());
+                log.info("Manual adjustment: {} units, product {}, warehouse {} (striped)",
+                    delta, request.getProductId(), request.getWarehouseId());
+                return toResponse(inventory);
+            }
+        }
         int newQty = inventory.getQuantity() + delta;
 
         if (newQty < 0) {
@@ -160,6 +371,7 @@ public class InventoryService {
         }
 
         int beforeQty = inventory.getQuantity();
+        int beforeReserved = inventory.getReservedQuantity();
         inventory.setQuantity(newQty);
 
         // If decreasing, ensure reserved doesn't exceed new quantity
@@ -168,6 +380,11 @@ public class InventoryService {
         }
 
         Inventory saved = inventoryRepository.save(inventory);
+        revalue(saved.getProduct(), delta);
+        if (ledgerMode()) {
+            atpLedger.recordRowChange(request.getProductId(), request.getWarehouseId(),
+                delta, saved.getReservedQuantity() - beforeReserved);
+        }
 
         recordMovement(saved.getProduct(), saved.getWarehouse(),
             MovementType.ADJUSTMENT, delta, beforeQty, newQty,
@@ -181,7 +398,7 @@ public class InventoryService {
 
     @Transactional(readOnly = true)
     public Page<InventoryResponse> getAllInventory(Pageable pageable) {
-        return inventoryRepository.findAll(pageable).map(this::toResponse);
+        return inventoryRepository.findPage(pageable).map(this::toResponse);
     }
 
     @Transactional(readOnly = true)
@@ -197,6 +414,109 @@ public class InventoryService {
     // ================================================================
     // HELPERS
     // ================================================================
+    private boolean ledgerMode() {
+        return reservationMode == ReservationMode.LEDGER;
+    }
+
+    private boolean conditionalMode() {
+        return reservationMode == ReservationMode.CONDITIONAL;
+    }
+
+    private boolean striped(Long productId, Long warehouseId) {
+        return !ledgerMode() && stripedInventory.isStriped(productId, warehouseId);
+    }
+
+    private boolean striped(Inventory inventory) {
+        return !ledgerMode() && inventory.getStripeCount() != null;
+    }
+
+    // Stripe counterparts of the row operations; each returns false when the
+    // product/warehouse turned out not to be striped so the caller uses the row.
+
+    private boolean reserveOnStripes(Long productId, Long warehouseId, int quantity, Long salesOrderId) {
+        OptionalInt onHand = stripedInventory.reserve(productId, warehouseId, quantity);
+        if (onHand.isEmpty()) {
+            return false;
+        }
+        recordMovement(productRepository.getReferenceById(productId), warehouseRepository.getReferenceById(warehouseId),
+            MovementType.SALE, -quantity, onHand.getAsInt(), onHand.getAsInt(),
+            ReferenceType.SALES_ORDER, salesOrderId, "Inventory reserved for order");
+        return true;
+    }
+
+    private void reserveStripedLines(List<ReservationLine> stripedLines, Long salesOrderId) {
+        stripedLines.sort(Comparator.comparing(ReservationLine::warehouseId)
+            .thenComparing(ReservationLine::productId));
+        for (ReservationLine line : stripedLines) {
+            if (!reserveOnStripes(line.productId(), line.warehouseId(), line.quantity(), salesOrderId)) {
+                reserveOnRow(line.productId(), line.warehouseId(), line.quantity(), salesOrderId);
+            }
+        }
+    }
+
+    private void reserveConditionally(Long productId, Long warehouseId, int quantity, Long salesOrderId) {
+        OptionalInt onHand = rowLocks.acquire(warehouseId,
+            () -> conditionalReservation.reserve(productId, warehouseId, quantity));
+        if (onHand.isEmpty()) {
+            // Striped row: same fallback as a row found striped under the lock
+            if (!reserveOnStripes(productId, warehouseId, quantity, salesOrderId)) {
+                reserveOnRow(productId, warehouseId, quantity, salesOrderId);
+            }
+            return;
+        }
+        log.info("Reserved {} units of product {} in warehouse {}", quantity, productId, warehouseId);
+        recordMovement(productRepository.getReferenceById(productId), warehouseRepository.getReferenceById(warehouseId),
+            MovementType.SALE, -quantity, onHand.getAsInt(), onHand.getAsInt(),
+            ReferenceType.SALES_ORDER, salesOrderId, "Inventory reserved for order");
+    }
+
+    private boolean releaseOnStripes(Long productId, Long warehouseId, int quantity) {
+        if (stripedInventory.release(productId, warehouseId, quantity).isEmpty()) {
+            return false;
+        }
+        log.info("Released reservation of {} units for product {} in warehouse {} (striped)",
+            quantity, productId, warehouseId);
+        return true;
+    }
+
+    private boolean deductOnStripes(Long productId, Long warehouseId, int quantity, Long salesOrderId) {
+        OptionalInt onHand = stripedInventory.deduct(productId, warehouseId, quantity);
+        if (onHand.isEmpty()) {
+            return false;
+        }
+        Product product = productRepository.getReferenceById(productId);
+        revalue(product, -quantity);
+        recordMovement(product, warehouseRepository.getReferenceById(warehouseId),
+            MovementType.SALE, -quantity, onHand.getAsInt() + quantity, onHand.getAsInt(),
+            ReferenceType.SALES_ORDER, salesOrderId, "Shipped");
+        return true;
+    }
+
+    private boolean addOnStripes(Long productId, Long warehouseId, int quantity, Long purchaseOrderId) {
+        OptionalInt onHand = stripedInventory.add(productId, warehouseId, quantity);
+        if (onHand.isEmpty()) {
+            return false;
+        }
+        Product product = productRepository.getReferenceById(productId);
+        revalue(product, quantity);
+        recordMovement(product, warehouseRepository.getReferenceById(warehouseId),
+            MovementType.PURCHASE, quantity, onHand.getAsInt() - quantity, onHand.getAsInt(),
+            ReferenceType.PURCHASE_ORDER, purchaseOrderId, "Received from supplier");
+        return true;
+    }
+
+    private void reserveThroughLedger(Long productId, Long warehouseId, int quantity, Long salesOrderId) {
+        AvailableToPromiseLedger.Change change = atpLedger.reserve(productId, warehouseId, quantity);
+        atpLedger.journal(buildMovement(
+            productRepository.getReferenceById(productId), warehouseRepository.getReferenceById(warehouseId),
+            MovementType.RESERVATION, -quantity, change.onHand(), change.onHand(),
+            ReferenceType.SALES_ORDER, salesOrderId, "Inventory reserved for order"));
+    }
+
+    private void revalue(Product product, int quantityDelta) {
+        inventoryValuation.recordQuantityChange(product.getCostPrice(), quantityDelta);
+    }
+
     private Inventory findOrCreateInventory(Long productId, Long warehouseId) {
         return inventoryRepository.findByProductIdAndWarehouseId(productId, warehouseId)
             .orElseGet(() -> {
@@ -204,7 +524,7 @@ public class InventoryService {
                     .orElseThrow(() -> new ResourceNotFoundException("Product", productId));
                 Warehouse warehouse = warehouseRepository.findById(warehouseId)
                     .orElseThrow(() -> new ResourceNotFoundException("Warehouse", warehouseId));
-                return inventoryRepository.save(
+                Inventory created = inventoryRepository.save(
                     Inventory.builder()
                         .product(product)
                         .warehouse(warehouse)
@@ -212,6 +532,12 @@ public class InventoryService {
                         .reservedQuantity(0)
                         .build()
                 );
+                // Hot SKU: new warehouse rows start striped like the product's existing ones
+                Integer stripes = product.getInventoryStripes();
+                if (!ledgerMode() && stripes != null && stripes > 1) {
+                    stripedInventory.restripe(created, stripes);
+                }
+                return created;
             });
     }
 
@@ -219,6 +545,14 @@ public class InventoryService {
                                 MovementType type, int delta,
                                 int before, int after,
                                 ReferenceType refType, Long refId, String notes) {
+        movementWriter.append(
+            buildMovement(product, warehouse, type, delta, before, after, refType, refId, notes));
+    }
+
+    private InventoryMovement buildMovement(Product product, Warehouse warehouse,
+                                            MovementType type, int delta,
+                                            int before, int after,
+                                            ReferenceType refType, Long refId, String notes) {
         String currentUser = "SYSTEM";
         try {
             var auth = SecurityContextHolder.getContext().getAuthentication();
@@ -227,7 +561,7 @@ public class InventoryService {
             }
         } catch (Exception ignored) {}
 
-        InventoryMovement movement = InventoryMovement.builder()
+        return InventoryMovement.builder()
             .product(product)
             .warehouse(warehouse)
             .movementType(type)
@@ -239,8 +573,6 @@ public class InventoryService {
             .notes(notes)
             .createdBy(currentUser)
             .build();
-
-        movementRepository.save(movement);
     }
 
     private InventoryResponse toResponse(Inventory inv) {
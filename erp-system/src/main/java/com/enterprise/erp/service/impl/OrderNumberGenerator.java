@@ -0,0 +1,101 @@
+package com.enterprise.erp.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ORDER NUMBERS FROM BLOCK-ALLOCATED DATABASE SEQUENCES
+ *
+ * Numbers look like SO-0000012345: prefix + zero-padded sequence value, so the
+ * order_number index receives ascending, fixed-width keys instead of random ones.
+ * One nextval reserves a block of BLOCK_SIZE numbers (the sequence's INCREMENT BY) for
+ * this node, which then hands them out in memory: one round trip per block, and no
+ * two nodes ever get the same block. Numbers are ascending per node; a block is
+ * interleaved with other nodes' blocks, and what is left of it is lost on restart.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderNumberGenerator {
+
+    // INCREMENT BY of the order number sequences (see V8 migration) - must not change
+    static final int BLOCK_SIZE = 100;
+
+    // Zero-padded width: keeps string order equal to numeric order
+    private static final int DIGITS = 10;
+
+    public enum Series {
+        SALES_ORDER("SO", "sales_order_number_seq"),
+        PURCHASE_ORDER("PO", "purchase_order_number_seq");
+
+        private final String prefix;
+        private final String sequence;
+
+        Series(String prefix, String sequence) {
+            this.prefix = prefix;
+            this.sequence = sequence;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Series, Block> blocks = new EnumMap<>(Series.class);
+
+    // Numbers handed out from one reserved block: (high - BLOCK_SIZE, high].
+    // A lock, not synchronized: nextval runs while it is held, and a virtual thread
+    // blocked inside synchronized would pin its carrier.
+    private static final class Block {
+        final ReentrantLock lock = new ReentrantLock();
+        long next;
+        long high;
+    }
+
+    @PostConstruct
+    void init() {
+        for (Series series : Series.values()) {
+            // Flyway-less schemas (Hibernate ddl-auto, H2 in tests) do not get the V8 migration
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + series.sequence
+                + " START WITH " + BLOCK_SIZE + " INCREMENT BY " + BLOCK_SIZE);
+            blocks.put(series, new Block());
+        }
+    }
+
+    public String next(Series series) {
+        Block block = blocks.get(series);
+        long value;
+        block.lock.lock();
+        try {
+            if (block.next == 0 || block.next > block.high) {
+                block.high = reserveBlock(series);
+                block.next = block.high - BLOCK_SIZE + 1;
+            }
+            value = block.next++;
+        } finally {
+            block.lock.unlock();
+        }
+        return format(series.prefix, value);
+    }
+
+    static String format(String prefix, long value) {
+        String digits = Long.toString(value);
+        StringBuilder number = new StringBuilder(prefix.length() + 1 + Math.max(DIGITS, digits.length()))
+            .append(prefix).append('-');
+        for (int i = digits.length(); i < DIGITS; i++) {
+            number.append('0');
+        }
+        return number.append(digits).toString();
+    }
+
+    private long reserveBlock(Series series) {
+        Long high = jdbcTemplate.queryForObject("SELECT nextval('" + series.sequence + "')", Long.class);
+        log.debug("Reserved {} numbers {}..{}", series, high - BLOCK_SIZE + 1, high);
+        return high;
+    }
+}
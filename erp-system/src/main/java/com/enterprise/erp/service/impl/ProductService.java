@@ -1,5 +1,6 @@
 package com.enterprise.erp.service.impl;
 
+import com.enterprise.erp.analytics.InventoryValuation;
 import com.enterprise.erp.dto.request.ProductRequest;
 import com.enterprise.erp.dto.response.ProductResponse;
 import com.enterprise.erp.entity.Category;
@@ -7,6 +8,7 @@ import com.enterprise.erp.entity.Product;
 import com.enterprise.erp.entity.enums.ProductStatus;
 import com.enterprise.erp.exception.DuplicateResourceException;
 import com.enterprise.erp.exception.ResourceNotFoundException;
+import com.enterprise.erp.inventory.StripedInventory;
 import com.enterprise.erp.repository.CategoryRepository;
 import com.enterprise.erp.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +18,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Objects;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -23,6 +27,8 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final StripedInventory stripedInventory;
+    private final InventoryValuation inventoryValuation;
 
     @Transactional
     public ProductResponse createProduct(ProductRequest request) {
@@ -45,6 +51,7 @@ public class ProductService {
             .reorderQuantity(request.getReorderQuantity())
             .unitOfMeasure(request.getUnitOfMeasure())
             .status(request.getStatus())
+            .inventoryStripes(request.getInventoryStripes())
             .build();
         Product saved = productRepository.save(product);
         log.info("Product created: {}", saved.getSku());
@@ -67,11 +74,18 @@ public class ProductService {
         product.setName(request.getName());
         product.setDescription(request.getDescription());
         product.setUnitPrice(request.getUnitPrice());
+        inventoryValuation.recordCostChange(id, product.getCostPrice(), request.getCostPrice());
         product.setCostPrice(request.getCostPrice());
         product.setReorderLevel(request.getReorderLevel());
         product.setReorderQuantity(request.getReorderQuantity());
         product.setUnitOfMeasure(request.getUnitOfMeasure());
         product.setStatus(request.getStatus());
+        if (request.getInventoryStripes() != null
+                && !Objects.equals(request.getInventoryStripes(), product.getInventoryStripes())) {
+            stripedInventory.restripe(id, request.getInventoryStripes());
+            product.setInventoryStripes(request.getInventoryStripes());
+            log.info("Product {} inventory stripes set to {}", product.getSku(), request.getInventoryStripes());
+        }
         return toResponse(productRepository.save(product));
     }
 
@@ -114,6 +128,7 @@ public class ProductService {
             .reorderQuantity(p.getReorderQuantity())
             .unitOfMeasure(p.getUnitOfMeasure())
             .status(p.getStatus())
+            .inventoryStripes(p.getInventoryStripes())
             .version(p.getVersion())
             .createdAt(p.getCreatedAt())
             .updatedAt(p.getUpdatedAt())
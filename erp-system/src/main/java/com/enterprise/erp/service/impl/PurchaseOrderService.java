@@ -1,5 +1,7 @@
 package com.enterprise.erp.service.impl;
 
+import com.enterprise.erp.analytics.DashboardSnapshotCache;
+import com.enterprise.erp.analytics.DashboardSnapshotCache.Dashboard;
 import com.enterprise.erp.dto.request.PurchaseOrderRequest;
 import com.enterprise.erp.dto.response.PurchaseOrderItemResponse;
 import com.enterprise.erp.dto.response.PurchaseOrderResponse;
@@ -8,6 +10,7 @@ import com.enterprise.erp.entity.enums.PurchaseOrderStatus;
 import com.enterprise.erp.exception.InvalidOrderStateException;
 import com.enterprise.erp.exception.ResourceNotFoundException;
 import com.enterprise.erp.repository.*;
+import com.enterprise.erp.service.impl.OrderNumberGenerator.Series;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -17,7 +20,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +31,8 @@ public class PurchaseOrderService {
     private final WarehouseRepository warehouseRepository;
     private final ProductRepository productRepository;
     private final InventoryService inventoryService;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final OrderNumberGenerator orderNumberGenerator;
 
     @Transactional
     public PurchaseOrderResponse createPurchaseOrder(PurchaseOrderRequest request) {
@@ -39,7 +43,7 @@ public class PurchaseOrderService {
             .orElseThrow(() -> new ResourceNotFoundException("Warehouse", request.getWarehouseId()));
 
         PurchaseOrder order = PurchaseOrder.builder()
-            .orderNumber(generateOrderNumber("PO"))
+            .orderNumber(orderNumberGenerator.next(Series.PURCHASE_ORDER))
             .supplier(supplier)
             .warehouse(warehouse)
             .status(PurchaseOrderStatus.CREATED)
@@ -64,6 +68,7 @@ public class PurchaseOrderService {
         order.calculateTotal();
 
         PurchaseOrder saved = purchaseOrderRepository.save(order);
+        dashboardSnapshotCache.invalidate(Dashboard.SUPPLIER, Dashboard.MANAGEMENT);
         log.info("Purchase order created: {}", saved.getOrderNumber());
         return toResponse(saved);
     }
@@ -80,6 +85,7 @@ public class PurchaseOrderService {
         order.setStatus(PurchaseOrderStatus.APPROVED);
         order.setApprovedAt(LocalDateTime.now());
         PurchaseOrder saved = purchaseOrderRepository.save(order);
+        dashboardSnapshotCache.invalidate(Dashboard.SUPPLIER, Dashboard.MANAGEMENT);
         log.info("Purchase order approved: {}", order.getOrderNumber());
         return toResponse(saved);
     }
@@ -116,6 +122,7 @@ public class PurchaseOrderService {
         order.setStatus(PurchaseOrderStatus.RECEIVED);
         order.setReceivedAt(LocalDateTime.now());
         PurchaseOrder saved = purchaseOrderRepository.save(order);
+        dashboardSnapshotCache.invalidate(Dashboard.INVENTORY, Dashboard.SUPPLIER, Dashboard.MANAGEMENT);
         log.info("Purchase order fully received: {}", order.getOrderNumber());
         return toResponse(saved);
     }
@@ -130,6 +137,7 @@ public class PurchaseOrderService {
         }
 
         order.setStatus(PurchaseOrderStatus.CANCELLED);
+        dashboardSnapshotCache.invalidate(Dashboard.SUPPLIER, Dashboard.MANAGEMENT);
         return toResponse(purchaseOrderRepository.save(order));
     }
 
@@ -142,12 +150,7 @@ public class PurchaseOrderService {
 
     @Transactional(readOnly = true)
     public Page<PurchaseOrderResponse> getAllOrders(Pageable pageable) {
-        return purchaseOrderRepository.findAll(pageable).map(this::toResponse);
-    }
-
-    private String generateOrderNumber(String prefix) {
-        return prefix + "-" + System.currentTimeMillis() + "-"
-            + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+        return purchaseOrderRepository.findPage(pageable).map(this::toResponse);
     }
 
     private PurchaseOrderResponse toResponse(PurchaseOrder order) {
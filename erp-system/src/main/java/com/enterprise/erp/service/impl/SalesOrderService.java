@@ -1,5 +1,8 @@
 package com.enterprise.erp.service.impl;
 
+import com.enterprise.erp.analytics.DashboardSnapshotCache;
+import com.enterprise.erp.analytics.DashboardSnapshotCache.Dashboard;
+import com.enterprise.erp.analytics.SalesRollupWriter;
 import com.enterprise.erp.dto.request.SalesOrderRequest;
 import com.enterprise.erp.dto.response.SalesOrderItemResponse;
 import com.enterprise.erp.dto.response.SalesOrderResponse;
@@ -8,6 +11,7 @@ import com.enterprise.erp.entity.enums.SalesOrderStatus;
 import com.enterprise.erp.exception.InvalidOrderStateException;
 import com.enterprise.erp.exception.ResourceNotFoundException;
 import com.enterprise.erp.repository.*;
+import com.enterprise.erp.service.impl.OrderNumberGenerator.Series;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -17,7 +21,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +32,9 @@ public class SalesOrderService {
     private final WarehouseRepository warehouseRepository;
     private final ProductRepository productRepository;
     private final InventoryService inventoryService;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final SalesRollupWriter salesRollupWriter;
 
     // ================================================================
     // CREATE SALES ORDER
@@ -43,7 +49,7 @@ public class SalesOrderService {
             .orElseThrow(() -> new ResourceNotFoundException("Warehouse", request.getWarehouseId()));
 
         SalesOrder order = SalesOrder.builder()
-            .orderNumber(generateOrderNumber("SO"))
+            .orderNumber(orderNumberGenerator.next(Series.SALES_ORDER))
             .customer(customer)
             .warehouse(warehouse)
             .status(SalesOrderStatus.CREATED)
@@ -67,13 +73,15 @@ public class SalesOrderService {
         order.calculateTotal();
 
         SalesOrder saved = salesOrderRepository.save(order);
+        salesRollupWriter.recordCreated(saved);
+        dashboardSnapshotCache.invalidate(Dashboard.ORDERS, Dashboard.MANAGEMENT);
         log.info("Sales order created: {}", saved.getOrderNumber());
         return toResponse(saved);
     }
 
     // ================================================================
     // CONFIRM ORDER - RESERVE INVENTORY
-    // This is where pessimistic locks fire per item
+    // This is where pessimistic locks fire, one statement for all items
     // ================================================================
     @Transactional
     public SalesOrderResponse confirmOrder(Long orderId) {
@@ -85,17 +93,20 @@ public class SalesOrderService {
                 "Order " + order.getOrderNumber() + " cannot be confirmed. Status: " + order.getStatus());
         }
 
-        // Reserve inventory for each item (with pessimistic lock per product)
-        for (SalesOrderItem item : order.getItems()) {
-            inventoryService.reserveInventory(
+        // Reserve inventory for all items at once (rows locked in product id order)
+        List<InventoryService.ReservationLine> lines = order.getItems().stream()
+            .map(item -> new InventoryService.ReservationLine(
                 item.getProduct().getId(),
                 order.getWarehouse().getId(),
-                item.getQuantity()
-            );
-        }
+                item.getQuantity()))
+            .toList();
+        inventoryService.reserveInventory(lines, order.getId());
 
+        SalesOrderStatus previous = order.getStatus();
         order.setStatus(SalesOrderStatus.CONFIRMED);
+        salesRollupWriter.recordStatusChange(order, previous);
         SalesOrder saved = salesOrderRepository.save(order);
+        dashboardSnapshotCache.invalidate(Dashboard.ORDERS, Dashboard.INVENTORY, Dashboard.MANAGEMENT);
         log.info("Sales order confirmed and inventory reserved: {}", order.getOrderNumber());
         return toResponse(saved);
     }
@@ -124,9 +135,12 @@ public class SalesOrderService {
             );
         }
 
+        SalesOrderStatus previous = order.getStatus();
         order.setStatus(SalesOrderStatus.SHIPPED);
         order.setShippedAt(LocalDateTime.now());
+        salesRollupWriter.recordStatusChange(order, previous);
         SalesOrder saved = salesOrderRepository.save(order);
+        dashboardSnapshotCache.invalidate(Dashboard.ORDERS, Dashboard.INVENTORY, Dashboard.MANAGEMENT);
         log.info("Sales order shipped: {}", order.getOrderNumber());
         return toResponse(saved);
     }
@@ -143,8 +157,11 @@ public class SalesOrderService {
             throw new InvalidOrderStateException("Order must be SHIPPED before marking DELIVERED");
         }
 
+        SalesOrderStatus previous = order.getStatus();
         order.setStatus(SalesOrderStatus.DELIVERED);
         order.setDeliveredAt(LocalDateTime.now());
+        salesRollupWriter.recordStatusChange(order, previous);
+        dashboardSnapshotCache.invalidate(Dashboard.ORDERS, Dashboard.MANAGEMENT);
         return toResponse(salesOrderRepository.save(order));
     }
 
@@ -173,8 +190,11 @@ public class SalesOrderService {
             }
         }
 
+        SalesOrderStatus previous = order.getStatus();
         order.setStatus(SalesOrderStatus.CANCELLED);
+        salesRollupWriter.recordStatusChange(order, previous);
         SalesOrder saved = salesOrderRepository.save(order);
+        dashboardSnapshotCache.invalidate(Dashboard.ORDERS, Dashboard.INVENTORY, Dashboard.MANAGEMENT);
         log.info("Sales order cancelled and reservations released: {}", order.getOrderNumber());
         return toResponse(saved);
     }
@@ -188,22 +208,17 @@ public class SalesOrderService {
 
     @Transactional(readOnly = true)
     public Page<SalesOrderResponse> getAllOrders(Pageable pageable) {
-        return salesOrderRepository.findAll(pageable).map(this::toResponse);
+        return salesOrderRepository.findPage(pageable).map(this::toResponse);
     }
 
     @Transactional(readOnly = true)
     public Page<SalesOrderResponse> getOrdersByStatus(SalesOrderStatus status, Pageable pageable) {
-        return salesOrderRepository.findByStatus(status, pageable).map(this::toResponse);
+        return salesOrderRepository.findPageByStatus(status, pageable).map(this::toResponse);
     }
 
     // ================================================================
     // HELPERS
     // ================================================================
-    private String generateOrderNumber(String prefix) {
-        return prefix + "-" + System.currentTimeMillis() + "-"
-            + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
-    }
-
     private SalesOrderResponse toResponse(SalesOrder order) {
         List<SalesOrderItemResponse> itemResponses = null;
         if (order.getItems() != null) {
@@ -1,11 +1,14 @@
 package com.enterprise.erp.service.impl;
 
 import com.enterprise.erp.entity.User;
+import com.enterprise.erp.entity.enums.UserRole;
 import com.enterprise.erp.repository.UserRepository;
+import com.enterprise.erp.security.service.UserStateCache;
 
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,6 +17,7 @@ import java.util.List;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserStateCache userStateCache;
 
 
     // GET ALL USERS
@@ -34,16 +38,46 @@ public class UserService {
 
 
     // CREATE USER
+    @Transactional
     public User createUser(User user) {
 
+        User saved = userRepository.save(user);
+        userStateCache.invalidate(saved.getUsername());
+        return saved;
+
+    }
+
+
+    // CHANGE ROLE - tokens issued for the old role stop authenticating
+    @Transactional
+    public User updateRole(Long id, UserRole role) {
+
+        User user = getUserById(id);
+        user.setRole(role);
+        userStateCache.invalidate(user.getUsername());
+        return userRepository.save(user);
+
+    }
+
+
+    // ENABLE / DISABLE - a disabled user's tokens stop authenticating
+    @Transactional
+    public User setEnabled(Long id, boolean enabled) {
+
+        User user = getUserById(id);
+        user.setEnabled(enabled);
+        userStateCache.invalidate(user.getUsername());
         return userRepository.save(user);
 
     }
 
 
     // DELETE USER
+    @Transactional
     public void deleteUser(Long id) {
 
+        userRepository.findById(id)
+                .ifPresent(user -> userStateCache.invalidate(user.getUsername()));
         userRepository.deleteById(id);
 
     }
@@ -0,0 +1,15 @@
+-- ============================================================
+-- ATP LEDGER (app.inventory.reservation-mode=LEDGER)
+-- Reservations are journalled as RESERVATION / RELEASE movements
+-- and folded into inventory.reserved_quantity asynchronously.
+-- ============================================================
+
+ALTER TYPE movement_type ADD VALUE IF NOT EXISTS 'RESERVATION';
+ALTER TYPE movement_type ADD VALUE IF NOT EXISTS 'RELEASE';
+
+-- Id of the last journal movement already folded into reserved_quantity
+ALTER TABLE inventory ADD COLUMN IF NOT EXISTS ledger_watermark BIGINT;
+
+-- Seeding / recovery reads unfolded journal entries per (product, warehouse)
+CREATE INDEX IF NOT EXISTS idx_inv_movements_ledger_journal
+    ON inventory_movements (product_id, warehouse_id, id);
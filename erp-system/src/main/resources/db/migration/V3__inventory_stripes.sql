@@ -0,0 +1,26 @@
+-- ============================================================
+-- STRIPED INVENTORY FOR HOT SKUs (products.inventory_stripes > 1)
+-- Stock of a striped product/warehouse lives in inventory_stripes;
+-- the inventory row holds the rolled-up totals.
+-- ============================================================
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS inventory_stripes INTEGER
+    CHECK (inventory_stripes IS NULL OR inventory_stripes BETWEEN 1 AND 64);
+
+-- Set on striped rows; NULL = the row itself holds the stock
+ALTER TABLE inventory ADD COLUMN IF NOT EXISTS stripe_count INTEGER;
+
+CREATE TABLE IF NOT EXISTS inventory_stripes (
+    id                  BIGSERIAL PRIMARY KEY,
+    product_id          BIGINT NOT NULL REFERENCES products(id),
+    warehouse_id        BIGINT NOT NULL REFERENCES warehouses(id),
+    stripe_index        INTEGER NOT NULL,
+    quantity            INTEGER NOT NULL DEFAULT 0,
+    reserved_quantity   INTEGER NOT NULL DEFAULT 0,
+    last_updated        TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    version             BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_inventory_stripe UNIQUE (product_id, warehouse_id, stripe_index),
+    CONSTRAINT chk_stripe_quantity_non_negative CHECK (quantity >= 0),
+    CONSTRAINT chk_stripe_reserved_non_negative CHECK (reserved_quantity >= 0),
+    CONSTRAINT chk_stripe_reserved_lte_quantity CHECK (reserved_quantity <= quantity)
+);
@@ -0,0 +1,9 @@
+-- ============================================================
+-- BATCHED MOVEMENT INSERTS
+-- InventoryMovement ids come from inventory_movements_id_seq through
+-- Hibernate's pooled optimizer (allocationSize = 50): one nextval
+-- reserves 50 ids, so audit inserts can be sent as JDBC batches.
+-- The column default stays for any other writer.
+-- ============================================================
+
+ALTER SEQUENCE inventory_movements_id_seq INCREMENT BY 50;
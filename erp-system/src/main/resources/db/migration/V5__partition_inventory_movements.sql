@@ -0,0 +1,74 @@
+-- ============================================================
+-- MONTHLY RANGE PARTITIONING OF inventory_movements
+-- Parent table partitioned by created_at; one partition per month
+-- (inventory_movements_YYYY_MM). ERPScheduler keeps partitions created
+-- ahead of time and moves those past the retention horizon into the
+-- movements_archive schema (detached, still queryable).
+-- ============================================================
+
+ALTER TABLE inventory_movements RENAME TO inventory_movements_legacy;
+ALTER INDEX IF EXISTS idx_inv_movements_product RENAME TO idx_inv_movements_legacy_product;
+ALTER INDEX IF EXISTS idx_inv_movements_warehouse RENAME TO idx_inv_movements_legacy_warehouse;
+ALTER INDEX IF EXISTS idx_inv_movements_type RENAME TO idx_inv_movements_legacy_type;
+ALTER INDEX IF EXISTS idx_inv_movements_created_at RENAME TO idx_inv_movements_legacy_created_at;
+ALTER INDEX IF EXISTS idx_inv_movements_reference RENAME TO idx_inv_movements_legacy_reference;
+ALTER INDEX IF EXISTS idx_inv_movements_ledger_journal RENAME TO idx_inv_movements_legacy_ledger_journal;
+
+-- Keep the id sequence (pooled, INCREMENT BY 50 since V4) when the legacy table goes
+ALTER SEQUENCE inventory_movements_id_seq OWNED BY NONE;
+
+CREATE TABLE inventory_movements (
+    id              BIGINT NOT NULL DEFAULT nextval('inventory_movements_id_seq'),
+    product_id      BIGINT NOT NULL REFERENCES products(id),
+    warehouse_id    BIGINT NOT NULL REFERENCES warehouses(id),
+    movement_type   movement_type NOT NULL,
+    quantity        INTEGER NOT NULL,  -- positive for IN, negative for OUT
+    quantity_before INTEGER NOT NULL,
+    quantity_after  INTEGER NOT NULL,
+    reference_type  reference_type,
+    reference_id    BIGINT,
+    notes           TEXT,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    created_by      BIGINT REFERENCES users(id),
+    -- The partition key must be part of the primary key
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE inventory_movements_id_seq OWNED BY inventory_movements.id;
+
+-- Indexes on the parent are created on every partition
+CREATE INDEX idx_inv_movements_product_created ON inventory_movements(product_id, created_at);
+CREATE INDEX idx_inv_movements_warehouse ON inventory_movements(warehouse_id);
+CREATE INDEX idx_inv_movements_type_created ON inventory_movements(movement_type, created_at);
+CREATE INDEX idx_inv_movements_created_at ON inventory_movements(created_at);
+CREATE INDEX idx_inv_movements_reference ON inventory_movements(reference_type, reference_id);
+CREATE INDEX idx_inv_movements_ledger_journal ON inventory_movements(product_id, warehouse_id, id);
+
+-- Monthly partitions from the oldest movement up to three months ahead
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE(
+        (SELECT MIN(created_at) FROM inventory_movements_legacy), NOW()))::date;
+    last_month  DATE := (date_trunc('month', NOW()) + INTERVAL '3 months')::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF inventory_movements FOR VALUES FROM (%L) TO (%L)',
+            'inventory_movements_' || to_char(month_start, 'YYYY_MM'),
+            month_start, (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Safety net if partition creation ever falls behind; kept empty by the scheduler
+CREATE TABLE inventory_movements_default PARTITION OF inventory_movements DEFAULT;
+
+INSERT INTO inventory_movements
+SELECT id, product_id, warehouse_id, movement_type, quantity, quantity_before, quantity_after,
+       reference_type, reference_id, notes, COALESCE(created_at, NOW()), created_by
+FROM inventory_movements_legacy;
+
+DROP TABLE inventory_movements_legacy;
+
+-- Retention tier: detached partitions are moved here, off the dashboard query path
+CREATE SCHEMA IF NOT EXISTS movements_archive;
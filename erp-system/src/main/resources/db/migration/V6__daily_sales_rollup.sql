@@ -0,0 +1,24 @@
+-- ============================================================
+-- DAILY SALES ROLLUP
+-- Order count and revenue per creation day, warehouse and status,
+-- maintained incrementally by the application (SalesRollupWriter).
+-- Order analytics read this table instead of GROUP BY DATE over
+-- sales_orders. Repair/re-backfill: salesRollupBackfillJob.
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS daily_sales_rollup (
+    id              BIGSERIAL PRIMARY KEY,
+    rollup_date     DATE NOT NULL,
+    warehouse_id    BIGINT NOT NULL REFERENCES warehouses(id),
+    status          VARCHAR(20) NOT NULL,
+    order_count     BIGINT NOT NULL DEFAULT 0,
+    revenue         NUMERIC(18,4) NOT NULL DEFAULT 0,
+    CONSTRAINT uk_daily_sales_rollup UNIQUE (rollup_date, warehouse_id, status)
+);
+
+-- Initial backfill from the existing order history
+INSERT INTO daily_sales_rollup (rollup_date, warehouse_id, status, order_count, revenue)
+SELECT CAST(created_at AS DATE), warehouse_id, status, COUNT(*), SUM(total_amount)
+FROM sales_orders
+GROUP BY CAST(created_at AS DATE), warehouse_id, status
+ON CONFLICT (rollup_date, warehouse_id, status) DO NOTHING;
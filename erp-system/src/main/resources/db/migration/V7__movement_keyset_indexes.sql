@@ -0,0 +1,23 @@
+-- ============================================================
+-- KEYSET PAGINATION OF THE MOVEMENT AUDIT TRAIL
+-- GET /api/inventory/movements/scroll reads newest first, strictly
+-- after a (created_at, id) cursor, optionally filtered by product or
+-- warehouse. Each filter gets an index ending in (created_at, id), so a
+-- slice is one backward range scan of the slice size per partition,
+-- independent of how deep the reader has scrolled.
+--
+-- Indexes on the partitioned parent cascade to every partition
+-- (CONCURRENTLY is not supported on the parent).
+-- ============================================================
+
+CREATE INDEX IF NOT EXISTS idx_inv_movements_created_id
+    ON inventory_movements(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_inv_movements_product_created_id
+    ON inventory_movements(product_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_inv_movements_warehouse_created_id
+    ON inventory_movements(warehouse_id, created_at, id);
+
+-- Superseded: each is a prefix of one of the indexes above
+DROP INDEX IF EXISTS idx_inv_movements_created_at;
+DROP INDEX IF EXISTS idx_inv_movements_product_created;
+DROP INDEX IF EXISTS idx_inv_movements_warehouse;
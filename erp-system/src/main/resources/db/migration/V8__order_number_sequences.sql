@@ -0,0 +1,12 @@
+-- ============================================================
+-- ORDER NUMBER SEQUENCES
+-- OrderNumberGenerator reserves order numbers in blocks of 100:
+-- one nextval returns the top of a block (INCREMENT BY 100), and
+-- the node hands out the block's numbers from memory. Numbers are
+-- formatted as SO-0000000001 / PO-0000000001; older numbers
+-- (PREFIX-millis-RANDOM) have a different shape and cannot collide.
+-- The increment is the block size and must not change.
+-- ============================================================
+
+CREATE SEQUENCE IF NOT EXISTS sales_order_number_seq START WITH 100 INCREMENT BY 100;
+CREATE SEQUENCE IF NOT EXISTS purchase_order_number_seq START WITH 100 INCREMENT BY 100;
@@ -0,0 +1,10 @@
+-- ============================================================
+-- ATP LEDGER JOURNAL LOWER BOUND
+-- Set by each fold to the fold time minus app.inventory.ledger.
+-- journal-lookback-ms. Journal entries not yet folded were written
+-- after it, so the next fold and slot seeding bound created_at by it
+-- and only probe the newest partitions of inventory_movements.
+-- Null (rows never folded since): no bound.
+-- ============================================================
+
+ALTER TABLE inventory ADD COLUMN IF NOT EXISTS ledger_journal_since TIMESTAMP;
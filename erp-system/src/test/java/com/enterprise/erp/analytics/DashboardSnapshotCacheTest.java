@@ -0,0 +1,131 @@
+package com.enterprise.erp.analytics;
+
+import com.enterprise.erp.analytics.DashboardSnapshotCache.Dashboard;
+import com.enterprise.erp.analytics.DashboardSnapshotCache.Snapshot;
+import com.enterprise.erp.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardSnapshotCache Unit Tests")
+class DashboardSnapshotCacheTest {
+
+    @Mock private AnalyticsService analyticsService;
+    @Spy private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks private DashboardSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "minRefreshIntervalMs", 0L);
+        ReflectionTestUtils.setField(cache, "maxAgeMs", 1_800_000L);
+    }
+
+    @Test
+    @DisplayName("Should compute a dashboard once for concurrent readers")
+    void get_ShouldComputeOnceForConcurrentReaders() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        when(analyticsService.getInventoryDashboard()).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return Map.<String, Object>of("totalSkus", 10);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Snapshot>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(Dashboard.INVENTORY);
+                }));
+            }
+            start.countDown();
+            for (Future<Snapshot> result : results) {
+                assertThat(result.get().data()).containsEntry("totalSkus", 10);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(analyticsService, times(1)).getInventoryDashboard();
+    }
+
+    @Test
+    @DisplayName("Should rebuild after invalidation and keep validators when content is unchanged")
+    void invalidate_ShouldRebuildAndKeepValidatorsForSameContent() {
+        when(analyticsService.getOrderDashboard())
+            .thenReturn(Map.of("todayOrders", 3L))
+            .thenReturn(Map.of("todayOrders", 3L))
+            .thenReturn(Map.of("todayOrders", 4L));
+
+        Snapshot first = cache.get(Dashboard.ORDERS);
+        assertThat(cache.get(Dashboard.ORDERS)).isSameAs(first);
+
+        cache.invalidate(Dashboard.ORDERS);
+        Snapshot unchanged = cache.get(Dashboard.ORDERS);
+        assertThat(unchanged.etag()).isEqualTo(first.etag());
+        assertThat(unchanged.lastModified()).isEqualTo(first.lastModified());
+
+        cache.invalidate(Dashboard.ORDERS);
+        Snapshot changed = cache.get(Dashboard.ORDERS);
+        assertThat(changed.etag()).isNotEqualTo(first.etag());
+        assertThat(changed.data()).containsEntry("todayOrders", 4L);
+        verify(analyticsService, times(3)).getOrderDashboard();
+    }
+
+    @Test
+    @DisplayName("Should keep the ETag when the order dashboard is rebuilt over unchanged rows")
+    void refresh_ShouldKeepEtagForUnchangedOrderRows() {
+        DailySalesRollupRepository rollups = mock(DailySalesRollupRepository.class);
+        when(rollups.getDailyOrderStats(any())).thenAnswer(invocation -> List.<Object[]>of(
+            new Object[]{LocalDate.of(2024, 3, 1), 12L, new BigDecimal("1520.50")},
+            new Object[]{LocalDate.of(2024, 2, 29), 9L, new BigDecimal("980.00")}));
+        AnalyticsService orders = new AnalyticsService(mock(InventoryRepository.class),
+            mock(SalesOrderRepository.class), rollups, mock(PurchaseOrderRepository.class),
+            mock(InventoryMovementRepository.class), mock(SalesOrderItemRepository.class),
+            mock(ProductRepository.class), mock(InventoryValuation.class));
+        DashboardSnapshotCache ordersCache = new DashboardSnapshotCache(orders, objectMapper);
+        ReflectionTestUtils.setField(ordersCache, "minRefreshIntervalMs", 0L);
+        ReflectionTestUtils.setField(ordersCache, "maxAgeMs", 1_800_000L);
+
+        Snapshot first = ordersCache.get(Dashboard.ORDERS);
+        ordersCache.invalidate(Dashboard.ORDERS);
+        Snapshot rebuilt = ordersCache.get(Dashboard.ORDERS);
+
+        verify(rollups, times(6)).getDailyOrderStats(any());
+        assertThat(rebuilt.etag()).isEqualTo(first.etag());
+        assertThat(rebuilt.lastModified()).isEqualTo(first.lastModified());
+        assertThat(rebuilt.refreshedAt()).isAfterOrEqualTo(first.refreshedAt());
+    }
+
+    @Test
+    @DisplayName("Should throttle write-driven refreshes to the minimum interval")
+    void invalidate_ShouldBeThrottledByMinRefreshInterval() {
+        ReflectionTestUtils.setField(cache, "minRefreshIntervalMs", 60_000L);
+        when(analyticsService.getSupplierDashboard()).thenReturn(Map.of("activeSuppliers", 5L));
+
+        Snapshot first = cache.get(Dashboard.SUPPLIER);
+        cache.invalidate(Dashboard.SUPPLIER);
+
+        assertThat(cache.get(Dashboard.SUPPLIER)).isSameAs(first);
+        verify(analyticsService, times(1)).getSupplierDashboard();
+    }
+}
@@ -0,0 +1,70 @@
+package com.enterprise.erp.analytics;
+
+import com.enterprise.erp.repository.InventoryRepository;
+import com.enterprise.erp.repository.InventoryStripeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InventoryValuation Unit Tests")
+class InventoryValuationTest {
+
+    @Mock private InventoryRepository inventoryRepository;
+    @Mock private InventoryStripeRepository stripeRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryValuation valuation;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        valuation = new InventoryValuation(inventoryRepository, stripeRepository, meterRegistry);
+        ReflectionTestUtils.setField(valuation, "driftTolerance", new BigDecimal("0.01"));
+        when(inventoryRepository.sumUnstripedValuation()).thenReturn(new BigDecimal("1000.00"));
+        when(stripeRepository.sumValuation()).thenReturn(new BigDecimal("250.00"));
+    }
+
+    @Test
+    @DisplayName("Should seed once and then move with stock deltas without querying")
+    void getTotal_ShouldApplyDeltasInConstantTime() {
+        assertThat(valuation.getTotal()).isEqualByComparingTo("1250.00");
+
+        valuation.recordQuantityChange(new BigDecimal("25.00"), 4);    // +100
+        valuation.recordQuantityChange(new BigDecimal("10.00"), -3);   // -30
+
+        assertThat(valuation.getTotal()).isEqualByComparingTo("1320.00");
+        verify(inventoryRepository, times(1)).sumUnstripedValuation();
+    }
+
+    @Test
+    @DisplayName("Should revalue a product's whole stock when its cost price changes")
+    void recordCostChange_ShouldRevalueProductStock() {
+        valuation.getTotal();
+        when(inventoryRepository.sumQuantityByProduct(7L)).thenReturn(40L);
+
+        valuation.recordCostChange(7L, new BigDecimal("5.00"), new BigDecimal("6.50"));
+
+        assertThat(valuation.getTotal()).isEqualByComparingTo("1310.00"); // 1250 + 40 * 1.50
+    }
+
+    @Test
+    @DisplayName("Should correct and count drift found by the full recompute")
+    void recompute_ShouldCorrectDrift() {
+        valuation.getTotal();
+        valuation.recordQuantityChange(new BigDecimal("1.00"), 5);     // not reflected in the DB sums
+
+        valuation.recompute();
+
+        assertThat(valuation.getTotal()).isEqualByComparingTo("1250.00");
+        assertThat(meterRegistry.counter("erp.inventory.valuation.drift.corrections").count()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,91 @@
+package com.enterprise.erp.analytics;
+
+import com.enterprise.erp.entity.SalesOrder;
+import com.enterprise.erp.entity.Warehouse;
+import com.enterprise.erp.entity.enums.SalesOrderStatus;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SalesRollupWriter Unit Tests")
+class SalesRollupWriterTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private SalesRollupWriter rollupWriter;
+
+    private SalesOrder order;
+
+    @BeforeEach
+    void setUp() {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(3L);
+        order = SalesOrder.builder()
+            .warehouse(warehouse)
+            .status(SalesOrderStatus.CREATED)
+            .totalAmount(new BigDecimal("120.00"))
+            .build();
+        order.setCreatedAt(LocalDateTime.of(2024, 5, 14, 10, 30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should net a transaction's deltas and upsert them in one batch before commit")
+    void record_ShouldNetDeltasAndUpsertBeforeCommit() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        TransactionSynchronizationManager.initSynchronization();
+
+        rollupWriter.recordCreated(order);
+        order.setStatus(SalesOrderStatus.CONFIRMED);
+        rollupWriter.recordStatusChange(order, SalesOrderStatus.CREATED);
+        verifyNoInteractions(jdbcTemplate);
+
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(synchronization -> synchronization.beforeCommit(false));
+
+        // CREATED: +1 -1 nets to zero and is skipped; only the CONFIRMED bucket is written
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("ON CONFLICT"), batch.capture());
+        assertThat(batch.getValue()).singleElement().satisfies(row -> assertThat(row)
+            .containsExactly(Date.valueOf("2024-05-14"), 3L, "CONFIRMED", 1L, new BigDecimal("120.00")));
+    }
+
+    @Test
+    @DisplayName("Should move the order between status buckets, written at once without a transaction")
+    void recordStatusChange_ShouldMoveBetweenBuckets() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        order.setStatus(SalesOrderStatus.CANCELLED);
+
+        rollupWriter.recordStatusChange(order, SalesOrderStatus.CONFIRMED);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("MERGE INTO"), batch.capture());
+        assertThat(batch.getAllValues().stream().flatMap(List::stream).toList()).extracting(row -> row[2] + ":" + row[3] + ":" + row[4])
+            .containsExactlyInAnyOrder("CONFIRMED:-1:-120.00", "CANCELLED:1:120.00");
+    }
+}
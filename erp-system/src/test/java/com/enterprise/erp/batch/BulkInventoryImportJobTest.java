@@ -0,0 +1,141 @@
+package com.enterprise.erp.batch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.*;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs the import jobs end to end on H2: chunk-level locking, insert of missing rows,
+ * several counts for one row in a chunk, skipped unknown SKUs and the partitioned job.
+ */
+@SpringBootTest(properties = {
+    "app.batch.inventory-import.chunk-size=3",
+    "app.batch.inventory-import.partitions=3"
+})
+@ActiveProfiles("test")
+@DisplayName("Bulk inventory import job")
+class BulkInventoryImportJobTest {
+
+    @Autowired private JobLauncher jobLauncher;
+    @Autowired private Job bulkInventoryImportJob;
+    @Autowired private Job partitionedInventoryImportJob;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path dir;
+
+    private long laptopId;
+    private long mouseId;
+    private long warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        laptopId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'LAPTOP-001'", Long.class);
+        mouseId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'MOUSE-001'", Long.class);
+        warehouseId = jdbcTemplate.queryForObject("SELECT id FROM warehouses WHERE code = 'WH-001'", Long.class);
+        jdbcTemplate.update("DELETE FROM inventory_movements WHERE created_by = 'BATCH_JOB'");
+        jdbcTemplate.update("DELETE FROM inventory WHERE product_id IN (?, ?)", laptopId, mouseId);
+        jdbcTemplate.update("""
+            INSERT INTO inventory (product_id, warehouse_id, quantity, reserved_quantity, version)
+            VALUES (?, ?, 50, 40, 0)
+            """, laptopId, warehouseId);
+    }
+
+    @Test
+    @DisplayName("Applies counts in file order, creates missing rows and caps reserved quantity")
+    void importsCounts() throws Exception {
+        Path file = dir.resolve("counts.csv");
+        Files.writeString(file, """
+            sku,warehouse_code,quantity,notes
+            LAPTOP-001,WH-001,30,aisle 4
+            MOUSE-001,WH-001,5
+            MOUSE-001,WH-001,8,recount
+            NO-SUCH-SKU,WH-001,1
+            LAPTOP-001,WH-001,35
+            """);
+
+        JobExecution execution = jobLauncher.run(bulkInventoryImportJob, new JobParametersBuilder()
+            .addString("file", file.toString())
+            .addLong("run", System.nanoTime())
+            .toJobParameters());
+
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution step = execution.getStepExecutions().iterator().next();
+        assertThat(step.getWriteCount()).isEqualTo(4);
+        assertThat(step.getProcessSkipCount()).isEqualTo(1);
+
+        assertThat(row(laptopId)).containsEntry("QUANTITY", 35).containsEntry("RESERVED_QUANTITY", 30);
+        assertThat(row(mouseId)).containsEntry("QUANTITY", 8).containsEntry("RESERVED_QUANTITY", 0);
+
+        List<String> movements = jdbcTemplate.queryForList("""
+            SELECT product_id || ':' || quantity_before || '>' || quantity_after || ':' || quantity
+            FROM inventory_movements WHERE created_by = 'BATCH_JOB' ORDER BY id
+            """, String.class);
+        assertThat(movements).containsExactly(
+            laptopId + ":50>30:-20",
+            mouseId + ":0>5:5",
+            mouseId + ":5>8:3",
+            laptopId + ":30>35:5");
+    }
+
+    @Test
+    @DisplayName("Partitioned by warehouse: every row ends at its last count, rows metered per partition")
+    void importsPartitioned() throws Exception {
+        List<String> codes = jdbcTemplate.queryForList("SELECT code FROM warehouses ORDER BY code", String.class);
+        StringBuilder content = new StringBuilder("sku,warehouse_code,quantity\n");
+        for (int round = 1; round <= 4; round++) {
+            for (String code : codes) {
+                content.append("LAPTOP-001,").append(code).append(',').append(round * 10).append('\n');
+                content.append("MOUSE-001,").append(code).append(',').append(round).append('\n');
+            }
+        }
+        Path file = dir.resolve("estate.csv");
+        Files.writeString(file, content);
+        int lines = 8 * codes.size();
+
+        JobExecution execution = jobLauncher.run(partitionedInventoryImportJob, new JobParametersBuilder()
+            .addString("file", file.toString())
+            .addString("partitionBy", "WAREHOUSE")
+            .addLong("run", System.nanoTime())
+            .toJobParameters());
+
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(execution.getStepExecutions())
+            .filteredOn(step -> step.getStepName().startsWith("bulkInventoryWorkerStep:"))
+            .hasSize(3);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM inventory WHERE product_id = ? AND quantity = 40", Integer.class, laptopId))
+            .isEqualTo(codes.size());
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM inventory WHERE product_id = ? AND quantity = 4", Integer.class, mouseId))
+            .isEqualTo(codes.size());
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM inventory_movements WHERE created_by = 'BATCH_JOB'", Integer.class))
+            .isEqualTo(lines);
+        double metered = meterRegistry.find("erp.batch.import.rows").counters().stream()
+            .filter(counter -> counter.getId().getTag("step").startsWith("bulkInventoryWorkerStep:"))
+            .mapToDouble(Counter::count).sum();
+        assertThat(metered).isEqualTo(lines);
+    }
+
+    private Map<String, Object> row(long productId) {
+        return jdbcTemplate.queryForMap(
+            "SELECT quantity, reserved_quantity FROM inventory WHERE product_id = ? AND warehouse_id = ?",
+            productId, warehouseId);
+    }
+}
@@ -0,0 +1,84 @@
+package com.enterprise.erp.batch;
+
+import com.enterprise.erp.batch.BulkInventoryImportBatch.InventoryUpdateRecord;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("InventoryImportPartitioner Unit Tests")
+class InventoryImportPartitionerTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private List<InventoryUpdateRecord> all;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StringBuilder content = new StringBuilder("sku,warehouse_code,quantity\n");
+        all = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            InventoryUpdateRecord record = new InventoryUpdateRecord("SKU-" + i, "WH-00" + (i % 7), i, "line " + i);
+            all.add(record);
+            content.append(record.sku()).append(',').append(record.warehouseCode()).append(',')
+                .append(record.quantity()).append(',').append(record.notes()).append('\n');
+        }
+        file = dir.resolve("counts.csv");
+        Files.writeString(file, content);
+    }
+
+    @Test
+    @DisplayName("LINE_RANGE: ranges start on line boundaries and together read every line once, in order")
+    void lineRanges() throws Exception {
+        Map<String, ExecutionContext> partitions =
+            new InventoryImportPartitioner(file, InventoryImportPartitioner.Mode.LINE_RANGE).partition(6);
+
+        assertThat(partitions).hasSize(6);
+        List<InventoryUpdateRecord> read = new ArrayList<>();
+        for (ExecutionContext context : partitions.values()) {
+            InventoryCsvItemReader reader = new InventoryCsvItemReader(file, 64)
+                .range(context.getLong(InventoryImportPartitioner.START_KEY),
+                    context.getLong(InventoryImportPartitioner.END_KEY));
+            read.addAll(readAll(reader));
+        }
+        assertThat(read).containsExactlyElementsOf(all);
+    }
+
+    @Test
+    @DisplayName("WAREHOUSE: each warehouse code is read by exactly one partition, in file order")
+    void warehouseBuckets() throws Exception {
+        Map<String, ExecutionContext> partitions =
+            new InventoryImportPartitioner(file, InventoryImportPartitioner.Mode.WAREHOUSE).partition(3);
+
+        List<InventoryUpdateRecord> read = new ArrayList<>();
+        for (ExecutionContext context : partitions.values()) {
+            int partition = context.getInt(InventoryImportPartitioner.PARTITION_KEY);
+            List<InventoryUpdateRecord> records = readAll(new InventoryCsvItemReader(file, 64)
+                .warehousePartition(partition, context.getInt(InventoryImportPartitioner.PARTITIONS_KEY)));
+            assertThat(records).allMatch(r -> InventoryCsvItemReader.partitionOf(r.warehouseCode(), 3) == partition);
+            assertThat(records).isSortedAccordingTo((a, b) -> Integer.compare(a.quantity(), b.quantity()));
+            read.addAll(records);
+        }
+        assertThat(read).containsExactlyInAnyOrderElementsOf(all);
+    }
+
+    private static List<InventoryUpdateRecord> readAll(InventoryCsvItemReader reader) throws Exception {
+        reader.open(new ExecutionContext());
+        List<InventoryUpdateRecord> records = new ArrayList<>();
+        InventoryUpdateRecord record;
+        while ((record = reader.read()) != null) {
+            records.add(record);
+        }
+        reader.close();
+        return records;
+    }
+}
@@ -0,0 +1,153 @@
+package com.enterprise.erp.batch;
+
+import com.enterprise.erp.batch.BulkInventoryImportBatch.StockCount;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.*;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.item.Chunk;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * The COPY write path of the import against a real PostgreSQL server: staging tables,
+ * COPY ... FROM STDIN, UPDATE ... FROM, INSERT ... SELECT and the movement ids drawn
+ * from the sequence. Opt-in, as it needs a disposable database (the schema is created
+ * and dropped by Hibernate):
+ *
+ *   mvn test -Dtest=PostgresCopyImportTest -Dtest.postgres.url=jdbc:postgresql://localhost:5432/erp_it
+ *       [-Dtest.postgres.username=... -Dtest.postgres.password=...]
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=${test.postgres.url}",
+    "spring.datasource.driver-class-name=org.postgresql.Driver",
+    "spring.datasource.username=${test.postgres.username:postgres}",
+    "spring.datasource.password=${test.postgres.password:}",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+    "app.batch.inventory-import.writer=COPY",
+    "app.batch.inventory-import.chunk-size=3"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "test.postgres.url", matches = ".+")
+@DisplayName("Bulk inventory import - COPY path on PostgreSQL")
+class PostgresCopyImportTest {
+
+    @Autowired private JobLauncher jobLauncher;
+    @Autowired private Job bulkInventoryImportJob;
+    @Autowired private StockCountWriter stockCountWriter;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path dir;
+
+    private long laptopId;
+    private long mouseId;
+    private long warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        laptopId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'LAPTOP-001'", Long.class);
+        mouseId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'MOUSE-001'", Long.class);
+        warehouseId = jdbcTemplate.queryForObject("SELECT id FROM warehouses WHERE code = 'WH-001'", Long.class);
+        jdbcTemplate.update("DELETE FROM inventory_movements WHERE created_by = 'BATCH_JOB'");
+        jdbcTemplate.update("DELETE FROM inventory WHERE product_id IN (?, ?)", laptopId, mouseId);
+        jdbcTemplate.update("""
+            INSERT INTO inventory (product_id, warehouse_id, quantity, reserved_quantity, version)
+            VALUES (?, ?, 50, 40, 0)
+            """, laptopId, warehouseId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("ALTER TABLE inventory DROP CONSTRAINT IF EXISTS it_quantity_limit");
+    }
+
+    @Test
+    @DisplayName("Imports a file through COPY: row totals, movements and ids from the sequence")
+    void importsThroughCopy() throws Exception {
+        Path file = dir.resolve("counts.csv");
+        Files.writeString(file, """
+            sku,warehouse_code,quantity,notes
+            LAPTOP-001,WH-001,30,"aisle 4, shelf 2"
+            MOUSE-001,WH-001,5
+            MOUSE-001,WH-001,8,recount
+            LAPTOP-001,WH-001,35
+            """);
+
+        JobExecution execution = jobLauncher.run(bulkInventoryImportJob, new JobParametersBuilder()
+            .addString("file", file.toString())
+            .addLong("run", System.nanoTime())
+            .toJobParameters());
+
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(row(laptopId)).containsEntry("quantity", 35).containsEntry("reserved_quantity", 30);
+        assertThat(row(mouseId)).containsEntry("quantity", 8).containsEntry("reserved_quantity", 0);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT version FROM inventory WHERE product_id = ? AND warehouse_id = ?", Long.class, laptopId, warehouseId))
+            .as("one UPDATE ... FROM per chunk that changed the row").isEqualTo(2L);
+
+        List<Map<String, Object>> movements = jdbcTemplate.queryForList("""
+            SELECT id, product_id, movement_type, quantity, quantity_before, quantity_after, notes, created_at
+            FROM inventory_movements WHERE created_by = 'BATCH_JOB' ORDER BY id
+            """);
+        assertThat(movements).extracting(m -> m.get("product_id") + ":" + m.get("quantity_before") + ">"
+                + m.get("quantity_after") + ":" + m.get("quantity"))
+            .containsExactly(
+                laptopId + ":50>30:-20",
+                mouseId + ":0>5:5",
+                mouseId + ":5>8:3",
+                laptopId + ":30>35:5");
+        assertThat(movements).allSatisfy(m -> {
+            assertThat(m.get("movement_type")).isEqualTo("ADJUSTMENT");
+            assertThat(m.get("created_at")).isNotNull();
+        });
+        assertThat(movements.get(0).get("notes")).isEqualTo("Batch import: aisle 4, shelf 2");
+
+        // Ids come from reserved sequence blocks: a later pooled allocation cannot reuse them
+        List<Long> ids = movements.stream().map(m -> ((Number) m.get("id")).longValue()).toList();
+        assertThat(ids).doesNotHaveDuplicates().allMatch(id -> id > 0);
+        long nextBlockHigh = jdbcTemplate.queryForObject("SELECT nextval('inventory_movements_id_seq')", Long.class);
+        assertThat(nextBlockHigh - PostgresCopyLoader.ID_BLOCK_SIZE + 1).isGreaterThan(ids.get(ids.size() - 1));
+    }
+
+    @Test
+    @DisplayName("A check-constraint violation in UPDATE ... FROM rolls back the whole chunk")
+    void constraintViolationRollsBackChunk() {
+        jdbcTemplate.execute("ALTER TABLE inventory ADD CONSTRAINT it_quantity_limit CHECK (quantity <= 1000)");
+        Chunk<StockCount> chunk = new Chunk<>(List.of(
+            new StockCount(mouseId, warehouseId, BigDecimal.ONE, 7, "new row"),
+            new StockCount(laptopId, warehouseId, BigDecimal.TEN, 5_000, "over the limit")));
+
+        assertThatThrownBy(() -> new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> stockCountWriter.write(chunk)))
+            .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(row(laptopId)).containsEntry("quantity", 50).containsEntry("reserved_quantity", 40);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM inventory WHERE product_id = ? AND warehouse_id = ?", Integer.class, mouseId, warehouseId))
+            .as("the row inserted for the chunk is rolled back too").isZero();
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM inventory_movements WHERE created_by = 'BATCH_JOB'", Integer.class)).isZero();
+    }
+
+    private Map<String, Object> row(long productId) {
+        return jdbcTemplate.queryForMap(
+            "SELECT quantity, reserved_quantity FROM inventory WHERE product_id = ? AND warehouse_id = ?",
+            productId, warehouseId);
+    }
+}
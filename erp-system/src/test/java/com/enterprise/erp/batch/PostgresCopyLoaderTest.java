@@ -0,0 +1,30 @@
+package com.enterprise.erp.batch;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PostgresCopyLoader Unit Tests")
+class PostgresCopyLoaderTest {
+
+    @Test
+    @DisplayName("Movement ids: each sequence value reserves the block of ids ending at it")
+    void movementIdsFromPooledBlocks() {
+        long[] ids = PostgresCopyLoader.movementIds(List.of(50L, 250L), 52);
+
+        assertThat(ids).hasSize(52);
+        assertThat(ids[0]).isEqualTo(1L);
+        assertThat(ids[49]).isEqualTo(50L);
+        assertThat(ids[50]).isEqualTo(201L);
+        assertThat(ids[51]).isEqualTo(202L);
+        assertThat(ids).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Movement ids: a partial block uses the lowest ids of its block")
+    void movementIdsPartialBlock() {
+        assertThat(PostgresCopyLoader.movementIds(List.of(100L), 3)).containsExactly(51L, 52L, 53L);
+    }
+}
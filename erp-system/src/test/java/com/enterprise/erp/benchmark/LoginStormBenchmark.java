@@ -0,0 +1,125 @@
+package com.enterprise.erp.benchmark;
+
+import org.junit.jupiter.api.*;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * p99 latency of GET /api/sales-orders while 200 logins hit /api/auth/login at once,
+ * against the same order traffic without logins. Password hashing runs on the bounded
+ * PasswordHashingExecutor; logins beyond its pool + queue are answered with 503.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=LoginStormBenchmark
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Tag("benchmark")
+@DisplayName("Login storm benchmark")
+class LoginStormBenchmark {
+
+    private static final int LOGINS = 200;
+    private static final int ORDER_CLIENTS = 16;
+    private static final int ORDER_CALLS_PER_CLIENT = 50;
+    private static final Pattern TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+
+    @LocalServerPort private int port;
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    @DisplayName("Sales order p99 with and without a concurrent login storm")
+    void salesOrderLatencyDuringLoginStorm() throws Exception {
+        HttpResponse<String> login = login();
+        Matcher matcher = TOKEN.matcher(login.body());
+        assertThat(matcher.find()).as("login response: %s", login.body()).isTrue();
+        String token = matcher.group(1);
+
+        orderTraffic(token);                           // warm-up
+        List<Long> quiet = orderTraffic(token);
+
+        ExecutorService stormPool = Executors.newFixedThreadPool(LOGINS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> logins = new ArrayList<>();
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+        for (int i = 0; i < LOGINS; i++) {
+            logins.add(stormPool.submit(() -> {
+                start.await();
+                long begin = System.nanoTime();
+                int status = login().statusCode();
+                (status == 200 ? ok : shed).incrementAndGet();
+                return System.nanoTime() - begin;
+            }));
+        }
+        start.countDown();
+        List<Long> storm = orderTraffic(token);
+        List<Long> loginLatencies = new ArrayList<>();
+        for (Future<Long> result : logins) {
+            loginLatencies.add(result.get());
+        }
+        stormPool.shutdown();
+
+        System.out.printf("%n  sales-orders p50/p99 quiet      : %6.1f / %6.1f ms%n", percentile(quiet, 50), percentile(quiet, 99));
+        System.out.printf("  sales-orders p50/p99 login storm: %6.1f / %6.1f ms%n", percentile(storm, 50), percentile(storm, 99));
+        System.out.printf("  logins: %d ok, %d shed (503), p99 %.1f ms%n%n", ok.get(), shed.get(), percentile(loginLatencies, 99));
+
+        assertThat(ok.get() + shed.get()).isEqualTo(LOGINS);
+    }
+
+    private List<Long> orderTraffic(String token) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(ORDER_CLIENTS);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> clients = new ArrayList<>();
+        for (int c = 0; c < ORDER_CLIENTS; c++) {
+            clients.add(pool.submit(() -> {
+                for (int i = 0; i < ORDER_CALLS_PER_CLIENT; i++) {
+                    long begin = System.nanoTime();
+                    HttpResponse<String> response = http.send(HttpRequest.newBuilder(url("/api/sales-orders?page=0&size=20"))
+                        .header("Authorization", "Bearer " + token).GET().build(),
+                        HttpResponse.BodyHandlers.ofString());
+                    latencies.add(System.nanoTime() - begin);
+                    assertThat(response.statusCode()).isEqualTo(200);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> client : clients) {
+            client.get();
+        }
+        pool.shutdown();
+        return latencies;
+    }
+
+    private HttpResponse<String> login() throws Exception {
+        return http.send(HttpRequest.newBuilder(url("/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"staff\",\"password\":\"Staff@123\"}"))
+            .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI url(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static double percentile(List<Long> nanos, int percentile) {
+        List<Long> sorted = new ArrayList<>(nanos);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1_000_000.0;
+    }
+}
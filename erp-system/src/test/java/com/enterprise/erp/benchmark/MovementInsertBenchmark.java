@@ -0,0 +1,91 @@
+package com.enterprise.erp.benchmark;
+
+import com.enterprise.erp.entity.InventoryMovement;
+import com.enterprise.erp.entity.Product;
+import com.enterprise.erp.entity.Warehouse;
+import com.enterprise.erp.entity.enums.MovementType;
+import com.enterprise.erp.entity.enums.ReferenceType;
+import com.enterprise.erp.inventory.InventoryMovementWriter;
+import com.enterprise.erp.repository.InventoryMovementRepository;
+import com.enterprise.erp.repository.ProductRepository;
+import com.enterprise.erp.repository.WarehouseRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Movements/second: per-row save+flush (one INSERT round trip per movement, as with
+ * IDENTITY ids) against the group-commit writer (one JDBC batch per transaction).
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=MovementInsertBenchmark
+ * Uses the H2 test profile by default; point spring.datasource.* at PostgreSQL for
+ * representative numbers, since H2 in-memory has no network round trip to save.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+@DisplayName("Inventory movement insert benchmark")
+class MovementInsertBenchmark {
+
+    private static final int TRANSACTIONS = 500;
+    private static final int MOVEMENTS_PER_TRANSACTION = 10;
+
+    @Autowired private InventoryMovementWriter movementWriter;
+    @Autowired private InventoryMovementRepository movementRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private WarehouseRepository warehouseRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Group-commit writer vs per-row save")
+    void compareMovementsPerSecond() {
+        Product product = productRepository.findAll().get(0);
+        Warehouse warehouse = warehouseRepository.findAll().get(0);
+
+        Consumer<InventoryMovement> perRow = movementRepository::saveAndFlush;
+        Consumer<InventoryMovement> grouped = movementWriter::append;
+
+        run(perRow, product, warehouse);   // warm-up
+        run(grouped, product, warehouse);
+
+        double perRowRate = run(perRow, product, warehouse);
+        double groupedRate = run(grouped, product, warehouse);
+
+        System.out.printf("%n  per-row save      : %,10.0f movements/s%n", perRowRate);
+        System.out.printf("  group-commit batch: %,10.0f movements/s  (x%.2f)%n%n",
+            groupedRate, groupedRate / perRowRate);
+
+        assertThat(groupedRate).isPositive();
+    }
+
+    private double run(Consumer<InventoryMovement> writer, Product product, Warehouse warehouse) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        for (int t = 0; t < TRANSACTIONS; t++) {
+            tx.executeWithoutResult(status -> {
+                for (int m = 0; m < MOVEMENTS_PER_TRANSACTION; m++) {
+                    writer.accept(InventoryMovement.builder()
+                        .product(product)
+                        .warehouse(warehouse)
+                        .movementType(MovementType.ADJUSTMENT)
+                        .quantity(1)
+                        .quantityBefore(0)
+                        .quantityAfter(1)
+                        .referenceType(ReferenceType.MANUAL)
+                        .notes("benchmark")
+                        .createdBy("BENCHMARK")
+                        .build());
+                }
+            });
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        return TRANSACTIONS * MOVEMENTS_PER_TRANSACTION / seconds;
+    }
+}
@@ -0,0 +1,24 @@
+package com.enterprise.erp.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * ThreadModelLoadBenchmark on Tomcat's platform worker pool.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=PlatformThreadLoadBenchmark
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.threads.virtual.enabled=false")
+@ActiveProfiles("test")
+@Tag("benchmark")
+@DisplayName("Load benchmark - platform threads")
+class PlatformThreadLoadBenchmark extends ThreadModelLoadBenchmark {
+
+    @Override
+    String threadModel() {
+        return "platform";
+    }
+}
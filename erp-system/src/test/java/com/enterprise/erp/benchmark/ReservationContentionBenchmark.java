@@ -0,0 +1,101 @@
+package com.enterprise.erp.benchmark;
+
+import com.enterprise.erp.inventory.ReservationMode;
+import com.enterprise.erp.service.impl.InventoryService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Reservations/second on one hot SKU from concurrent clients: LOCK (SELECT ... FOR
+ * UPDATE, check in Java, UPDATE - the row lock is held across round trips) against
+ * CONDITIONAL (one guarded UPDATE). Each reservation is its own transaction.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=ReservationContentionBenchmark
+ * Uses the H2 test profile by default; point spring.datasource.* at PostgreSQL for
+ * representative numbers, since the lock is held longer with real round trips.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+@DisplayName("Hot SKU reservation contention benchmark")
+class ReservationContentionBenchmark {
+
+    private static final int CLIENTS = 16;
+    private static final int RESERVATIONS_PER_CLIENT = 200;
+
+    @Autowired private InventoryService inventoryService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long productId;
+    private Long warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        productId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'LAPTOP-001'", Long.class);
+        warehouseId = jdbcTemplate.queryForObject("SELECT id FROM warehouses WHERE code = 'WH-001'", Long.class);
+        // The seeder creates no stock: a receipt creates the row if needed
+        inventoryService.addInventory(productId, warehouseId, 1, null);
+    }
+
+    @Test
+    @DisplayName("LOCK vs CONDITIONAL reservations on one row")
+    void compareReservationsPerSecond() throws Exception {
+        run(ReservationMode.LOCK);            // warm-up
+        run(ReservationMode.CONDITIONAL);
+
+        double lockRate = run(ReservationMode.LOCK);
+        double conditionalRate = run(ReservationMode.CONDITIONAL);
+
+        System.out.printf("%n  LOCK        : %,10.0f reservations/s%n", lockRate);
+        System.out.printf("  CONDITIONAL : %,10.0f reservations/s  (x%.2f)%n%n",
+            conditionalRate, conditionalRate / lockRate);
+
+        assertThat(conditionalRate).isPositive();
+    }
+
+    private double run(ReservationMode mode) throws Exception {
+        ReflectionTestUtils.setField(AopTestUtils.getTargetObject(inventoryService), "reservationMode", mode);
+        int total = CLIENTS * RESERVATIONS_PER_CLIENT;
+        jdbcTemplate.update("""
+            UPDATE inventory SET quantity = ?, reserved_quantity = 0, stripe_count = NULL
+            WHERE product_id = ? AND warehouse_id = ?
+            """, total, productId, warehouseId);
+
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> clients = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            clients.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < RESERVATIONS_PER_CLIENT; i++) {
+                    inventoryService.reserveInventory(productId, warehouseId, 1);
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> client : clients) {
+            client.get();
+        }
+        double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+        pool.shutdown();
+
+        Integer reserved = jdbcTemplate.queryForObject(
+            "SELECT reserved_quantity FROM inventory WHERE product_id = ? AND warehouse_id = ?",
+            Integer.class, productId, warehouseId);
+        assertThat(reserved).as("%s: no lost or oversold reservations", mode).isEqualTo(total);
+        return total / seconds;
+    }
+}
@@ -0,0 +1,117 @@
+package com.enterprise.erp.benchmark;
+
+import org.junit.jupiter.api.*;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 2,000 concurrent clients on GET /api/sales-orders, each sending CALLS_PER_CLIENT
+ * requests back to back. Subclasses start the application with platform threads
+ * (Tomcat's 200 workers) or with spring.threads.virtual.enabled=true (a virtual thread
+ * per request, JDBC access bounded by ConnectionLimitingDataSource). Compare throughput,
+ * p50/p99 and the requests answered 503 (no connection within the limiter wait).
+ *
+ * Run each subclass in its own JVM; in a shared run the second one gets a warm JIT:
+ *   mvn test -Pbenchmark -Dtest=PlatformThreadLoadBenchmark
+ *   mvn test -Pbenchmark -Dtest=VirtualThreadLoadBenchmark
+ */
+abstract class ThreadModelLoadBenchmark {
+
+    private static final int CLIENTS = 2_000;
+    private static final int CALLS_PER_CLIENT = 5;
+    private static final Pattern TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+
+    @LocalServerPort private int port;
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(30))
+        .build();
+
+    abstract String threadModel();
+
+    @Test
+    @DisplayName("Sales order throughput and latency at 2,000 concurrent clients")
+    void salesOrdersUnderLoad() throws Exception {
+        HttpResponse<String> login = http.send(HttpRequest.newBuilder(url("/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"staff\",\"password\":\"Staff@123\"}"))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(login.body());
+        assertThat(matcher.find()).as("login response: %s", login.body()).isTrue();
+        String token = matcher.group(1);
+
+        run(token, 100);                               // warm-up
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+        long begin = System.nanoTime();
+        run(token, CLIENTS, latencies, ok, shed);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        System.out.printf("%n  %s threads, %d clients x %d calls%n", threadModel(), CLIENTS, CALLS_PER_CLIENT);
+        System.out.printf("  throughput : %8.0f req/s (%.1f s)%n", latencies.size() / seconds, seconds);
+        System.out.printf("  p50 / p99  : %8.1f / %.1f ms%n", percentile(latencies, 50), percentile(latencies, 99));
+        System.out.printf("  responses  : %d ok, %d shed (503)%n%n", ok.get(), shed.get());
+
+        assertThat(ok.get() + shed.get()).isEqualTo(CLIENTS * CALLS_PER_CLIENT);
+    }
+
+    private void run(String token, int clients) throws Exception {
+        run(token, clients, Collections.synchronizedList(new ArrayList<>()), new AtomicInteger(), new AtomicInteger());
+    }
+
+    // Clients are virtual threads in both runs, so only the server's thread model differs
+    private void run(String token, int clients, List<Long> latencies, AtomicInteger ok, AtomicInteger shed)
+            throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < CALLS_PER_CLIENT; i++) {
+                        long begin = System.nanoTime();
+                        HttpResponse<String> response = http.send(
+                            HttpRequest.newBuilder(url("/api/sales-orders?page=0&size=20"))
+                                .header("Authorization", "Bearer " + token).GET().build(),
+                            HttpResponse.BodyHandlers.ofString());
+                        latencies.add(System.nanoTime() - begin);
+                        assertThat(response.statusCode()).isIn(200, 503);
+                        (response.statusCode() == 200 ? ok : shed).incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+    }
+
+    private URI url(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static double percentile(List<Long> nanos, int percentile) {
+        List<Long> sorted = new ArrayList<>(nanos);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,24 @@
+package com.enterprise.erp.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * ThreadModelLoadBenchmark with a virtual thread per request and the JDBC limiter.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=VirtualThreadLoadBenchmark
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+@Tag("benchmark")
+@DisplayName("Load benchmark - virtual threads")
+class VirtualThreadLoadBenchmark extends ThreadModelLoadBenchmark {
+
+    @Override
+    String threadModel() {
+        return "virtual";
+    }
+}
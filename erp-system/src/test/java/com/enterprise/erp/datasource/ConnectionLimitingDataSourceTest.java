@@ -0,0 +1,60 @@
+package com.enterprise.erp.datasource;
+
+import org.junit.jupiter.api.*;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ConnectionLimitingDataSource Unit Tests")
+class ConnectionLimitingDataSourceTest {
+
+    private DataSource pool;
+    private ConnectionLimitingDataSource limiter;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        limiter = new ConnectionLimitingDataSource(pool, 2, 10);
+    }
+
+    @Test
+    @DisplayName("Rejects a caller once all permits are in use, until a connection is closed")
+    void limitsConcurrentConnections() throws SQLException {
+        Connection first = limiter.getConnection();
+        limiter.getConnection();
+
+        assertThatThrownBy(limiter::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(limiter.rejected()).isEqualTo(1);
+
+        first.close();
+        assertThat(limiter.getConnection()).isNotNull();
+        assertThat(limiter.availablePermits()).isZero();
+    }
+
+    @Test
+    @DisplayName("Returns the permit once, however often a connection is closed")
+    void releasesPermitOnFirstClose() throws SQLException {
+        Connection connection = limiter.getConnection();
+
+        connection.close();
+        connection.close();
+
+        assertThat(limiter.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Returns the permit when the pool fails to hand out a connection")
+    void releasesPermitWhenPoolFails() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("pool timeout"));
+
+        assertThatThrownBy(limiter::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(limiter.availablePermits()).isEqualTo(2);
+        assertThat(limiter.rejected()).isZero();
+    }
+}
@@ -0,0 +1,184 @@
+package com.enterprise.erp.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Primary and replica are two H2 databases standing in for PostgreSQL servers (set
+ * -Dtest.primary.url / -Dtest.replica.url, plus .username / .password, to use two local
+ * Postgres instances). Each holds a "server" row naming it; WAL positions are
+ * simulated through the position queries, which read them from a "wal" table: the
+ * primary's current position and the replica's replayed one.
+ */
+@DisplayName("ReplicaRoutingDataSource Unit Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private static final String POSITION_QUERY = "SELECT lsn FROM wal";
+    private static final long MAX_LAG_MS = 50;
+
+    private JdbcTemplate primaryDb;
+    private JdbcTemplate replicaDb;
+    private ReplicaSet replicas;
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate routed;
+
+    @BeforeEach
+    void setUp() {
+        primaryDb = new JdbcTemplate(database("primary"));
+        replicaDb = new JdbcTemplate(database("replica"));
+        for (JdbcTemplate db : List.of(primaryDb, replicaDb)) {
+            db.execute("DROP TABLE IF EXISTS wal");
+            db.execute("CREATE TABLE wal (lsn BIGINT)");
+            db.update("INSERT INTO wal VALUES (100)");
+        }
+
+        replicas = new ReplicaSet(primaryDb.getDataSource(), Map.of("replica-1", replicaDb.getDataSource()),
+            POSITION_QUERY, POSITION_QUERY, MAX_LAG_MS);
+        meterRegistry = new SimpleMeterRegistry();
+        replicas.bindTo(meterRegistry);
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primaryDb.getDataSource(), replicas);
+        dataSource.afterPropertiesSet();
+        routed = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Sends read-only work to a caught-up replica and everything else to the primary")
+    void routesReadOnlyToReplica() {
+        replicas.checkLag();
+
+        assertThat(server()).isEqualTo("primary");
+        assertThat(readOnly(this::server)).isEqualTo("replica");
+        assertThat(meterRegistry.get("erp.datasource.replica.lag").tag("replica", "replica-1").gauge().value())
+            .isZero();
+    }
+
+    @Test
+    @DisplayName("Falls back to the primary before the first lag check and while the replica lags")
+    void fallsBackWhileLagging() throws InterruptedException {
+        assertThat(readOnly(this::server)).isEqualTo("primary");
+
+        replicas.checkLag();
+        // The replica replayed all it received, but the primary has moved on since
+        primaryDb.update("UPDATE wal SET lsn = 200");
+        Thread.sleep(MAX_LAG_MS * 2);
+        replicas.checkLag();
+        assertThat(readOnly(this::server)).isEqualTo("primary");
+        assertThat(meterRegistry.get("erp.datasource.replica.lag").tag("replica", "replica-1").gauge().value())
+            .isGreaterThan(MAX_LAG_MS);
+
+        replicaDb.update("UPDATE wal SET lsn = 200");
+        replicas.checkLag();
+        assertThat(readOnly(this::server)).isEqualTo("replica");
+        assertThat(meterRegistry.counter("erp.datasource.replica.routing", "target", "primary", "reason", "lag")
+            .count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Treats a replica behind every known primary position as unknown until the history covers it")
+    void unknownLagBeforeHistory() {
+        primaryDb.update("UPDATE wal SET lsn = 200");
+        replicas.checkLag();
+
+        assertThat(readOnly(this::server)).isEqualTo("primary");
+        assertThat(meterRegistry.get("erp.datasource.replica.lag").tag("replica", "replica-1").gauge().value())
+            .isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Reads a user's own write from the primary until the replica has replayed its WAL position")
+    void readYourWrites() {
+        replicas.checkLag();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("staff", null, List.of()));
+
+        primaryDb.update("UPDATE wal SET lsn = 150");
+        replicas.recordWrite();
+        assertThat(readOnly(this::server)).isEqualTo("primary");
+
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("manager", null, List.of()));
+        assertThat(readOnly(this::server)).as("other users are not affected").isEqualTo("replica");
+
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("staff", null, List.of()));
+        replicaDb.update("UPDATE wal SET lsn = 149");
+        replicas.checkLag();
+        assertThat(readOnly(this::server)).isEqualTo("primary");
+
+        replicaDb.update("UPDATE wal SET lsn = 150");
+        replicas.checkLag();
+        assertThat(readOnly(this::server)).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("Keeps a user's reads on the primary when their write position could not be read")
+    void readYourWritesWithoutPosition() throws InterruptedException {
+        replicas.checkLag();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("staff", null, List.of()));
+
+        primaryDb.execute("DROP TABLE wal");
+        replicas.recordWrite();
+        assertThat(readOnly(this::server)).isEqualTo("primary");
+
+        primaryDb.execute("CREATE TABLE wal (lsn BIGINT)");
+        primaryDb.update("INSERT INTO wal VALUES (150)");
+        Thread.sleep(5);
+        replicas.checkLag();
+        assertThat(readOnly(this::server)).as("write resolved to position 150").isEqualTo("primary");
+
+        replicaDb.update("UPDATE wal SET lsn = 150");
+        replicas.checkLag();
+        assertThat(readOnly(this::server)).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("Falls back to the primary when the replica is unreachable")
+    void fallsBackWhenUnreachable() {
+        replicas.checkLag();
+        replicaDb.execute("DROP TABLE wal");
+        replicas.checkLag();
+
+        assertThat(readOnly(this::server)).isEqualTo("primary");
+    }
+
+    private String server() {
+        return routed.queryForObject("SELECT name FROM server", String.class);
+    }
+
+    private static <T> T readOnly(Supplier<T> work) {
+        WorkloadContext.push(Workload.OLTP, true);
+        try {
+            return work.get();
+        } finally {
+            WorkloadContext.pop();
+        }
+    }
+
+    private static DriverManagerDataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            System.getProperty("test." + name + ".url", "jdbc:h2:mem:" + name + "_stand_in;DB_CLOSE_DELAY=-1;MODE=PostgreSQL"),
+            System.getProperty("test." + name + ".username", "sa"),
+            System.getProperty("test." + name + ".password", ""));
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP TABLE IF EXISTS server");
+        jdbc.execute("CREATE TABLE server (name VARCHAR(20))");
+        jdbc.update("INSERT INTO server VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,112 @@
+package com.enterprise.erp.datasource;
+
+import org.junit.jupiter.api.*;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Workload routing Unit Tests")
+class WorkloadRoutingTest {
+
+    @RoutedTo(Workload.ANALYTICS)
+    public static class Reports {
+        public Workload dashboard() {
+            return WorkloadContext.current();
+        }
+
+        @RoutedTo(Workload.BATCH)
+        public Workload export() {
+            return WorkloadContext.current();
+        }
+    }
+
+    public static class Orders {
+        public Workload confirm() {
+            return WorkloadContext.current();
+        }
+
+        @Transactional(readOnly = true, label = "workload:analytics")
+        public Workload history() {
+            return WorkloadContext.current();
+        }
+
+        @Transactional(readOnly = true)
+        public boolean lookup() {
+            return WorkloadContext.readOnly();
+        }
+
+        @Transactional(readOnly = true)
+        @RoutedTo(value = Workload.OLTP, replicas = false)
+        public boolean lookupOnPrimary() {
+            return WorkloadContext.readOnly();
+        }
+    }
+
+    private static <T> T advised(T target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(new WorkloadRoutingAdvisor(
+            new DefaultListableBeanFactory().getBeanProvider(ReplicaSet.class)));
+        @SuppressWarnings("unchecked")
+        T proxy = (T) factory.getProxy();
+        return proxy;
+    }
+
+    @Test
+    @DisplayName("Routes by method annotation, class annotation and transaction label")
+    void resolvesWorkload() {
+        Reports reports = advised(new Reports());
+        Orders orders = advised(new Orders());
+
+        assertThat(reports.dashboard()).isEqualTo(Workload.ANALYTICS);
+        assertThat(reports.export()).isEqualTo(Workload.BATCH);
+        assertThat(orders.history()).isEqualTo(Workload.ANALYTICS);
+        assertThat(orders.confirm()).isEqualTo(Workload.OLTP);
+        assertThat(WorkloadContext.current()).isEqualTo(Workload.OLTP);
+    }
+
+    @Test
+    @DisplayName("Marks read-only transactions, unless replicas are ruled out")
+    void marksReadOnly() {
+        Orders orders = advised(new Orders());
+
+        assertThat(orders.lookup()).isTrue();
+        assertThat(orders.lookupOnPrimary()).isFalse();
+        assertThat(WorkloadContext.readOnly()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Hands out connections from the pool of the current workload")
+    void routesConnections() throws SQLException {
+        Map<Workload, DataSource> pools = Map.of(
+            Workload.OLTP, pool(), Workload.ANALYTICS, pool(), Workload.BATCH, pool());
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(pools);
+        routing.afterPropertiesSet();
+
+        routing.getConnection();
+        WorkloadContext.push(Workload.BATCH);
+        try {
+            routing.getConnection();
+        } finally {
+            WorkloadContext.pop();
+        }
+
+        verify(pools.get(Workload.OLTP)).getConnection();
+        verify(pools.get(Workload.BATCH)).getConnection();
+        verifyNoInteractions(pools.get(Workload.ANALYTICS));
+    }
+
+    private static DataSource pool() throws SQLException {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenReturn(mock(Connection.class));
+        return pool;
+    }
+}
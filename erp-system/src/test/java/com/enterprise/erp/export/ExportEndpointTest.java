@@ -0,0 +1,172 @@
+package com.enterprise.erp.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * The export endpoints over HTTP: security, both formats, filters and inclusive date
+ * bounds, and validation before streaming. A 200 with a complete body also covers the
+ * async dispatch that completes a StreamingResponseBody, which must pass the security
+ * filter chain without the original request's authentication.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DisplayName("Export endpoints")
+class ExportEndpointTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+    private static final long FIRST_ID = 995_001;
+
+    @LocalServerPort private int port;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private long laptopId;
+    private long mouseId;
+    private long warehouseId;
+    private long otherWarehouseId;
+
+    @BeforeEach
+    void setUp() {
+        laptopId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'LAPTOP-001'", Long.class);
+        mouseId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'MOUSE-001'", Long.class);
+        List<Long> warehouses = jdbcTemplate.queryForList("SELECT id FROM warehouses ORDER BY id", Long.class);
+        warehouseId = warehouses.get(0);
+        otherWarehouseId = warehouses.get(1);
+        // Inserted out of ledger order; the export must sort by (created_at, id)
+        movement(FIRST_ID + 3, laptopId, warehouseId, LocalDateTime.of(2991, 1, 20, 23, 59, 59));
+        movement(FIRST_ID, laptopId, warehouseId, LocalDateTime.of(2991, 1, 10, 8, 0));
+        movement(FIRST_ID + 1, mouseId, warehouseId, LocalDateTime.of(2991, 1, 10, 8, 0));
+        movement(FIRST_ID + 2, laptopId, otherWarehouseId, LocalDateTime.of(2991, 1, 15, 9, 30));
+        movement(FIRST_ID + 4, laptopId, warehouseId, LocalDateTime.of(2991, 1, 21, 0, 0));
+        movement(FIRST_ID + 5, laptopId, warehouseId, LocalDateTime.of(2991, 1, 9, 23, 59, 59));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM inventory_movements WHERE created_by = 'EXPORT_TEST'");
+    }
+
+    @Test
+    @DisplayName("Anonymous and STAFF requests are refused before anything is streamed")
+    void refusesUnauthorized() throws Exception {
+        assertThat(get("/api/exports/movements", null).statusCode()).isEqualTo(403);
+        assertThat(get("/api/exports/movements", login("staff", "Staff@123")).statusCode()).isEqualTo(403);
+    }
+
+    @Test
+    @DisplayName("NDJSON: one object per row in ledger order, inclusive days, warehouse filter")
+    void streamsNdjson() throws Exception {
+        HttpResponse<String> response = get("/api/exports/movements?from=2991-01-10&to=2991-01-20&warehouseId="
+            + warehouseId, login("manager", "Manager@123"));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+            type -> assertThat(type).startsWith("application/x-ndjson"));
+        assertThat(response.headers().firstValue("Content-Disposition")).hasValueSatisfying(
+            disposition -> assertThat(disposition).startsWith("attachment").contains("movements-").endsWith(".ndjson\""));
+
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : response.body().split("\n")) {
+            rows.add(objectMapper.readTree(line));
+        }
+        assertThat(rows).extracting(row -> row.get("id").asLong())
+            .containsExactly(FIRST_ID, FIRST_ID + 1, FIRST_ID + 3);
+        assertThat(rows.get(1).get("sku").asText()).isEqualTo("MOUSE-001");
+        assertThat(rows.get(1).get("movement_type").asText()).isEqualTo("ADJUSTMENT");
+        assertThat(rows.get(1).get("created_by").asText()).isEqualTo("EXPORT_TEST");
+    }
+
+    @Test
+    @DisplayName("CSV: header line then one line per row, product filter")
+    void streamsCsv() throws Exception {
+        HttpResponse<String> response = get("/api/exports/movements?format=csv&from=2991-01-01&to=2991-01-31&productId="
+            + laptopId, login("admin", "Admin@123"));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+            type -> assertThat(type).startsWith("text/csv"));
+        List<String> lines = response.body().lines().toList();
+        assertThat(lines.get(0)).startsWith("id,created_at,product_id,sku,");
+        assertThat(lines.subList(1, lines.size())).extracting(line -> Long.parseLong(line.substring(0, line.indexOf(','))))
+            .containsExactly(FIRST_ID + 5, FIRST_ID, FIRST_ID + 2, FIRST_ID + 3, FIRST_ID + 4);
+    }
+
+    @Test
+    @DisplayName("Order exports stream too, with a header even when no row matches")
+    void streamsOrders() throws Exception {
+        String token = login("manager", "Manager@123");
+
+        HttpResponse<String> sales = get("/api/exports/sales-orders?format=csv&status=DELIVERED&from=2991-01-01", token);
+        assertThat(sales.statusCode()).isEqualTo(200);
+        assertThat(sales.body().lines().toList()).singleElement().asString().startsWith("id,order_number,");
+
+        HttpResponse<String> purchases = get("/api/exports/purchase-orders?from=2991-01-01", token);
+        assertThat(purchases.statusCode()).isEqualTo(200);
+        assertThat(purchases.body()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Bad format, reversed range or malformed parameters answer 400")
+    void rejectsBadInput() throws Exception {
+        String token = login("manager", "Manager@123");
+
+        assertThat(get("/api/exports/movements?format=xml", token).statusCode()).isEqualTo(400);
+        assertThat(get("/api/exports/movements?from=2991-02-01&to=2991-01-01", token).statusCode()).isEqualTo(400);
+        assertThat(get("/api/exports/movements?from=yesterday", token).statusCode()).isEqualTo(400);
+        assertThat(get("/api/exports/sales-orders?status=LOST", token).statusCode()).isEqualTo(400);
+    }
+
+    private void movement(long id, long productId, long warehouse, LocalDateTime createdAt) {
+        jdbcTemplate.update("""
+            INSERT INTO inventory_movements (id, product_id, warehouse_id, movement_type, quantity,
+                quantity_before, quantity_after, created_at, created_by)
+            VALUES (?, ?, ?, 'ADJUSTMENT', 1, 0, 1, ?, 'EXPORT_TEST')
+            """, id, productId, warehouse, Timestamp.valueOf(createdAt));
+    }
+
+    private String login(String username, String password) throws Exception {
+        HttpResponse<String> login = http.send(HttpRequest.newBuilder(url("/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(
+                "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(login.body());
+        assertThat(matcher.find()).as("login response: %s", login.body()).isTrue();
+        return matcher.group(1);
+    }
+
+    private HttpResponse<String> get(String path, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(url(path)).GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI url(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,63 @@
+package com.enterprise.erp.export;
+
+import com.enterprise.erp.exception.BusinessValidationException;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ExportFormat Unit Tests")
+class ExportFormatTest {
+
+    private static final String[] COLUMNS = { "id", "notes", "amount", "created_at" };
+
+    @Test
+    @DisplayName("CSV: header row, RFC 4180 quoting, plain decimals, empty nulls")
+    void csv() throws Exception {
+        String csv = write(ExportFormat.CSV,
+            new Object[] { 1L, "pallet, \"damaged\"", new BigDecimal("1E+3"), LocalDateTime.of(2024, 5, 31, 23, 59) },
+            new Object[] { 2L, null, new BigDecimal("12.5000"), null });
+
+        assertThat(csv).isEqualTo("""
+            id,notes,amount,created_at\r
+            1,"pallet, ""damaged\"\"\",1000,2024-05-31T23:59\r
+            2,,12.5000,\r
+            """);
+    }
+
+    @Test
+    @DisplayName("NDJSON: one object per line with typed numbers")
+    void ndjson() throws Exception {
+        String json = write(ExportFormat.NDJSON,
+            new Object[] { 1L, "line\nbreak", new BigDecimal("12.5000"), LocalDateTime.of(2024, 5, 31, 23, 59) },
+            new Object[] { 2L, null, BigDecimal.ONE, null });
+
+        assertThat(json).isEqualTo("""
+            {"id":1,"notes":"line\\nbreak","amount":12.5000,"created_at":"2024-05-31T23:59"}
+            {"id":2,"notes":null,"amount":1,"created_at":null}
+            """);
+        assertThat(write(ExportFormat.NDJSON)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Format names are case-insensitive; unknown formats are rejected")
+    void parse() {
+        assertThat(ExportFormat.parse("csv")).isEqualTo(ExportFormat.CSV);
+        assertThat(ExportFormat.parse("NDJSON")).isEqualTo(ExportFormat.NDJSON);
+        assertThatThrownBy(() -> ExportFormat.parse("xlsx")).isInstanceOf(BusinessValidationException.class);
+    }
+
+    private static String write(ExportFormat format, Object[]... rows) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportFormat.RowWriter writer = format.open(out, COLUMNS)) {
+            for (Object[] row : rows) {
+                writer.write(row);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,131 @@
+package com.enterprise.erp.inventory;
+
+import com.enterprise.erp.entity.*;
+import com.enterprise.erp.exception.InsufficientStockException;
+import com.enterprise.erp.repository.InventoryMovementRepository;
+import com.enterprise.erp.repository.InventoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AvailableToPromiseLedger Unit Tests")
+class AvailableToPromiseLedgerTest {
+
+    @Mock private InventoryRepository inventoryRepository;
+    @Mock private InventoryMovementRepository movementRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private static final long LOOKBACK_MS = 3_600_000;
+    private static final LocalDateTime JOURNAL_SINCE = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    private AvailableToPromiseLedger ledger;
+    private Inventory testInventory;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new AvailableToPromiseLedger(
+            inventoryRepository, movementRepository, transactionManager, new SimpleMeterRegistry(), LOOKBACK_MS);
+
+        Product product = Product.builder().id(1L).sku("SKU-HOT-001").build();
+        Warehouse warehouse = Warehouse.builder().id(1L).code("WH-001").build();
+        testInventory = Inventory.builder()
+            .id(1L).product(product).warehouse(warehouse)
+            .quantity(100).reservedQuantity(20).ledgerWatermark(40L).ledgerJournalSince(JOURNAL_SINCE).version(0L)
+            .build();
+        when(inventoryRepository.findByProductIdAndWarehouseId(1L, 1L)).thenReturn(Optional.of(testInventory));
+    }
+
+    @Test
+    @DisplayName("Should seed from the row plus journal entries not yet folded into it")
+    void reserve_ShouldRecoverUnfoldedJournal_WhenSeeding() {
+        // 15 units were journalled as reserved after watermark 40 but never written back
+        when(movementRepository.sumLedgerJournalAfter(1L, 1L, 40L, JOURNAL_SINCE)).thenReturn(-15L);
+
+        ledger.reserve(1L, 1L, 5);
+
+        assertThat(ledger.snapshot(1L, 1L)).containsExactly(100, 40); // 20 + 15 + 5
+    }
+
+    @Test
+    @DisplayName("Should never oversell a hot SKU under concurrent reservations")
+    void reserve_ShouldNotOversell_UnderContention() throws Exception {
+        when(movementRepository.sumLedgerJournalAfter(anyLong(), anyLong(), anyLong(), any())).thenReturn(0L);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int i = 0; i < 200; i++) {
+            pool.submit(() -> {
+                start.await();
+                try {
+                    ledger.reserve(1L, 1L, 1);
+                    reserved.incrementAndGet();
+                } catch (InsufficientStockException ex) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(reserved.get()).isEqualTo(80); // available = 100 - 20
+        assertThat(rejected.get()).isEqualTo(120);
+        assertThat(ledger.snapshot(1L, 1L)).containsExactly(100, 100);
+    }
+
+    @Test
+    @DisplayName("Should throw InsufficientStockException with SKU when ATP is exhausted")
+    void reserve_ShouldThrow_WhenInsufficient() {
+        when(movementRepository.sumLedgerJournalAfter(anyLong(), anyLong(), anyLong(), any())).thenReturn(0L);
+
+        assertThatThrownBy(() -> ledger.reserve(1L, 1L, 81))
+            .isInstanceOf(InsufficientStockException.class)
+            .hasMessageContaining("SKU-HOT-001");
+    }
+
+    @Test
+    @DisplayName("Should fold journalled reservations into the row up to the last journal id")
+    void flush_ShouldFoldDirtyRows_UpToLastJournalId() {
+        when(movementRepository.sumLedgerJournalAfter(anyLong(), anyLong(), anyLong(), any())).thenReturn(0L);
+        AtomicLong ids = new AtomicLong(41);
+        when(movementRepository.save(any(InventoryMovement.class))).thenAnswer(inv -> {
+            InventoryMovement movement = inv.getArgument(0);
+            movement.setId(ids.getAndIncrement());
+            return movement;
+        });
+
+        for (int i = 0; i < 3; i++) {
+            ledger.reserve(1L, 1L, 2);
+            ledger.journal(InventoryMovement.builder()
+                .product(testInventory.getProduct()).warehouse(testInventory.getWarehouse())
+                .quantity(-2).build());
+        }
+        LocalDateTime before = LocalDateTime.now();
+        ledger.flush();
+
+        // The next fold reads the journal from one lookback before this one
+        verify(inventoryRepository, times(1)).foldLedgerJournal(eq(1L), eq(1L), eq(43L), argThat(since ->
+            !since.isBefore(before.minusNanos(LOOKBACK_MS * 1_000_000L))
+                && !since.isAfter(LocalDateTime.now().minusNanos(LOOKBACK_MS * 1_000_000L))));
+
+        ledger.flush(); // nothing dirty anymore
+        verify(inventoryRepository, times(1)).foldLedgerJournal(anyLong(), anyLong(), anyLong(), any());
+    }
+}
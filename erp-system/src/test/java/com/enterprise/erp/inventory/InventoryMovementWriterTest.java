@@ -0,0 +1,69 @@
+package com.enterprise.erp.inventory;
+
+import com.enterprise.erp.entity.InventoryMovement;
+import com.enterprise.erp.repository.InventoryMovementRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InventoryMovementWriter Unit Tests")
+class InventoryMovementWriterTest {
+
+    @Mock private InventoryMovementRepository movementRepository;
+
+    @InjectMocks
+    private InventoryMovementWriter movementWriter;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should write all movements of a transaction as one batch before commit")
+    void append_ShouldBufferUntilBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        movementWriter.append(new InventoryMovement());
+        movementWriter.appendAll(List.of(new InventoryMovement(), new InventoryMovement()));
+        verifyNoInteractions(movementRepository);
+
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(synchronization -> synchronization.beforeCommit(false));
+
+        verify(movementRepository, times(1)).saveAll(argThat(movements -> ((List<?>) movements).size() == 3));
+        verify(movementRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should save immediately when no transaction is active")
+    void append_ShouldSaveDirectly_WithoutTransaction() {
+        movementWriter.append(new InventoryMovement());
+
+        verify(movementRepository).save(any(InventoryMovement.class));
+    }
+
+    @Test
+    @DisplayName("Should register a single buffer per transaction")
+    void append_ShouldReuseBufferWithinTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        movementWriter.append(new InventoryMovement());
+        movementWriter.append(new InventoryMovement());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        Assertions.assertEquals(1, synchronizations.size());
+    }
+}
@@ -0,0 +1,84 @@
+package com.enterprise.erp.inventory;
+
+import com.enterprise.erp.exception.InventoryLockedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("LockRetry Unit Tests")
+class LockRetryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LockRetry lockRetry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lockRetry = new LockRetry(meterRegistry);
+        ReflectionTestUtils.setField(lockRetry, "maxAttempts", 3);
+        ReflectionTestUtils.setField(lockRetry, "backoffMs", 1L);
+        ReflectionTestUtils.setField(lockRetry, "maxBackoffMs", 5L);
+    }
+
+    @Test
+    @DisplayName("Retries lock timeouts and deadlocks until the transaction succeeds")
+    void retriesTransientLockFailures() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = lockRetry.call(() -> switch (calls.incrementAndGet()) {
+            case 1 -> throw new CannotAcquireLockException("lock timeout");
+            case 2 -> throw new PessimisticLockingFailureException("deadlock");
+            default -> "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(calls).hasValue(3);
+        assertThat(meterRegistry.counter("erp.inventory.lock.retries", "outcome", "retried").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Fails with InventoryLockedException once attempts run out")
+    void failsFastWhenExhausted() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> lockRetry.call(() -> {
+            calls.incrementAndGet();
+            throw new CannotAcquireLockException("lock timeout");
+        }))
+            .isInstanceOf(InventoryLockedException.class)
+            .hasCauseInstanceOf(CannotAcquireLockException.class);
+        assertThat(calls).hasValue(3);
+        assertThat(meterRegistry.counter("erp.inventory.lock.retries", "outcome", "exhausted").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Does not retry other failures")
+    void doesNotRetryOtherFailures() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> lockRetry.call(() -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Backoff is jittered within the capped exponential ceiling")
+    void backoffWithinCeiling() {
+        ReflectionTestUtils.setField(lockRetry, "backoffMs", 50L);
+        ReflectionTestUtils.setField(lockRetry, "maxBackoffMs", 1000L);
+
+        IntStream.range(0, 200).forEach(i -> {
+            assertThat(lockRetry.backoff(1)).isBetween(0L, 100L);
+            assertThat(lockRetry.backoff(10)).isBetween(0L, 1000L);
+        });
+    }
+}
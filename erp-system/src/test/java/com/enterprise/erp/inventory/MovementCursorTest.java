@@ -0,0 +1,33 @@
+package com.enterprise.erp.inventory;
+
+import com.enterprise.erp.exception.BusinessValidationException;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MovementCursor Unit Tests")
+class MovementCursorTest {
+
+    @Test
+    @DisplayName("Formatted cursor parses back to the same position")
+    void roundTrip() {
+        MovementCursor cursor = new MovementCursor(LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123456000), 4711L);
+
+        assertThat(cursor.toString()).isEqualTo("2024-05-01T10:15:30.123456,4711");
+        assertThat(MovementCursor.parse(cursor.toString())).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Missing cursor starts at the newest movement; malformed cursor is rejected")
+    void startAndInvalid() {
+        assertThat(MovementCursor.parse(null)).isEqualTo(MovementCursor.START);
+        assertThat(MovementCursor.parse(" ")).isEqualTo(MovementCursor.START);
+
+        assertThatThrownBy(() -> MovementCursor.parse("2024-05-01T10:15:30"))
+            .isInstanceOf(BusinessValidationException.class);
+        assertThatThrownBy(() -> MovementCursor.parse("yesterday,12"))
+            .isInstanceOf(BusinessValidationException.class);
+    }
+}
@@ -0,0 +1,132 @@
+package com.enterprise.erp.inventory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MovementPartitionMaintenance Unit Tests")
+class MovementPartitionMaintenanceTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private MeterRegistry meterRegistry;
+
+    @InjectMocks
+    private MovementPartitionMaintenance maintenance;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(maintenance, "monthsAhead", 2);
+        ReflectionTestUtils.setField(maintenance, "retentionMonths", 12);
+        ReflectionTestUtils.setField(maintenance, "archiveSchema", "movements_archive");
+    }
+
+    private void postgresWithPartitions(String... names) {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any())).thenReturn(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any())).thenReturn(List.of(names));
+    }
+
+    @Test
+    @DisplayName("Should create only the missing partitions up to months-ahead")
+    void createFuturePartitions_ShouldCreateMissingMonths() {
+        YearMonth now = YearMonth.now();
+        postgresWithPartitions(MovementPartitionMaintenance.partitionName(now));
+
+        int created = maintenance.createFuturePartitions();
+
+        assertThat(created).isEqualTo(2);
+        verify(jdbcTemplate).execute(contains(MovementPartitionMaintenance.partitionName(now.plusMonths(1))
+            + " PARTITION OF inventory_movements FOR VALUES FROM ('" + now.plusMonths(1).atDay(1) + "')"));
+        verify(jdbcTemplate).execute(contains(MovementPartitionMaintenance.partitionName(now.plusMonths(2))));
+    }
+
+    @Test
+    @DisplayName("Should move rows stranded in the default partition into the new partition of their month")
+    void createFuturePartitions_ShouldDrainDefaultPartition() {
+        YearMonth now = YearMonth.now();
+        String next = MovementPartitionMaintenance.partitionName(now.plusMonths(1));
+        String late = MovementPartitionMaintenance.partitionName(now.plusMonths(2));
+        postgresWithPartitions(MovementPartitionMaintenance.partitionName(now), late, "inventory_movements_default");
+        when(jdbcTemplate.queryForList(anyString(), eq(LocalDate.class)))
+            .thenReturn(List.of(now.plusMonths(1).atDay(1)));
+        when(jdbcTemplate.queryForObject(contains("WHERE created_at"), eq(Long.class))).thenReturn(7L);
+        when(jdbcTemplate.queryForObject(endsWith("inventory_movements_default"), eq(Long.class))).thenReturn(0L);
+
+        int created = maintenance.createFuturePartitions();
+
+        assertThat(created).isEqualTo(1);
+        InOrder order = inOrder(jdbcTemplate, transactionManager);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(jdbcTemplate).execute(
+            "ALTER TABLE inventory_movements DETACH PARTITION inventory_movements_default");
+        order.verify(jdbcTemplate).execute(contains(next + " PARTITION OF inventory_movements"));
+        order.verify(jdbcTemplate).execute(
+            startsWith("INSERT INTO " + next + " SELECT * FROM inventory_movements_default"));
+        order.verify(jdbcTemplate).execute(startsWith("DELETE FROM inventory_movements_default WHERE created_at >= '"
+            + now.plusMonths(1).atDay(1) + "'"));
+        order.verify(jdbcTemplate).execute(
+            "ALTER TABLE inventory_movements ATTACH PARTITION inventory_movements_default DEFAULT");
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should keep creating later partitions when one month fails")
+    void createFuturePartitions_ShouldContinueAfterFailedMonth() {
+        YearMonth now = YearMonth.now();
+        String failing = MovementPartitionMaintenance.partitionName(now.plusMonths(1));
+        postgresWithPartitions(MovementPartitionMaintenance.partitionName(now));
+        doThrow(new BadSqlGrammarException("create", "CREATE", new SQLException("boom")))
+            .when(jdbcTemplate).execute(contains(failing + " PARTITION OF"));
+
+        int created = maintenance.createFuturePartitions();
+
+        assertThat(created).isEqualTo(1);
+        verify(jdbcTemplate).execute(contains(MovementPartitionMaintenance.partitionName(now.plusMonths(2))));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Should archive only partitions past the retention horizon")
+    void archiveExpiredPartitions_ShouldDetachOldMonths() {
+        String expired = MovementPartitionMaintenance.partitionName(YearMonth.now().minusMonths(13));
+        String kept = MovementPartitionMaintenance.partitionName(YearMonth.now().minusMonths(12));
+        postgresWithPartitions(expired, kept, "inventory_movements_default");
+
+        int archived = maintenance.archiveExpiredPartitions();
+
+        assertThat(archived).isEqualTo(1);
+        verify(jdbcTemplate).execute("ALTER TABLE inventory_movements DETACH PARTITION " + expired);
+        verify(jdbcTemplate).execute("ALTER TABLE " + expired + " SET SCHEMA movements_archive");
+        verify(jdbcTemplate, never()).execute(contains("DETACH PARTITION " + kept));
+    }
+
+    @Test
+    @DisplayName("Should do nothing when the database is not PostgreSQL")
+    void maintenance_ShouldBeNoOp_OnOtherDatabases() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+
+        assertThat(maintenance.createFuturePartitions()).isZero();
+        assertThat(maintenance.archiveExpiredPartitions()).isZero();
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
@@ -0,0 +1,101 @@
+package com.enterprise.erp.inventory;
+
+import com.enterprise.erp.entity.InventoryStripe;
+import com.enterprise.erp.entity.Product;
+import com.enterprise.erp.exception.InsufficientStockException;
+import com.enterprise.erp.repository.InventoryRepository;
+import com.enterprise.erp.repository.InventoryStripeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StripedInventory Unit Tests")
+class StripedInventoryTest {
+
+    @Mock private InventoryStripeRepository stripeRepository;
+    @Mock private InventoryRepository inventoryRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private StripedInventory stripedInventory;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        stripedInventory = new StripedInventory(
+            stripeRepository, inventoryRepository, transactionManager, new SimpleMeterRegistry());
+        product = Product.builder().id(1L).sku("SKU-HOT-001").build();
+    }
+
+    private List<InventoryStripe> stripes(int... quantities) {
+        return IntStream.range(0, quantities.length)
+            .mapToObj(i -> InventoryStripe.builder()
+                .product(product).stripeIndex(i).quantity(quantities[i]).reservedQuantity(0).build())
+            .toList();
+    }
+
+    @Test
+    @DisplayName("Should reserve on a single stripe when one can absorb the quantity")
+    void reserve_ShouldUsePickedStripe() {
+        List<InventoryStripe> stripes = stripes(25, 25);
+        when(stripeRepository.findUsableStripeSkipLocked(eq(1L), eq(1L), eq(10), eq(0), anyInt(), anyInt(), any()))
+            .thenReturn(List.of(stripes.get(1)));
+        when(stripeRepository.sumQuantity(1L, 1L)).thenReturn(50);
+
+        OptionalInt onHand = stripedInventory.reserve(1L, 1L, 10);
+
+        assertThat(onHand).hasValue(50);
+        assertThat(stripes.get(1).getReservedQuantity()).isEqualTo(10);
+        verify(stripeRepository, never()).findAllForUpdate(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should rebalance across stripes when no single stripe has enough")
+    void reserve_ShouldRebalance_WhenStripesRunDry() {
+        List<InventoryStripe> stripes = stripes(2, 9, 1);
+        when(stripeRepository.findUsableStripeSkipLocked(any(), any(), anyInt(), anyInt(), anyInt(), anyInt(), any()))
+            .thenReturn(List.of());
+        when(stripeRepository.findAllForUpdate(1L, 1L)).thenReturn(stripes);
+
+        OptionalInt onHand = stripedInventory.reserve(1L, 1L, 10);
+
+        assertThat(onHand).hasValue(12);
+        assertThat(stripes).extracting(InventoryStripe::getReservedQuantity).containsExactly(4, 3, 3);
+        assertThat(stripes).extracting(InventoryStripe::getQuantity).containsExactly(5, 4, 3);
+    }
+
+    @Test
+    @DisplayName("Should reject a reservation larger than the sum of all stripes")
+    void reserve_ShouldThrow_WhenAggregateInsufficient() {
+        List<InventoryStripe> stripes = stripes(3, 3);
+        when(stripeRepository.findUsableStripeSkipLocked(any(), any(), anyInt(), anyInt(), anyInt(), anyInt(), any()))
+            .thenReturn(List.of());
+        when(stripeRepository.findAllForUpdate(1L, 1L)).thenReturn(stripes);
+
+        assertThatThrownBy(() -> stripedInventory.reserve(1L, 1L, 7))
+            .isInstanceOf(InsufficientStockException.class)
+            .hasMessageContaining("SKU-HOT-001");
+        assertThat(stripes).extracting(InventoryStripe::getReservedQuantity).containsOnly(0);
+    }
+
+    @Test
+    @DisplayName("Should report an unstriped product so the caller falls back to the row")
+    void reserve_ShouldBeEmpty_WhenNoStripes() {
+        when(stripeRepository.findUsableStripeSkipLocked(any(), any(), anyInt(), anyInt(), anyInt(), anyInt(), any()))
+            .thenReturn(List.of());
+        when(stripeRepository.findAllForUpdate(1L, 1L)).thenReturn(List.of());
+
+        assertThat(stripedInventory.reserve(1L, 1L, 1)).isEmpty();
+    }
+}
@@ -0,0 +1,129 @@
+package com.enterprise.erp.repository;
+
+import com.enterprise.erp.entity.InventoryMovement;
+import com.enterprise.erp.inventory.MovementCursor;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Keyset slices of the movement trail: scrolled to the end with each filter, they
+ * must return every row exactly once, in (created_at, id) descending order, also when
+ * many rows share a created_at and ids do not follow created_at.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("InventoryMovementRepository keyset slices")
+class InventoryMovementRepositoryTest {
+
+    private static final int ROWS = 40;
+    private static final long FIRST_ID = 990_001;
+    private static final LocalDateTime BASE = LocalDateTime.of(2990, 1, 1, 12, 0, 0, 123_456_000);
+
+    @Autowired private InventoryMovementRepository movementRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private long[] products;
+    private long[] warehouses;
+
+    @BeforeEach
+    void setUp() {
+        products = jdbcTemplate.queryForList("SELECT id FROM products WHERE sku IN ('LAPTOP-001', 'MOUSE-001') ORDER BY id",
+            Long.class).stream().mapToLong(Long::longValue).toArray();
+        warehouses = jdbcTemplate.queryForList("SELECT id FROM warehouses ORDER BY id", Long.class).stream()
+            .limit(2).mapToLong(Long::longValue).toArray();
+        for (int i = 0; i < ROWS; i++) {
+            // 4 distinct timestamps for 40 rows; ids scattered across them
+            long id = FIRST_ID + (i * 17L) % ROWS;
+            jdbcTemplate.update("""
+                INSERT INTO inventory_movements (id, product_id, warehouse_id, movement_type, quantity,
+                    quantity_before, quantity_after, created_at, created_by)
+                VALUES (?, ?, ?, 'ADJUSTMENT', 1, 0, 1, ?, 'SCROLL_TEST')
+                """, id, products[i % 2], warehouses[(i / 2) % 2], Timestamp.valueOf(BASE.minusSeconds(i % 4)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM inventory_movements WHERE created_by = 'SCROLL_TEST'");
+    }
+
+    @Test
+    @DisplayName("No filter")
+    void unfiltered() {
+        assertScrollsWithoutGapsOrDuplicates("", (cursor, limit) ->
+            movementRepository.findSliceAfter(cursor.createdAt(), cursor.id(), limit));
+    }
+
+    @Test
+    @DisplayName("Product filter")
+    void byProduct() {
+        assertScrollsWithoutGapsOrDuplicates("AND product_id = " + products[1], (cursor, limit) ->
+            movementRepository.findSliceByProductAfter(products[1], cursor.createdAt(), cursor.id(), limit));
+    }
+
+    @Test
+    @DisplayName("Warehouse filter")
+    void byWarehouse() {
+        assertScrollsWithoutGapsOrDuplicates("AND warehouse_id = " + warehouses[0], (cursor, limit) ->
+            movementRepository.findSliceByWarehouseAfter(warehouses[0], cursor.createdAt(), cursor.id(), limit));
+    }
+
+    @Test
+    @DisplayName("Product and warehouse filter")
+    void byProductAndWarehouse() {
+        assertScrollsWithoutGapsOrDuplicates("AND product_id = " + products[0] + " AND warehouse_id = " + warehouses[1],
+            (cursor, limit) -> movementRepository.findSliceByProductAndWarehouseAfter(
+                products[0], warehouses[1], cursor.createdAt(), cursor.id(), limit));
+    }
+
+    private void assertScrollsWithoutGapsOrDuplicates(String filter,
+            BiFunction<MovementCursor, Pageable, Slice<InventoryMovement>> slices) {
+        List<Long> expected = jdbcTemplate.queryForList(
+            "SELECT id FROM inventory_movements WHERE created_by = 'SCROLL_TEST' " + filter
+                + " ORDER BY created_at DESC, id DESC", Long.class);
+        assertThat(expected).isNotEmpty();
+        Set<Long> seeded = new HashSet<>(expected);
+
+        for (int size : new int[] { 1, 3, 7 }) {
+            List<Long> scrolled = new ArrayList<>();
+            MovementCursor cursor = MovementCursor.START;
+            Slice<InventoryMovement> slice;
+            long pages = 0;
+            long total = movementRepository.count();
+            do {
+                // a cursor that does not advance would loop forever
+                assertThat(++pages).as("slice size %d: pages", size).isLessThanOrEqualTo(total / size + 1);
+                slice = slices.apply(cursor, PageRequest.of(0, size));
+                assertThat(slice.getContent()).hasSizeLessThanOrEqualTo(size);
+                for (InventoryMovement movement : slice.getContent()) {
+                    scrolled.add(movement.getId());
+                }
+                if (slice.hasContent()) {
+                    // through the cursor's string form, as a client sends it back
+                    cursor = MovementCursor.parse(
+                        MovementCursor.of(slice.getContent().get(slice.getNumberOfElements() - 1)).toString());
+                }
+            } while (slice.hasNext());
+
+            assertThat(scrolled).as("slice size %d", size).doesNotHaveDuplicates();
+            assertThat(scrolled.stream().filter(seeded::contains).toList())
+                .as("slice size %d", size).containsExactlyElementsOf(expected);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.enterprise.erp.repository;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * ATP ledger write-back: the fold reads the journal above the watermark from the row's
+ * ledger_journal_since on, and stores the bound for the next fold.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("InventoryRepository ledger journal fold")
+class InventoryRepositoryTest {
+
+    private static final long FIRST_ID = 996_001;
+    private static final LocalDateTime SINCE = LocalDateTime.of(2992, 3, 1, 12, 0);
+
+    @Autowired private InventoryRepository inventoryRepository;
+    @Autowired private InventoryMovementRepository movementRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private long productId;
+    private long warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        productId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'MOUSE-001'", Long.class);
+        warehouseId = jdbcTemplate.queryForObject("SELECT id FROM warehouses WHERE code = 'WH-001'", Long.class);
+        jdbcTemplate.update("DELETE FROM inventory WHERE product_id = ? AND warehouse_id = ?", productId, warehouseId);
+        jdbcTemplate.update("""
+            INSERT INTO inventory (product_id, warehouse_id, quantity, reserved_quantity, ledger_watermark,
+                ledger_journal_since, version)
+            VALUES (?, ?, 100, 10, ?, ?, 0)
+            """, productId, warehouseId, FIRST_ID, Timestamp.valueOf(SINCE));
+        journal(FIRST_ID, "RESERVATION", -3, SINCE.plusMinutes(1));      // already folded
+        journal(FIRST_ID + 1, "RESERVATION", -5, SINCE.plusMinutes(2));
+        journal(FIRST_ID + 2, "RELEASE", 2, SINCE);
+        journal(FIRST_ID + 3, "RESERVATION", -7, SINCE.minusSeconds(1)); // before the bound
+        journal(FIRST_ID + 4, "RESERVATION", -11, SINCE.plusMinutes(3)); // above upTo
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM inventory_movements WHERE created_by = 'LEDGER_TEST'");
+    }
+
+    @Test
+    @DisplayName("Folds watermark < id <= upTo from the stored bound on, then advances both")
+    void foldsBoundedJournal() {
+        assertThat(movementRepository.sumLedgerJournalAfter(productId, warehouseId, FIRST_ID, SINCE))
+            .isEqualTo(-5 + 2 - 11);
+
+        LocalDateTime next = SINCE.plusHours(1);
+        int folded = transactionTemplate.execute(status ->
+            inventoryRepository.foldLedgerJournal(productId, warehouseId, FIRST_ID + 3, next));
+
+        assertThat(folded).isEqualTo(1);
+        Map<String, Object> row = jdbcTemplate.queryForMap("""
+            SELECT reserved_quantity, ledger_watermark, ledger_journal_since
+            FROM inventory WHERE product_id = ? AND warehouse_id = ?
+            """, productId, warehouseId);
+        assertThat(row.get("RESERVED_QUANTITY")).isEqualTo(10 + 5 - 2);
+        assertThat(((Number) row.get("LEDGER_WATERMARK")).longValue()).isEqualTo(FIRST_ID + 3);
+        assertThat(((Timestamp) row.get("LEDGER_JOURNAL_SINCE")).toLocalDateTime()).isEqualTo(next);
+    }
+
+    private void journal(long id, String type, int quantity, LocalDateTime createdAt) {
+        jdbcTemplate.update("""
+            INSERT INTO inventory_movements (id, product_id, warehouse_id, movement_type, quantity,
+                quantity_before, quantity_after, created_at, created_by)
+            VALUES (?, ?, ?, ?, ?, 100, 100, ?, 'LEDGER_TEST')
+            """, id, productId, warehouseId, type, quantity, Timestamp.valueOf(createdAt));
+    }
+}
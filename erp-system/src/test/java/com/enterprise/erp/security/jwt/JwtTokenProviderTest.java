@@ -0,0 +1,84 @@
+package com.enterprise.erp.security.jwt;
+
+import com.enterprise.erp.entity.User;
+import com.enterprise.erp.entity.enums.UserRole;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("JwtTokenProvider Unit Tests")
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = provider(60_000L);
+    }
+
+    private static JwtTokenProvider provider(long expirationMs) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpiration", expirationMs);
+        ReflectionTestUtils.setField(provider, "claimsCacheSize", 2);
+        provider.init();
+        return provider;
+    }
+
+    @Test
+    @DisplayName("Should verify once and serve repeated validations from the claims cache")
+    void validateAndGetClaims_ShouldCacheVerifiedClaims() {
+        String token = tokenProvider.generateTokenFromUsername("admin");
+
+        Optional<Claims> first = tokenProvider.validateAndGetClaims(token);
+        Optional<Claims> second = tokenProvider.validateAndGetClaims(token);
+
+        assertThat(first).map(Claims::getSubject).contains("admin");
+        assertThat(second.get()).isSameAs(first.get());
+    }
+
+    @Test
+    @DisplayName("Should carry role and enabled claims from the authenticated user")
+    void generateToken_ShouldEmbedRoleAndEnabledClaims() {
+        User user = User.builder().username("manager").password("x").role(UserRole.MANAGER).enabled(true).build();
+        String token = tokenProvider.generateToken(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        Claims claims = tokenProvider.validateAndGetClaims(token).orElseThrow();
+
+        assertThat(claims.getSubject()).isEqualTo("manager");
+        assertThat(claims.get(JwtTokenProvider.CLAIM_ROLE, String.class)).isEqualTo("MANAGER");
+        assertThat(claims.get(JwtTokenProvider.CLAIM_ENABLED, Boolean.class)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject tampered, foreign and expired tokens")
+    void validateAndGetClaims_ShouldRejectInvalidTokens() {
+        String token = tokenProvider.generateTokenFromUsername("admin");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        String expired = provider(-1_000L).generateTokenFromUsername("admin");
+
+        assertThat(tokenProvider.validateAndGetClaims(tampered)).isEmpty();
+        assertThat(tokenProvider.validateAndGetClaims(expired)).isEmpty();
+        assertThat(tokenProvider.validateAndGetClaims("not-a-jwt")).isEmpty();
+        assertThat(tokenProvider.validateAndGetClaims(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep the claims cache bounded")
+    void validateAndGetClaims_ShouldEvictLeastRecentlyUsed() {
+        for (String user : new String[] { "a", "b", "c" }) {
+            tokenProvider.validateAndGetClaims(tokenProvider.generateTokenFromUsername(user));
+        }
+
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(tokenProvider, "verifiedClaims")).hasSize(2);
+    }
+}
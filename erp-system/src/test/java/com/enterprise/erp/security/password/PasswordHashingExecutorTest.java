@@ -0,0 +1,75 @@
+package com.enterprise.erp.security.password;
+
+import com.enterprise.erp.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PasswordHashingExecutor Unit Tests")
+class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new PasswordHashingExecutor(meterRegistry, 1, 1, 5_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should return the task result from the hashing pool")
+    void call_ShouldRunOnPool() {
+        String thread = executor.call(() -> Thread.currentThread().getName());
+
+        assertThat(thread).startsWith("password-hashing-");
+    }
+
+    @Test
+    @DisplayName("Should shed work with 503 once pool and queue are full")
+    void call_ShouldRejectWhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture<Boolean> busy = CompletableFuture.supplyAsync(() -> executor.call(() -> {
+            running.countDown();
+            return await(release);
+        }));
+        running.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.call(() -> true));
+        waitForQueueDepth(1);
+
+        assertThatThrownBy(() -> executor.call(() -> true))
+            .isInstanceOf(ServiceOverloadedException.class);
+        assertThat(meterRegistry.counter("erp.auth.password.rejected").count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(busy.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (executor.queueDepth() < depth && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.enterprise.erp.security.service;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LastLoginRecorder Unit Tests")
+class LastLoginRecorderTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private LastLoginRecorder lastLoginRecorder;
+
+    @Test
+    @DisplayName("Should coalesce logins per user and flush them as one batch")
+    void flush_ShouldWriteLatestLoginPerUserInOneBatch() {
+        LocalDateTime morning = LocalDateTime.of(2024, 3, 4, 8, 0);
+        lastLoginRecorder.record(1L, morning);
+        lastLoginRecorder.record(1L, morning.plusMinutes(5));
+        lastLoginRecorder.record(1L, morning.plusMinutes(2));   // out of order: older, ignored
+        lastLoginRecorder.record(2L, morning);
+
+        lastLoginRecorder.flush();
+        lastLoginRecorder.flush();                              // nothing pending
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("UPDATE users SET last_login"), batch.capture());
+        assertThat(batch.getValue()).hasSize(2)
+            .anySatisfy(row -> assertThat(row).containsExactly(
+                Timestamp.valueOf(morning.plusMinutes(5)), 1L, Timestamp.valueOf(morning.plusMinutes(5))));
+    }
+
+    @Test
+    @DisplayName("Should keep pending timestamps when the flush fails")
+    void flush_ShouldRetainEntriesOnFailure() {
+        LocalDateTime loginAt = LocalDateTime.of(2024, 3, 4, 8, 0);
+        lastLoginRecorder.record(1L, loginAt);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+            .thenThrow(new IllegalStateException("database down"))
+            .thenReturn(new int[] { 1 });
+
+        assertThatThrownBy(() -> lastLoginRecorder.flush()).isInstanceOf(IllegalStateException.class);
+        lastLoginRecorder.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+}
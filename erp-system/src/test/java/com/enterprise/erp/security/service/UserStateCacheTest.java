@@ -0,0 +1,91 @@
+package com.enterprise.erp.security.service;
+
+import com.enterprise.erp.entity.User;
+import com.enterprise.erp.entity.enums.UserRole;
+import com.enterprise.erp.repository.UserRepository;
+import com.enterprise.erp.security.service.UserStateCache.UserState;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserStateCache Unit Tests")
+class UserStateCacheTest {
+
+    @Mock private UserRepository userRepository;
+
+    @InjectMocks
+    private UserStateCache userStateCache;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userStateCache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(userStateCache, "maxSize", 100);
+        userStateCache.init();
+        user = User.builder().username("staff1").role(UserRole.STAFF).enabled(true).build();
+    }
+
+    @Test
+    @DisplayName("Should query the user once per TTL")
+    void get_ShouldServeRepeatedLookupsFromCache() {
+        when(userRepository.findByUsername("staff1")).thenReturn(Optional.of(user));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(userStateCache.get("staff1")).contains(new UserState(UserRole.STAFF, true));
+        }
+
+        verify(userRepository, times(1)).findByUsername("staff1");
+    }
+
+    @Test
+    @DisplayName("Should reload the state after invalidation")
+    void invalidate_ShouldReloadChangedState() {
+        when(userRepository.findByUsername("staff1")).thenReturn(Optional.of(user));
+        userStateCache.get("staff1");
+
+        user.setEnabled(false);
+        userStateCache.invalidate("staff1");
+
+        assertThat(userStateCache.get("staff1")).contains(new UserState(UserRole.STAFF, false));
+        verify(userRepository, times(2)).findByUsername("staff1");
+    }
+
+    @Test
+    @DisplayName("Should not cache a state loaded before a concurrent invalidation")
+    void get_ShouldDropStateLoadedBeforeInvalidation() {
+        User disabled = User.builder().username("staff1").role(UserRole.STAFF).enabled(false).build();
+        // The admin's change commits while this request is still loading the old row
+        when(userRepository.findByUsername("staff1"))
+            .thenAnswer(invocation -> {
+                userStateCache.invalidate("staff1");
+                return Optional.of(user);
+            })
+            .thenReturn(Optional.of(disabled));
+
+        assertThat(userStateCache.get("staff1")).contains(new UserState(UserRole.STAFF, true));
+
+        assertThat(userStateCache.get("staff1")).contains(new UserState(UserRole.STAFF, false));
+        verify(userRepository, times(2)).findByUsername("staff1");
+    }
+
+    @Test
+    @DisplayName("Should cache unknown users as absent")
+    void get_ShouldCacheMissingUser() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThat(userStateCache.get("ghost")).isEmpty();
+        assertThat(userStateCache.get("ghost")).isEmpty();
+
+        verify(userRepository, times(1)).findByUsername("ghost");
+    }
+}
@@ -1,5 +1,7 @@
 package com.enterprise.erp.service;
 
+import com.enterprise.erp.analytics.DashboardSnapshotCache;
+import com.enterprise.erp.analytics.InventoryValuation;
 import com.enterprise.erp.dto.request.InventoryAdjustRequest;
 import com.enterprise.erp.dto.response.InventoryResponse;
 import com.enterprise.erp.entity.*;
@@ -7,18 +9,27 @@ import com.enterprise.erp.entity.enums.ProductStatus;
 import com.enterprise.erp.exception.BusinessValidationException;
 import com.enterprise.erp.exception.InsufficientStockException;
 import com.enterprise.erp.exception.ResourceNotFoundException;
+import com.enterprise.erp.inventory.ConditionalReservation;
+import com.enterprise.erp.inventory.InventoryMovementWriter;
+import com.enterprise.erp.inventory.InventoryRowLocks;
+import com.enterprise.erp.inventory.ReservationMode;
+import com.enterprise.erp.inventory.StripedInventory;
 import com.enterprise.erp.repository.*;
 import com.enterprise.erp.service.impl.InventoryService;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,9 +37,14 @@ import static org.mockito.Mockito.*;
 class InventoryServiceTest {
 
     @Mock private InventoryRepository inventoryRepository;
-    @Mock private InventoryMovementRepository movementRepository;
+    @Mock private InventoryMovementWriter movementWriter;
     @Mock private ProductRepository productRepository;
     @Mock private WarehouseRepository warehouseRepository;
+    @Mock private StripedInventory stripedInventory;
+    @Mock private ConditionalReservation conditionalReservation;
+    @Mock private InventoryRowLocks rowLocks;
+    @Mock private InventoryValuation inventoryValuation;
+    @Mock private DashboardSnapshotCache dashboardSnapshotCache;
 
     @InjectMocks
     private InventoryService inventoryService;
@@ -39,6 +55,10 @@ class InventoryServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Row locks run the locking query as given
+        lenient().when(rowLocks.acquire(any(), any()))
+            .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+
         testProduct = Product.builder()
             .id(1L)
             .sku("SKU-TEST-001")
@@ -77,7 +97,6 @@ class InventoryServiceTest {
         when(inventoryRepository.findByProductAndWarehouseForUpdate(1L, 1L))
             .thenReturn(Optional.of(testInventory));
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(testInventory);
-        when(movementRepository.save(any())).thenReturn(null);
 
         assertThatNoException().isThrownBy(
             () -> inventoryService.reserveInventory(1L, 1L, 30)
@@ -112,6 +131,136 @@ class InventoryServiceTest {
             .isInstanceOf(ResourceNotFoundException.class);
     }
 
+    @Test
+    @DisplayName("Should reserve all lines of an order with a single lock statement")
+    void reserveInventoryLines_ShouldLockOnceAndReserveAll() {
+        Product secondProduct = Product.builder()
+            .id(2L).sku("SKU-TEST-002").costPrice(new BigDecimal("10.00")).reorderLevel(5).build();
+        Inventory secondInventory = Inventory.builder()
+            .id(2L).product(secondProduct).warehouse(testWarehouse)
+            .quantity(40).reservedQuantity(0).version(0L).build();
+
+        when(inventoryRepository.findByWarehouseAndProductsForUpdate(eq(1L), anyCollection()))
+            .thenReturn(List.of(testInventory, secondInventory));
+
+        inventoryService.reserveInventory(List.of(
+            new InventoryService.ReservationLine(2L, 1L, 15),
+            new InventoryService.ReservationLine(1L, 1L, 30)
+        ), 7L);
+
+        assertThat(testInventory.getReservedQuantity()).isEqualTo(50);   // 20 + 30
+        assertThat(secondInventory.getReservedQuantity()).isEqualTo(15); // 0 + 15
+        verify(inventoryRepository, times(1)).findByWarehouseAndProductsForUpdate(eq(1L), anyCollection());
+        verify(inventoryRepository, never()).findByProductAndWarehouseForUpdate(any(), any());
+        verify(movementWriter).appendAll(argThat(movements -> ((List<?>) movements).size() == 2));
+    }
+
+    @Test
+    @DisplayName("Should reserve nothing when any line of the order lacks stock")
+    void reserveInventoryLines_ShouldThrow_WhenAnyLineInsufficient() {
+        Product secondProduct = Product.builder().id(2L).sku("SKU-TEST-002").build();
+        Inventory secondInventory = Inventory.builder()
+            .id(2L).product(secondProduct).warehouse(testWarehouse)
+            .quantity(5).reservedQuantity(0).version(0L).build();
+
+        when(inventoryRepository.findByWarehouseAndProductsForUpdate(eq(1L), anyCollection()))
+            .thenReturn(List.of(testInventory, secondInventory));
+
+        assertThatThrownBy(() -> inventoryService.reserveInventory(List.of(
+            new InventoryService.ReservationLine(1L, 1L, 30),
+            new InventoryService.ReservationLine(2L, 1L, 10)
+        ), 7L))
+            .isInstanceOf(InsufficientStockException.class)
+            .hasMessageContaining("SKU-TEST-002");
+
+        assertThat(testInventory.getReservedQuantity()).isEqualTo(20); // untouched
+        verify(inventoryRepository, never()).saveAll(any());
+        verify(movementWriter, never()).appendAll(any());
+    }
+
+    @Test
+    @DisplayName("Should reserve a striped SKU on its stripes without locking the inventory row")
+    void reserveInventory_ShouldUseStripes_WhenSkuIsStriped() {
+        when(stripedInventory.isStriped(1L, 1L)).thenReturn(true);
+        when(stripedInventory.reserve(1L, 1L, 10)).thenReturn(OptionalInt.of(100));
+        when(productRepository.getReferenceById(1L)).thenReturn(testProduct);
+        when(warehouseRepository.getReferenceById(1L)).thenReturn(testWarehouse);
+
+        inventoryService.reserveInventory(1L, 1L, 10);
+
+        verify(inventoryRepository, never()).findByProductAndWarehouseForUpdate(any(), any());
+        verify(movementWriter).append(argThat(m -> m.getQuantity() == -10 && m.getQuantityAfter() == 100));
+    }
+
+    @Test
+    @DisplayName("Should move to stripes when the locked row was striped after the hint was loaded")
+    void reserveInventory_ShouldUseStripes_WhenLockedRowIsStriped() {
+        testInventory.setStripeCount(4);
+        when(inventoryRepository.findByProductAndWarehouseForUpdate(1L, 1L))
+            .thenReturn(Optional.of(testInventory));
+        when(stripedInventory.reserve(1L, 1L, 10)).thenReturn(OptionalInt.of(100));
+
+        inventoryService.reserveInventory(1L, 1L, 10);
+
+        assertThat(testInventory.getReservedQuantity()).isEqualTo(20); // row is only the rollup
+        verify(inventoryRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("CONDITIONAL: should reserve with the guarded update and no row lock")
+    void reserveInventory_Conditional_ShouldNotLockRow() {
+        ReflectionTestUtils.setField(inventoryService, "reservationMode", ReservationMode.CONDITIONAL);
+        when(conditionalReservation.reserve(1L, 1L, 30)).thenReturn(OptionalInt.of(100));
+        when(productRepository.getReferenceById(1L)).thenReturn(testProduct);
+        when(warehouseRepository.getReferenceById(1L)).thenReturn(testWarehouse);
+
+        inventoryService.reserveInventory(1L, 1L, 30);
+
+        verify(inventoryRepository, never()).findByProductAndWarehouseForUpdate(any(), any());
+        verify(inventoryRepository, never()).save(any());
+        verify(movementWriter).append(argThat(m -> m.getQuantity() == -30 && m.getQuantityBefore() == 100));
+    }
+
+    @Test
+    @DisplayName("CONDITIONAL: should reserve order lines in (warehouse, product) order and stop at a short line")
+    void reserveInventoryLines_Conditional_ShouldStopAtShortLine() {
+        ReflectionTestUtils.setField(inventoryService, "reservationMode", ReservationMode.CONDITIONAL);
+        when(conditionalReservation.reserve(1L, 1L, 30)).thenReturn(OptionalInt.of(100));
+        when(conditionalReservation.reserve(2L, 1L, 10))
+            .thenThrow(new InsufficientStockException("SKU-TEST-002", 10, 5));
+        when(productRepository.getReferenceById(1L)).thenReturn(testProduct);
+        when(warehouseRepository.getReferenceById(1L)).thenReturn(testWarehouse);
+
+        assertThatThrownBy(() -> inventoryService.reserveInventory(List.of(
+            new InventoryService.ReservationLine(3L, 1L, 5),
+            new InventoryService.ReservationLine(2L, 1L, 10),
+            new InventoryService.ReservationLine(1L, 1L, 30)
+        ), 7L))
+            .isInstanceOf(InsufficientStockException.class)
+            .hasMessageContaining("SKU-TEST-002");
+
+        InOrder order = inOrder(conditionalReservation);
+        order.verify(conditionalReservation).reserve(1L, 1L, 30);
+        order.verify(conditionalReservation).reserve(2L, 1L, 10);
+        verify(conditionalReservation, never()).reserve(eq(3L), any(), anyInt());
+        verify(inventoryRepository, never()).findByWarehouseAndProductsForUpdate(any(), any());
+    }
+
+    @Test
+    @DisplayName("CONDITIONAL: should fall back to the stripes when the row is striped")
+    void reserveInventory_Conditional_ShouldUseStripes_WhenRowIsStriped() {
+        ReflectionTestUtils.setField(inventoryService, "reservationMode", ReservationMode.CONDITIONAL);
+        when(conditionalReservation.reserve(1L, 1L, 10)).thenReturn(OptionalInt.empty());
+        when(stripedInventory.reserve(1L, 1L, 10)).thenReturn(OptionalInt.of(100));
+        when(productRepository.getReferenceById(1L)).thenReturn(testProduct);
+        when(warehouseRepository.getReferenceById(1L)).thenReturn(testWarehouse);
+
+        inventoryService.reserveInventory(1L, 1L, 10);
+
+        verify(inventoryRepository, never()).findByProductAndWarehouseForUpdate(any(), any());
+        verify(movementWriter).append(argThat(m -> m.getQuantity() == -10 && m.getQuantityAfter() == 100));
+    }
+
     // ================================================================
     // DEDUCT INVENTORY TESTS
     // ================================================================
@@ -122,13 +271,13 @@ class InventoryServiceTest {
         when(inventoryRepository.findByProductAndWarehouseForUpdate(1L, 1L))
             .thenReturn(Optional.of(testInventory));
         when(inventoryRepository.save(any())).thenReturn(testInventory);
-        when(movementRepository.save(any())).thenReturn(null);
 
         inventoryService.deductInventory(1L, 1L, 30, 100L);
 
         assertThat(testInventory.getQuantity()).isEqualTo(70); // 100 - 30
         verify(inventoryRepository).save(testInventory);
-        verify(movementRepository).save(any());
+        verify(movementWriter).append(any());
+        verify(inventoryValuation).recordQuantityChange(new BigDecimal("50.00"), -30);
     }
 
     @Test
@@ -155,7 +304,6 @@ class InventoryServiceTest {
         when(inventoryRepository.findByProductAndWarehouseForUpdate(1L, 1L))
             .thenReturn(Optional.of(testInventory));
         when(inventoryRepository.save(any())).thenReturn(testInventory);
-        when(movementRepository.save(any())).thenReturn(null);
 
         InventoryResponse response = inventoryService.adjustInventory(request);
 
@@ -188,11 +336,11 @@ class InventoryServiceTest {
         when(inventoryRepository.findByProductIdAndWarehouseId(1L, 1L))
             .thenReturn(Optional.of(testInventory));
         when(inventoryRepository.save(any())).thenReturn(testInventory);
-        when(movementRepository.save(any())).thenReturn(null);
 
         inventoryService.addInventory(1L, 1L, 200, 50L);
 
         assertThat(testInventory.getQuantity()).isEqualTo(300); // 100 + 200
-        verify(movementRepository).save(any()); // Audit trail recorded
+        verify(movementWriter).append(any()); // Audit trail recorded
+        verify(inventoryValuation).recordQuantityChange(new BigDecimal("50.00"), 200);
     }
 }
@@ -0,0 +1,148 @@
+package com.enterprise.erp.service;
+
+import com.enterprise.erp.entity.*;
+import com.enterprise.erp.entity.enums.PurchaseOrderStatus;
+import com.enterprise.erp.entity.enums.SalesOrderStatus;
+import com.enterprise.erp.repository.*;
+import com.enterprise.erp.service.impl.InventoryService;
+import com.enterprise.erp.service.impl.PurchaseOrderService;
+import com.enterprise.erp.service.impl.SalesOrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Guards the paged list endpoints against N+1 loading: the number of SQL statements
+ * per page must not depend on the page size.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    // keep background flushes out of the statement counts
+    "app.inventory.ledger.flush-interval-ms=3600000",
+    "app.inventory.stripes.rollup-interval-ms=3600000",
+    "app.inventory.stripes.refresh-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+@DisplayName("Paged list statement counts")
+class PagedListQueryCountTest {
+
+    private static final int ORDERS = 25;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired private SalesOrderService salesOrderService;
+    @Autowired private PurchaseOrderService purchaseOrderService;
+    @Autowired private InventoryService inventoryService;
+    @Autowired private SalesOrderRepository salesOrderRepository;
+    @Autowired private PurchaseOrderRepository purchaseOrderRepository;
+    @Autowired private InventoryRepository inventoryRepository;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private SupplierRepository supplierRepository;
+    @Autowired private WarehouseRepository warehouseRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (salesOrderRepository.count() == 0) {
+            transactionTemplate.executeWithoutResult(status -> seedOrders());
+        }
+    }
+
+    @Test
+    @DisplayName("Sales order page: page + count + items + products")
+    void salesOrderPage() {
+        assertThat(statementsFor(() -> salesOrderService.getAllOrders(page(5)))).isEqualTo(4);
+        assertThat(statementsFor(() -> salesOrderService.getAllOrders(page(20)))).isEqualTo(4);
+        assertThat(statementsFor(() -> salesOrderService.getOrdersByStatus(SalesOrderStatus.CREATED, page(20))))
+            .isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Purchase order page: page + count + items + products")
+    void purchaseOrderPage() {
+        assertThat(statementsFor(() -> purchaseOrderService.getAllOrders(page(5)))).isEqualTo(4);
+        assertThat(statementsFor(() -> purchaseOrderService.getAllOrders(page(20)))).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Inventory page: page + count")
+    void inventoryPage() {
+        assertThat(statementsFor(() -> inventoryService.getAllInventory(PageRequest.of(0, 2)))).isEqualTo(2);
+        assertThat(statementsFor(() -> inventoryService.getAllInventory(PageRequest.of(0, 4)))).isEqualTo(2);
+    }
+
+    private long statementsFor(java.util.function.Supplier<Page<?>> call) {
+        statistics.clear();
+        Page<?> page = call.get();
+        assertThat(page.getContent()).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static PageRequest page(int size) {
+        return PageRequest.of(0, size, Sort.by("createdAt").descending());
+    }
+
+    private void seedOrders() {
+        Customer customer = customerRepository.findAll().get(0);
+        Supplier supplier = supplierRepository.findAll().get(0);
+        List<Warehouse> warehouses = warehouseRepository.findAll();
+        List<Product> products = productRepository.findAll();
+
+        for (int i = 0; i < ORDERS; i++) {
+            Warehouse warehouse = warehouses.get(i % warehouses.size());
+
+            SalesOrder salesOrder = SalesOrder.builder()
+                .orderNumber("SO-COUNT-" + i)
+                .customer(customer)
+                .warehouse(warehouse)
+                .status(SalesOrderStatus.CREATED)
+                .totalAmount(BigDecimal.ZERO)
+                .items(new ArrayList<>())
+                .build();
+            PurchaseOrder purchaseOrder = PurchaseOrder.builder()
+                .orderNumber("PO-COUNT-" + i)
+                .supplier(supplier)
+                .warehouse(warehouse)
+                .status(PurchaseOrderStatus.CREATED)
+                .totalAmount(BigDecimal.ZERO)
+                .items(new ArrayList<>())
+                .build();
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                Product product = products.get((i + j) % products.size());
+                salesOrder.getItems().add(SalesOrderItem.builder()
+                    .salesOrder(salesOrder).product(product).quantity(1).unitPrice(BigDecimal.TEN).build());
+                purchaseOrder.getItems().add(PurchaseOrderItem.builder()
+                    .purchaseOrder(purchaseOrder).product(product).quantity(1).receivedQuantity(0)
+                    .unitCost(BigDecimal.ONE).build());
+            }
+            salesOrderRepository.save(salesOrder);
+            purchaseOrderRepository.save(purchaseOrder);
+        }
+
+        for (Product product : products) {
+            for (Warehouse warehouse : warehouses) {
+                inventoryRepository.save(Inventory.builder()
+                    .product(product).warehouse(warehouse)
+                    .quantity(10).reservedQuantity(0).version(0L).build());
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.enterprise.erp.service;
 
+import com.enterprise.erp.analytics.DashboardSnapshotCache;
+import com.enterprise.erp.analytics.SalesRollupWriter;
 import com.enterprise.erp.dto.request.SalesOrderItemRequest;
 import com.enterprise.erp.dto.request.SalesOrderRequest;
 import com.enterprise.erp.dto.response.SalesOrderResponse;
@@ -9,6 +11,7 @@ import com.enterprise.erp.exception.InvalidOrderStateException;
 import com.enterprise.erp.exception.ResourceNotFoundException;
 import com.enterprise.erp.repository.*;
 import com.enterprise.erp.service.impl.InventoryService;
+import com.enterprise.erp.service.impl.OrderNumberGenerator;
 import com.enterprise.erp.service.impl.SalesOrderService;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -31,6 +34,9 @@ class SalesOrderServiceTest {
     @Mock private WarehouseRepository warehouseRepository;
     @Mock private ProductRepository productRepository;
     @Mock private InventoryService inventoryService;
+    @Mock private DashboardSnapshotCache dashboardSnapshotCache;
+    @Mock private SalesRollupWriter salesRollupWriter;
+    @Mock private OrderNumberGenerator orderNumberGenerator;
 
     @InjectMocks
     private SalesOrderService salesOrderService;
@@ -79,13 +85,14 @@ class SalesOrderServiceTest {
         when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
         when(warehouseRepository.findById(1L)).thenReturn(Optional.of(testWarehouse));
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(orderNumberGenerator.next(OrderNumberGenerator.Series.SALES_ORDER)).thenReturn("SO-0000000001");
         when(salesOrderRepository.save(any(SalesOrder.class))).thenReturn(testOrder);
 
         SalesOrderResponse response = salesOrderService.createSalesOrder(request);
 
         assertThat(response).isNotNull();
         assertThat(response.getCustomerName()).isEqualTo("Test Customer");
-        verify(salesOrderRepository).save(any());
+        verify(salesOrderRepository).save(argThat(order -> "SO-0000000001".equals(order.getOrderNumber())));
     }
 
     @Test
@@ -110,7 +117,8 @@ class SalesOrderServiceTest {
 
         SalesOrderResponse response = salesOrderService.confirmOrder(1L);
 
-        verify(inventoryService).reserveInventory(1L, 1L, 5);
+        verify(inventoryService).reserveInventory(
+            List.of(new InventoryService.ReservationLine(1L, 1L, 5)), 1L);
         assertThat(response.getStatus()).isEqualTo(SalesOrderStatus.CONFIRMED);
     }
 
@@ -147,6 +155,7 @@ class SalesOrderServiceTest {
         SalesOrderResponse response = salesOrderService.cancelOrder(1L);
 
         verify(inventoryService).releaseReservation(1L, 1L, 5);
+        verify(salesRollupWriter).recordStatusChange(testOrder, SalesOrderStatus.CONFIRMED);
         assertThat(response.getStatus()).isEqualTo(SalesOrderStatus.CANCELLED);
     }
 
@@ -0,0 +1,54 @@
+package com.enterprise.erp.service.impl;
+
+import com.enterprise.erp.service.impl.OrderNumberGenerator.Series;
+import org.junit.jupiter.api.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("OrderNumberGenerator Unit Tests")
+class OrderNumberGeneratorTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private OrderNumberGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        generator = new OrderNumberGenerator(jdbcTemplate);
+        generator.init();
+    }
+
+    @Test
+    @DisplayName("Hands out a reserved block from memory, then reserves the next one")
+    void blockAllocation() {
+        when(jdbcTemplate.queryForObject(contains("sales_order_number_seq"), eq(Long.class)))
+            .thenReturn(100L, 300L);
+
+        for (int i = 1; i <= OrderNumberGenerator.BLOCK_SIZE; i++) {
+            assertThat(generator.next(Series.SALES_ORDER)).isEqualTo(OrderNumberGenerator.format("SO", i));
+        }
+        assertThat(generator.next(Series.SALES_ORDER)).isEqualTo("SO-0000000201");
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    @DisplayName("Series draw from their own sequences")
+    void seriesAreIndependent() {
+        when(jdbcTemplate.queryForObject(contains("sales_order_number_seq"), eq(Long.class))).thenReturn(100L);
+        when(jdbcTemplate.queryForObject(contains("purchase_order_number_seq"), eq(Long.class))).thenReturn(500L);
+
+        assertThat(generator.next(Series.SALES_ORDER)).isEqualTo("SO-0000000001");
+        assertThat(generator.next(Series.PURCHASE_ORDER)).isEqualTo("PO-0000000401");
+    }
+
+    @Test
+    @DisplayName("Fixed-width numbers sort like their values")
+    void format() {
+        assertThat(OrderNumberGenerator.format("SO", 42)).isEqualTo("SO-0000000042");
+        assertThat(OrderNumberGenerator.format("SO", 99_999_999_999L)).isEqualTo("SO-99999999999");
+        assertThat(OrderNumberGenerator.format("SO", 9)).isLessThan(OrderNumberGenerator.format("SO", 10));
+    }
+}